@@ -0,0 +1,140 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+
+/**
+ * Drives {@link DebeziumEngine.ChangeConsumer#handleBatch} of a single sink with synthetic batches.
+ * <p>
+ * Two benchmarks are provided per sink:
+ * <ul>
+ * <li>{@code throughput} reports batches/s together with the {@code records} and {@code bytes} secondary results</li>
+ * <li>{@code latency} samples the duration of each {@code handleBatch} call and reports its percentiles, including p99</li>
+ * </ul>
+ * Allocation rate is reported when running with the GC profiler, i.e. {@code -prof gc}.
+ * <p>
+ * The value type is a parameter of the concrete benchmarks as not every sink accepts {@code byte[]} values.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public abstract class AbstractSinkBenchmark {
+
+    @Param({ "1024" })
+    public int batchSize;
+
+    @Param({ "32" })
+    public int keySize;
+
+    @Param({ "256", "4096" })
+    public int valueSize;
+
+    @Param({ "0", "4" })
+    public int headerCount;
+
+    @Param({ "1", "16" })
+    public int destinationCount;
+
+    private DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer;
+    private List<ChangeEvent<Object, Object>> batch;
+    private long batchBytes;
+    private BlackholeRecordCommitter committer;
+    private long invocations;
+
+    /**
+     * @return the value type of the generated events
+     */
+    protected abstract PayloadType payloadType();
+
+    /**
+     * Creates the sink under test wired to an in-process stand-in of its client.
+     */
+    protected abstract DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> createConsumer(Config config) throws Exception;
+
+    /**
+     * Releases the sink and its stand-in client once the trial is finished.
+     */
+    protected void destroyConsumer(DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer) throws Exception {
+        SinkBeans.destroy(consumer);
+    }
+
+    /**
+     * @return sink specific configuration added on top of the common one, evaluated once per trial
+     */
+    protected Map<String, String> sinkConfiguration() throws Exception {
+        return Map.of();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("debezium.format.key", "json");
+        properties.put("debezium.format.value", "json");
+        properties.putAll(sinkConfiguration());
+
+        consumer = createConsumer(SinkBeans.installConfig(properties));
+        batch = new SyntheticChangeEvents(keySize, valueSize, headerCount, destinationCount, payloadType()).batch(batchSize);
+        batchBytes = SyntheticChangeEvents.payloadBytes(batch);
+        committer = new BlackholeRecordCommitter();
+        invocations = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try {
+            if (committer.processed() != invocations * batch.size() || committer.batchesFinished() != invocations) {
+                throw new DebeziumException("Sink acknowledged " + committer.processed() + " records in " + committer.batchesFinished()
+                        + " batches, expected " + invocations * batch.size() + " records in " + invocations + " batches");
+            }
+        }
+        finally {
+            destroyConsumer(consumer);
+            SinkBeans.releaseConfig();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughput(SinkCounters counters) throws InterruptedException {
+        consumer.handleBatch(batch, committer);
+        invocations++;
+        counters.records += batch.size();
+        counters.bytes += batchBytes;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void latency() throws InterruptedException {
+        consumer.handleBatch(batch, committer);
+        invocations++;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+
+/**
+ * A {@link DebeziumEngine.RecordCommitter} that only counts the acknowledgements so that the harness can
+ * verify a sink acknowledged every record it was handed.
+ */
+public class BlackholeRecordCommitter implements DebeziumEngine.RecordCommitter<ChangeEvent<Object, Object>> {
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder batchesFinished = new LongAdder();
+
+    @Override
+    public void markProcessed(ChangeEvent<Object, Object> record) {
+        processed.increment();
+    }
+
+    @Override
+    public void markBatchFinished() {
+        batchesFinished.increment();
+    }
+
+    @Override
+    public void markProcessed(ChangeEvent<Object, Object> record, DebeziumEngine.Offsets sourceOffsets) {
+        processed.increment();
+    }
+
+    @Override
+    public DebeziumEngine.Offsets buildOffsets() {
+        return (key, value) -> {
+        };
+    }
+
+    public long processed() {
+        return processed.sum();
+    }
+
+    public long batchesFinished() {
+        return batchesFinished.sum();
+    }
+
+    public void reset() {
+        processed.reset();
+        batchesFinished.reset();
+    }
+}
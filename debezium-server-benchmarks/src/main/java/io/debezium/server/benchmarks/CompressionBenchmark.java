@@ -0,0 +1,111 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.debezium.server.PayloadCompressor;
+
+/**
+ * Measures the CPU cost of the payload compression against the bytes it saves. The payloads are JSON change events
+ * shaped like the output of the Debezium JSON converter, as random strings would not compress at all.
+ * <p>
+ * The {@code inputBytes} and {@code outputBytes} secondary results are normalized to bytes/s, their quotient is the
+ * compression ratio; the primary result is the number of compressed payloads per second.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CompressionBenchmark {
+
+    @Param({ "NONE", "GZIP", "LZ4", "ZSTD" })
+    public PayloadCompressor.Codec codec;
+
+    @Param({ "-1" })
+    public int level;
+
+    @Param({ "512", "4096" })
+    public int valueSize;
+
+    private PayloadCompressor compressor;
+    private byte[][] payloads;
+    private int next;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class CompressionCounters {
+
+        public long inputBytes;
+        public long outputBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            inputBytes = 0;
+            outputBytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        compressor = new PayloadCompressor(codec, level, null);
+        final Random random = new Random(42);
+        final List<byte[]> generated = new ArrayList<>();
+        for (int i = 0; i < 256; i++) {
+            generated.add(changeEvent(random, i));
+        }
+        payloads = generated.toArray(new byte[0][]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public byte[] compress(CompressionCounters counters) {
+        final byte[] payload = payloads[next++ & (payloads.length - 1)];
+        final byte[] compressed = compressor.compress("benchmark.inventory.customers", payload);
+        counters.inputBytes += payload.length;
+        counters.outputBytes += compressed.length;
+        return compressed;
+    }
+
+    private byte[] changeEvent(Random random, int id) {
+        final StringBuilder row = new StringBuilder("{\"id\":").append(id);
+        for (int column = 0; row.length() < valueSize / 2; column++) {
+            row.append(",\"column_").append(column).append("\":");
+            if (column % 3 == 0) {
+                row.append(random.nextInt(1_000_000));
+            }
+            else {
+                row.append("\"value ").append(Long.toHexString(random.nextLong())).append('"');
+            }
+        }
+        row.append('}');
+        final String event = "{\"before\":" + row + ",\"after\":" + row
+                + ",\"source\":{\"version\":\"2.5.0.Final\",\"connector\":\"postgresql\",\"name\":\"benchmark\",\"ts_ms\":"
+                + (1_700_000_000_000L + id) + ",\"snapshot\":\"false\",\"db\":\"inventory\",\"schema\":\"public\",\"table\":\"customers\","
+                + "\"txId\":" + (500 + id) + ",\"lsn\":" + (24_000_000L + id * 64L) + "},\"op\":\"u\",\"ts_ms\":" + (1_700_000_000_100L + id)
+                + ",\"transaction\":null}";
+        return event.getBytes(StandardCharsets.UTF_8);
+    }
+}
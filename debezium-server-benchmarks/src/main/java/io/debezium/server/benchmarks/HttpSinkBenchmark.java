@@ -0,0 +1,81 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.microprofile.config.Config;
+import org.openjdk.jmh.annotations.Param;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.server.http.HttpChangeConsumer;
+
+/**
+ * The HTTP sink has no client injection point, so it is pointed to a loopback server that accepts every request.
+ * The numbers therefore include the cost of the JDK HTTP client and the loopback round-trip.
+ */
+public class HttpSinkBenchmark extends AbstractSinkBenchmark {
+
+    // The sink casts values to String
+    @Param({ "STRING" })
+    public PayloadType payloadType;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @Override
+    protected PayloadType payloadType() {
+        return payloadType;
+    }
+
+    @Override
+    protected Map<String, String> sinkConfiguration() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", HttpSinkBenchmark::accept);
+        server.setExecutor(serverExecutor);
+        server.start();
+        return Map.of(HttpChangeConsumer.PROP_PREFIX + HttpChangeConsumer.PROP_WEBHOOK_URL,
+                "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/");
+    }
+
+    @Override
+    protected DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> createConsumer(Config config) {
+        final HttpChangeConsumer consumer = SinkBeans.inject(new HttpChangeConsumer(), config, Map.of());
+        SinkBeans.invoke(consumer, "initWithConfig", new Class<?>[]{ Config.class }, config);
+        return consumer;
+    }
+
+    @Override
+    protected void destroyConsumer(DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer) throws Exception {
+        try {
+            super.destroyConsumer(consumer);
+        }
+        finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    private static void accept(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+        exchange.sendResponseHeaders(204, -1);
+        exchange.close();
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.util.Map;
+
+import org.eclipse.microprofile.config.Config;
+import org.infinispan.client.hotrod.RemoteCache;
+import org.openjdk.jmh.annotations.Param;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.server.infinispan.InfinispanSinkConsumer;
+
+public class InfinispanSinkBenchmark extends AbstractSinkBenchmark {
+
+    @Param({ "STRING", "BYTES" })
+    public PayloadType payloadType;
+
+    @Override
+    protected PayloadType payloadType() {
+        return payloadType;
+    }
+
+    @Override
+    protected DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> createConsumer(Config config) {
+        return SinkBeans.create(new InfinispanSinkConsumer(), config, Map.of(RemoteCache.class, StandIns.of(RemoteCache.class)));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.eclipse.microprofile.config.Config;
+import org.openjdk.jmh.annotations.Param;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.server.kafka.KafkaChangeConsumer;
+
+public class KafkaSinkBenchmark extends AbstractSinkBenchmark {
+
+    @Param({ "STRING", "BYTES" })
+    public PayloadType payloadType;
+
+    @Override
+    protected PayloadType payloadType() {
+        return payloadType;
+    }
+
+    @Override
+    protected DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> createConsumer(Config config) {
+        return SinkBeans.create(new KafkaChangeConsumer(), config, Map.of(KafkaProducer.class, new BlackholeKafkaProducer()));
+    }
+
+    /**
+     * A producer that acknowledges every record immediately instead of handing it over to the network thread.
+     */
+    static class BlackholeKafkaProducer extends KafkaProducer<Object, Object> {
+
+        BlackholeKafkaProducer() {
+            super(Map.of(
+                    ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9",
+                    ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName(),
+                    ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName(),
+                    ProducerConfig.RECONNECT_BACKOFF_MS_CONFIG, Long.toString(Long.MAX_VALUE / 2),
+                    ProducerConfig.RECONNECT_BACKOFF_MAX_MS_CONFIG, Long.toString(Long.MAX_VALUE / 2)));
+        }
+
+        @Override
+        public Future<RecordMetadata> send(ProducerRecord<Object, Object> record, Callback callback) {
+            final RecordMetadata metadata = new RecordMetadata(new TopicPartition(record.topic(), 0), 0, 0, 0, 0, 0);
+            if (callback != null) {
+                callback.onCompletion(metadata, null);
+            }
+            return CompletableFuture.completedFuture(metadata);
+        }
+    }
+}
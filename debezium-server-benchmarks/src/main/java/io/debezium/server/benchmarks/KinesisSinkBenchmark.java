@@ -0,0 +1,33 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.util.Map;
+
+import org.eclipse.microprofile.config.Config;
+import org.openjdk.jmh.annotations.Param;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.server.kinesis.KinesisChangeConsumer;
+
+import software.amazon.awssdk.services.kinesis.KinesisClient;
+
+public class KinesisSinkBenchmark extends AbstractSinkBenchmark {
+
+    @Param({ "STRING", "BYTES" })
+    public PayloadType payloadType;
+
+    @Override
+    protected PayloadType payloadType() {
+        return payloadType;
+    }
+
+    @Override
+    protected DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> createConsumer(Config config) {
+        return SinkBeans.create(new KinesisChangeConsumer(), config, Map.of(KinesisClient.class, StandIns.of(KinesisClient.class)));
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.util.Map;
+
+import org.eclipse.microprofile.config.Config;
+import org.openjdk.jmh.annotations.Param;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.server.nats.streaming.NatsStreamingChangeConsumer;
+import io.nats.streaming.StreamingConnection;
+
+public class NatsStreamingSinkBenchmark extends AbstractSinkBenchmark {
+
+    @Param({ "STRING", "BYTES" })
+    public PayloadType payloadType;
+
+    @Override
+    protected PayloadType payloadType() {
+        return payloadType;
+    }
+
+    @Override
+    protected DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> createConsumer(Config config) {
+        return SinkBeans.create(new NatsStreamingChangeConsumer(), config,
+                Map.of(StreamingConnection.class, StandIns.of(StreamingConnection.class)));
+    }
+}
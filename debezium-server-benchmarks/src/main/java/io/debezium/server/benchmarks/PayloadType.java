@@ -0,0 +1,31 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The Java type used for the synthetic event values, mirroring the {@code jsonbytearray} vs. {@code json}
+ * value formats of Debezium Server.
+ */
+public enum PayloadType {
+
+    STRING {
+        @Override
+        Object encode(String payload) {
+            return payload;
+        }
+    },
+
+    BYTES {
+        @Override
+        Object encode(String payload) {
+            return payload.getBytes(StandardCharsets.UTF_8);
+        }
+    };
+
+    abstract Object encode(String payload);
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.util.Map;
+
+import org.apache.pulsar.client.api.PulsarClient;
+import org.eclipse.microprofile.config.Config;
+import org.openjdk.jmh.annotations.Param;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.server.pulsar.PulsarChangeConsumer;
+
+/**
+ * The Pulsar sink has no client injection point, so the stand-in client is set in place of the one created on connect.
+ * Producers are created lazily by the sink through the stand-in client, as with a real broker.
+ */
+public class PulsarSinkBenchmark extends AbstractSinkBenchmark {
+
+    @Param({ "STRING", "BYTES" })
+    public PayloadType payloadType;
+
+    @Override
+    protected PayloadType payloadType() {
+        return payloadType;
+    }
+
+    @Override
+    protected DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> createConsumer(Config config) {
+        final PulsarChangeConsumer consumer = SinkBeans.inject(new PulsarChangeConsumer(), config, Map.of());
+        SinkBeans.setField(consumer, "pulsarClient", StandIns.of(PulsarClient.class));
+        SinkBeans.setField(consumer, "producerConfig", Map.of());
+        return consumer;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.util.Map;
+
+import org.eclipse.microprofile.config.Config;
+import org.openjdk.jmh.annotations.Param;
+
+import com.rabbitmq.client.Channel;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.server.rabbitmq.RabbitMqStreamChangeConsumer;
+
+/**
+ * The RabbitMQ sink has no client injection point, so the stand-in channel is set in place of the one created on connect.
+ */
+public class RabbitMqSinkBenchmark extends AbstractSinkBenchmark {
+
+    @Param({ "STRING", "BYTES" })
+    public PayloadType payloadType;
+
+    @Override
+    protected PayloadType payloadType() {
+        return payloadType;
+    }
+
+    @Override
+    protected DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> createConsumer(Config config) {
+        final RabbitMqStreamChangeConsumer consumer = SinkBeans.inject(new RabbitMqStreamChangeConsumer(), config, Map.of());
+        SinkBeans.setField(consumer, "channel", StandIns.of(Channel.class));
+        return consumer;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.util.Map;
+
+import org.eclipse.microprofile.config.Config;
+import org.openjdk.jmh.annotations.Param;
+
+import com.rabbitmq.stream.ConfirmationHandler;
+import com.rabbitmq.stream.ConfirmationStatus;
+import com.rabbitmq.stream.Constants;
+import com.rabbitmq.stream.Message;
+import com.rabbitmq.stream.Producer;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.server.rabbitmq.RabbitMqStreamNativeChangeConsumer;
+
+/**
+ * The RabbitMQ stream sink has no client injection point, so the stand-in producer is set in place of the one created on connect.
+ * The stand-in confirms every message immediately.
+ */
+public class RabbitMqStreamSinkBenchmark extends AbstractSinkBenchmark {
+
+    @Param({ "STRING", "BYTES" })
+    public PayloadType payloadType;
+
+    @Override
+    protected PayloadType payloadType() {
+        return payloadType;
+    }
+
+    @Override
+    protected Map<String, String> sinkConfiguration() {
+        return Map.of("debezium.sink.rabbitmqstream.stream", "benchmark");
+    }
+
+    @Override
+    protected DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> createConsumer(Config config) {
+        final RabbitMqStreamNativeChangeConsumer consumer = SinkBeans.inject(new RabbitMqStreamNativeChangeConsumer(), config, Map.of());
+        // The sink waits for the confirmation of every message
+        SinkBeans.setField(consumer, "producer", StandIns.of(Producer.class, (method, args) -> {
+            if (method.getName().equals("send")) {
+                ((ConfirmationHandler) args[1]).handle(new ConfirmationStatus((Message) args[0], true, Constants.RESPONSE_CODE_OK));
+                return null;
+            }
+            return StandIns.DEFAULT;
+        }));
+        return consumer;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.microprofile.config.Config;
+import org.openjdk.jmh.annotations.Param;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.server.redis.RedisStreamChangeConsumer;
+import io.debezium.storage.redis.RedisClient;
+
+public class RedisSinkBenchmark extends AbstractSinkBenchmark {
+
+    private static final String STREAM_ENTRY_ID = "0-1";
+
+    // The sink requires String keys and values
+    @Param({ "STRING" })
+    public PayloadType payloadType;
+
+    @Param({ "compact", "extended" })
+    public String messageFormat;
+
+    @Override
+    protected PayloadType payloadType() {
+        return payloadType;
+    }
+
+    @Override
+    protected Map<String, String> sinkConfiguration() {
+        return Map.of(
+                "debezium.sink.redis.address", "localhost:6379",
+                "debezium.sink.redis.message.format", messageFormat);
+    }
+
+    @Override
+    protected DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> createConsumer(Config config) {
+        final RedisClient client = StandIns.of(RedisClient.class, (method, args) -> {
+            switch (method.getName()) {
+                case "info":
+                    // Disables the memory threshold check
+                    return "";
+                case "xadd":
+                    if (args.length == 1) {
+                        final List<String> ids = new ArrayList<>(((List<?>) args[0]).size());
+                        ids.addAll(Collections.nCopies(((List<?>) args[0]).size(), STREAM_ENTRY_ID));
+                        return ids;
+                    }
+                    return STREAM_ENTRY_ID;
+                default:
+                    return StandIns.DEFAULT;
+            }
+        });
+        return SinkBeans.create(new RedisStreamChangeConsumer(), config, Map.of(RedisClient.class, client));
+    }
+}
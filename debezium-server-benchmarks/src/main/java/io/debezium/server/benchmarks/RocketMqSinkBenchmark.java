@@ -0,0 +1,62 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.util.Map;
+
+import org.apache.rocketmq.client.producer.DefaultMQProducer;
+import org.apache.rocketmq.client.producer.MessageQueueSelector;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.common.message.Message;
+import org.eclipse.microprofile.config.Config;
+import org.openjdk.jmh.annotations.Param;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.server.rocketmq.RocketMqChangeConsumer;
+
+public class RocketMqSinkBenchmark extends AbstractSinkBenchmark {
+
+    @Param({ "STRING", "BYTES" })
+    public PayloadType payloadType;
+
+    @Override
+    protected PayloadType payloadType() {
+        return payloadType;
+    }
+
+    @Override
+    protected DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> createConsumer(Config config) {
+        return SinkBeans.create(new RocketMqChangeConsumer(), config, Map.of(DefaultMQProducer.class, new BlackholeMqProducer()));
+    }
+
+    /**
+     * A producer that never connects to a name server and acknowledges every message immediately.
+     */
+    static class BlackholeMqProducer extends DefaultMQProducer {
+
+        private final SendResult sendResult = new SendResult();
+
+        BlackholeMqProducer() {
+            sendResult.setSendStatus(SendStatus.SEND_OK);
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public void send(Message msg, MessageQueueSelector selector, Object arg, SendCallback sendCallback) {
+            sendCallback.onSuccess(sendResult);
+        }
+    }
+}
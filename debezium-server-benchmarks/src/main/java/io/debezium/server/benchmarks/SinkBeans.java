@@ -0,0 +1,237 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.config.spi.ConfigProviderResolver;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+
+import io.debezium.DebeziumException;
+
+/**
+ * Minimal stand-in for the CDI container so that sinks can be instantiated outside of Quarkus. It honours
+ * {@code @ConfigProperty} fields, {@code @Inject Instance<T>} fields (including the {@code @CustomConsumerBuilder}
+ * injection points) and the {@code @PostConstruct}/{@code @PreDestroy} callbacks.
+ */
+public final class SinkBeans {
+
+    private SinkBeans() {
+    }
+
+    /**
+     * Registers the given properties as the global MicroProfile configuration, replacing any previously registered one.
+     */
+    public static Config installConfig(Map<String, String> properties) {
+        final ConfigProviderResolver resolver = ConfigProviderResolver.instance();
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        releaseConfig();
+
+        final Config config = resolver.getBuilder()
+                .forClassLoader(classLoader)
+                .withSources(new MapConfigSource(properties))
+                .build();
+        resolver.registerConfig(config, classLoader);
+        return config;
+    }
+
+    public static void releaseConfig() {
+        final ConfigProviderResolver resolver = ConfigProviderResolver.instance();
+        resolver.releaseConfig(resolver.getConfig(Thread.currentThread().getContextClassLoader()));
+    }
+
+    /**
+     * Populates the injection points of the bean and invokes its {@code @PostConstruct} callbacks, superclass first.
+     *
+     * @param customBeans beans offered to {@code Instance<T>} injection points, keyed by the raw type {@code T}
+     */
+    public static <T> T create(T bean, Config config, Map<Class<?>, Object> customBeans) {
+        inject(bean, config, customBeans);
+        for (Method method : callbacks(bean.getClass(), PostConstruct.class)) {
+            invoke(bean, method);
+        }
+        return bean;
+    }
+
+    /**
+     * Populates the injection points of the bean without invoking any lifecycle callbacks, for sinks that connect
+     * to their backend in {@code @PostConstruct} without offering a custom client injection point.
+     */
+    public static <T> T inject(T bean, Config config, Map<Class<?>, Object> customBeans) {
+        for (Class<?> clazz = bean.getClass(); clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                final ConfigProperty property = field.getAnnotation(ConfigProperty.class);
+                if (property != null) {
+                    setField(bean, field, configValue(config, field, property));
+                }
+                else if (field.isAnnotationPresent(Inject.class) && field.getType() == Instance.class) {
+                    final Object custom = customBeans.get(rawType(((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0]));
+                    setField(bean, field, custom != null ? StandIns.instance(custom) : StandIns.unsatisfiedInstance());
+                }
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Invokes the {@code @PreDestroy} callbacks of the bean, subclass first.
+     */
+    public static void destroy(Object bean) {
+        final List<Method> callbacks = callbacks(bean.getClass(), PreDestroy.class);
+        Collections.reverse(callbacks);
+        for (Method method : callbacks) {
+            invoke(bean, method);
+        }
+    }
+
+    public static void setField(Object bean, String name, Object value) {
+        for (Class<?> clazz = bean.getClass(); clazz != Object.class; clazz = clazz.getSuperclass()) {
+            try {
+                setField(bean, clazz.getDeclaredField(name), value);
+                return;
+            }
+            catch (NoSuchFieldException e) {
+                // continue with the superclass
+            }
+        }
+        throw new DebeziumException("No field '" + name + "' in " + bean.getClass().getName());
+    }
+
+    public static Object invoke(Object bean, String name, Class<?>[] parameterTypes, Object... args) {
+        for (Class<?> clazz = bean.getClass(); clazz != Object.class; clazz = clazz.getSuperclass()) {
+            try {
+                return invoke(bean, clazz.getDeclaredMethod(name, parameterTypes), args);
+            }
+            catch (NoSuchMethodException e) {
+                // continue with the superclass
+            }
+        }
+        throw new DebeziumException("No method '" + name + "' in " + bean.getClass().getName());
+    }
+
+    private static List<Method> callbacks(Class<?> beanClass, Class<? extends Annotation> annotation) {
+        final List<Method> callbacks = new ArrayList<>();
+        for (Class<?> clazz = beanClass; clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(annotation)) {
+                    callbacks.add(0, method);
+                }
+            }
+        }
+        return callbacks;
+    }
+
+    private static Object configValue(Config config, Field field, ConfigProperty property) {
+        final String defaultValue = ConfigProperty.UNCONFIGURED_VALUE.equals(property.defaultValue()) || property.defaultValue().isEmpty()
+                ? null
+                : property.defaultValue();
+        if (field.getType() == Optional.class) {
+            final Optional<String> value = config.getOptionalValue(property.name(), String.class);
+            return value.isPresent() ? value : Optional.ofNullable(defaultValue);
+        }
+
+        final Class<?> type = boxed(field.getType());
+        final Optional<?> value = config.getOptionalValue(property.name(), type);
+        if (value.isPresent()) {
+            return value.get();
+        }
+        return defaultValue == null ? null : config.getConverter(type).orElseThrow().convert(defaultValue);
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        else if (type == boolean.class) {
+            return Boolean.class;
+        }
+        else if (type == int.class) {
+            return Integer.class;
+        }
+        else if (type == long.class) {
+            return Long.class;
+        }
+        else if (type == double.class) {
+            return Double.class;
+        }
+        throw new DebeziumException("Unsupported injection point type '" + type + "'");
+    }
+
+    private static Class<?> rawType(Type type) {
+        return (Class<?>) (type instanceof ParameterizedType ? ((ParameterizedType) type).getRawType() : type);
+    }
+
+    private static void setField(Object bean, Field field, Object value) {
+        try {
+            field.setAccessible(true);
+            field.set(bean, value);
+        }
+        catch (IllegalAccessException e) {
+            throw new DebeziumException(e);
+        }
+    }
+
+    private static Object invoke(Object bean, Method method, Object... args) {
+        try {
+            method.setAccessible(true);
+            return method.invoke(bean, args);
+        }
+        catch (InvocationTargetException e) {
+            throw new DebeziumException(e.getCause());
+        }
+        catch (IllegalAccessException e) {
+            throw new DebeziumException(e);
+        }
+    }
+
+    private static class MapConfigSource implements ConfigSource {
+
+        private final Map<String, String> properties;
+
+        MapConfigSource(Map<String, String> properties) {
+            this.properties = new HashMap<>(properties);
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        @Override
+        public Set<String> getPropertyNames() {
+            return properties.keySet();
+        }
+
+        @Override
+        public String getValue(String propertyName) {
+            return properties.get(propertyName);
+        }
+
+        @Override
+        public String getName() {
+            return "benchmark";
+        }
+    }
+}
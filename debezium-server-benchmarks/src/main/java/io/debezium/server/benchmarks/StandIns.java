@@ -0,0 +1,188 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import jakarta.enterprise.inject.Instance;
+
+/**
+ * Factory for in-process stand-ins of the client interfaces used by the sinks. A stand-in accepts every call and
+ * answers with the cheapest value that keeps the calling sink on its happy path:
+ * <ul>
+ * <li>fluent builder methods return the stand-in itself</li>
+ * <li>futures are already completed</li>
+ * <li>collections, maps and optionals are empty</li>
+ * <li>other interfaces are answered with a nested stand-in</li>
+ * </ul>
+ * Individual methods can be answered differently by passing an {@link Answer}.
+ */
+public final class StandIns {
+
+    /**
+     * Returned by an {@link Answer} to fall back to the default behaviour.
+     */
+    public static final Object DEFAULT = new Object();
+
+    @FunctionalInterface
+    public interface Answer {
+        Object answer(Method method, Object[] args) throws Throwable;
+    }
+
+    private StandIns() {
+    }
+
+    public static <T> T of(Class<T> type) {
+        return of(type, (method, args) -> DEFAULT);
+    }
+
+    public static <T> T of(Class<T> type, Answer answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type }, new Handler(type, answer)));
+    }
+
+    /**
+     * @return a resolvable CDI {@link Instance} yielding the given bean, as injected into {@code @CustomConsumerBuilder} points
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Instance<T> instance(T bean) {
+        return of(Instance.class, (method, args) -> {
+            switch (method.getName()) {
+                case "get":
+                    return bean;
+                case "isResolvable":
+                    return true;
+                case "isUnsatisfied":
+                case "isAmbiguous":
+                    return false;
+                case "iterator":
+                    return List.of(bean).iterator();
+                case "stream":
+                    return Stream.of(bean);
+                default:
+                    return DEFAULT;
+            }
+        });
+    }
+
+    /**
+     * @return an unsatisfied CDI {@link Instance}, as injected when no custom bean is provided
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Instance<T> unsatisfiedInstance() {
+        return of(Instance.class, (method, args) -> {
+            switch (method.getName()) {
+                case "isResolvable":
+                    return false;
+                case "isUnsatisfied":
+                    return true;
+                case "iterator":
+                    return Collections.emptyIterator();
+                case "stream":
+                    return Stream.empty();
+                default:
+                    return DEFAULT;
+            }
+        });
+    }
+
+    private static final class Handler implements InvocationHandler {
+
+        private final Class<?> type;
+        private final Answer answer;
+        private final Map<Class<?>, Object> nested = new ConcurrentHashMap<>();
+
+        Handler(Class<?> type, Answer answer) {
+            this.type = type;
+            this.answer = answer;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return "StandIn[" + type.getName() + "]";
+                }
+            }
+            final Object result = answer.answer(method, args);
+            return result != DEFAULT ? result : defaultValue(proxy, method.getReturnType());
+        }
+
+        private Object defaultValue(Object proxy, Class<?> returnType) {
+            if (returnType == void.class) {
+                return null;
+            }
+            if (returnType.isPrimitive()) {
+                return primitiveDefault(returnType);
+            }
+            if (returnType.isInstance(proxy)) {
+                return proxy;
+            }
+            if (returnType.isAssignableFrom(CompletableFuture.class)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (returnType == Optional.class) {
+                return Optional.empty();
+            }
+            if (returnType == List.class || returnType == Collection.class) {
+                return Collections.emptyList();
+            }
+            if (returnType == Set.class) {
+                return Collections.emptySet();
+            }
+            if (returnType == Map.class) {
+                return Collections.emptyMap();
+            }
+            if (returnType == String.class) {
+                return "";
+            }
+            if (returnType.isInterface()) {
+                return nested.computeIfAbsent(returnType, t -> of(t));
+            }
+            return null;
+        }
+
+        private static Object primitiveDefault(Class<?> type) {
+            if (type == boolean.class) {
+                return false;
+            }
+            else if (type == char.class) {
+                return '\0';
+            }
+            else if (type == byte.class) {
+                return (byte) 0;
+            }
+            else if (type == short.class) {
+                return (short) 0;
+            }
+            else if (type == int.class) {
+                return 0;
+            }
+            else if (type == long.class) {
+                return 0L;
+            }
+            else if (type == float.class) {
+                return 0f;
+            }
+            return 0d;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.util.List;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.Header;
+
+/**
+ * An immutable {@link ChangeEvent} carrying pre-generated key, value and headers.
+ */
+public class SyntheticChangeEvent implements ChangeEvent<Object, Object> {
+
+    private final Object key;
+    private final Object value;
+    private final String destination;
+    private final List<Header<Object>> headers;
+
+    public SyntheticChangeEvent(Object key, Object value, String destination, List<Header<Object>> headers) {
+        this.key = key;
+        this.value = value;
+        this.destination = destination;
+        this.headers = headers;
+    }
+
+    @Override
+    public Object key() {
+        return key;
+    }
+
+    @Override
+    public Object value() {
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public <H> List<Header<H>> headers() {
+        return (List) headers;
+    }
+
+    @Override
+    public String destination() {
+        return destination;
+    }
+
+    @Override
+    public String toString() {
+        return "SyntheticChangeEvent [key=" + key + ", destination=" + destination + "]";
+    }
+
+    /**
+     * A plain key/value {@link Header}.
+     */
+    public static class SyntheticHeader implements Header<Object> {
+
+        private final String key;
+        private final Object value;
+
+        public SyntheticHeader(String key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+    }
+}
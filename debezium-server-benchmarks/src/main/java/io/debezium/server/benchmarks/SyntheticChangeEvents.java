@@ -0,0 +1,104 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.Header;
+
+/**
+ * Generates deterministic batches of synthetic change events. Keys and header values are always
+ * {@link String}s, the value type is controlled by {@link PayloadType}.
+ */
+public class SyntheticChangeEvents {
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final String DESTINATION_PREFIX = "benchmark.inventory.table";
+
+    private final int keySize;
+    private final int valueSize;
+    private final int headerCount;
+    private final int destinationCount;
+    private final PayloadType payloadType;
+    private final Random random = new Random(42);
+
+    public SyntheticChangeEvents(int keySize, int valueSize, int headerCount, int destinationCount, PayloadType payloadType) {
+        if (destinationCount < 1) {
+            throw new IllegalArgumentException("At least one destination is required");
+        }
+        this.keySize = keySize;
+        this.valueSize = valueSize;
+        this.headerCount = headerCount;
+        this.destinationCount = destinationCount;
+        this.payloadType = payloadType;
+    }
+
+    public List<ChangeEvent<Object, Object>> batch(int size) {
+        final List<ChangeEvent<Object, Object>> batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(event(i));
+        }
+        return Collections.unmodifiableList(batch);
+    }
+
+    /**
+     * @return the number of key, value and header bytes carried by the given batch in their UTF-8 form
+     */
+    public static long payloadBytes(List<ChangeEvent<Object, Object>> batch) {
+        long bytes = 0;
+        for (ChangeEvent<Object, Object> event : batch) {
+            bytes += sizeOf(event.key()) + sizeOf(event.value());
+            final List<Header<Object>> headers = event.headers();
+            for (Header<Object> header : headers) {
+                bytes += header.getKey().length() + sizeOf(header.getValue());
+            }
+        }
+        return bytes;
+    }
+
+    private ChangeEvent<Object, Object> event(int index) {
+        final String key = padded("{\"id\":" + index + ",\"k\":\"", keySize, "\"}");
+        final String value = padded("{\"id\":" + index + ",\"op\":\"c\",\"after\":\"", valueSize, "\"}");
+        final String destination = DESTINATION_PREFIX + (index % destinationCount);
+
+        final List<Header<Object>> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new SyntheticChangeEvent.SyntheticHeader("header" + i, randomString(16)));
+        }
+        return new SyntheticChangeEvent(key, payloadType.encode(value), destination, Collections.unmodifiableList(headers));
+    }
+
+    private String padded(String prefix, int size, String suffix) {
+        final int fill = size - prefix.length() - suffix.length();
+        if (fill <= 0) {
+            return randomString(Math.max(size, 1));
+        }
+        return prefix + randomString(fill) + suffix;
+    }
+
+    private String randomString(int length) {
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    private static long sizeOf(Object o) {
+        if (o instanceof byte[]) {
+            return ((byte[]) o).length;
+        }
+        else if (o instanceof String) {
+            return ((String) o).getBytes(StandardCharsets.UTF_8).length;
+        }
+        return 0;
+    }
+}
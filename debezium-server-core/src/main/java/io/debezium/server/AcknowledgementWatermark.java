@@ -0,0 +1,224 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+
+/**
+ * Commits the records of a sink that sends them asynchronously in the order the engine emitted them, whatever the
+ * order of and the threads in which the sends complete. Every record gets a sequence number when it is sent; the
+ * acknowledgements only mark the records, and the records up to the highest contiguous acknowledged sequence number,
+ * the watermark, are marked processed on the engine thread. An acknowledgement behind a pending send thus never moves
+ * the offsets past a record that may still fail.
+ * <p>
+ * A failed send is recorded and rethrown on the engine thread by the next call of the sink, nothing after it is
+ * committed. When the failed record belongs to the batch being handled, the pending records of that batch are dropped
+ * and the failure is cleared once rethrown, so a redelivery of the batch, e.g. record by record by the dead letter
+ * queue, starts from a clean watermark. A failure of a record of an already finished batch cannot be recovered by a
+ * redelivery and remains. With a positive limit of records in flight the sink may return before its sends complete, so they
+ * overlap with the following batches; the records acknowledged in the meantime are committed and flushed with a later
+ * batch or when the sink is drained on shutdown.
+ */
+public class AcknowledgementWatermark implements Drainable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AcknowledgementWatermark.class);
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    /**
+     * The completion of a single send, may be signalled from any thread.
+     */
+    public interface Acknowledgement {
+
+        void acknowledge();
+
+        void fail(Throwable error);
+    }
+
+    private final String sinkName;
+    private final long maxInFlight;
+    // Guarded by this
+    private final Deque<Entry> pending = new ArrayDeque<>();
+    private long nextSequence;
+    private long currentBatch;
+    private Throwable failure;
+    private long failedBatch;
+    // Serializes the commits of the engine thread and a concurrent drain, so the records are marked in order
+    private final Object commitLock = new Object();
+    private volatile long watermark = -1;
+
+    /**
+     * @param maxInFlight the number of records that may remain unacknowledged when a batch is finished, zero to wait
+     *                    for all records of the batch
+     */
+    public AcknowledgementWatermark(String sinkName, long maxInFlight) {
+        if (maxInFlight < 0) {
+            throw new DebeziumException("Maximum number of records in flight must not be negative but is " + maxInFlight);
+        }
+        this.sinkName = sinkName;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Assigns the next sequence number to a record about to be sent. Must be called by the engine thread in the order
+     * of the records.
+     */
+    public synchronized Acknowledgement track(ChangeEvent<Object, Object> record, RecordCommitter<ChangeEvent<Object, Object>> committer) {
+        checkFailure();
+        final Entry entry = new Entry(nextSequence++, currentBatch, record, committer);
+        pending.add(entry);
+        return entry;
+    }
+
+    /**
+     * Commits the acknowledged records and waits until at most the configured number of records is in flight, then
+     * finishes the batch.
+     *
+     * @throws DebeziumException if a send failed
+     */
+    public void finishBatch(RecordCommitter<ChangeEvent<Object, Object>> committer) throws InterruptedException {
+        await(maxInFlight, Long.MAX_VALUE);
+        synchronized (this) {
+            currentBatch++;
+        }
+        committer.markBatchFinished();
+    }
+
+    /**
+     * Waits until all records sent so far are acknowledged and commits them.
+     */
+    @Override
+    public boolean drain(Duration timeout) throws InterruptedException {
+        try {
+            if (!await(0, System.nanoTime() + timeout.toNanos())) {
+                LOGGER.warn("Sink '{}' did not drain within {}, {} record(s) are not acknowledged", sinkName, timeout, inFlight());
+                return false;
+            }
+            return true;
+        }
+        catch (DebeziumException e) {
+            LOGGER.warn("Sink '{}' failed while draining", sinkName, e);
+            return false;
+        }
+    }
+
+    /**
+     * @return the sequence number of the last committed record, {@code -1} if none was committed yet
+     */
+    public long watermark() {
+        return watermark;
+    }
+
+    /**
+     * @return the number of records sent and not committed yet
+     */
+    public synchronized int inFlight() {
+        return pending.size();
+    }
+
+    private boolean await(long limit, long deadline) throws InterruptedException {
+        while (true) {
+            commitAcknowledged();
+            synchronized (this) {
+                checkFailure();
+                if (pending.size() <= limit) {
+                    return true;
+                }
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                if (!pending.peek().acknowledged) {
+                    wait(Math.min(POLL_INTERVAL_MS, Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining))));
+                }
+            }
+        }
+    }
+
+    private void commitAcknowledged() throws InterruptedException {
+        synchronized (commitLock) {
+            final List<Entry> acknowledged = new ArrayList<>();
+            synchronized (this) {
+                while (!pending.isEmpty() && pending.peek().acknowledged) {
+                    acknowledged.add(pending.poll());
+                }
+            }
+            for (Entry entry : acknowledged) {
+                entry.committer.markProcessed(entry.record);
+                watermark = entry.sequence;
+            }
+        }
+    }
+
+    // Must be called holding the lock of this watermark
+    private void checkFailure() {
+        if (failure == null) {
+            return;
+        }
+        final DebeziumException exception = new DebeziumException("Failed to send record to sink '" + sinkName + "'", failure);
+        if (failedBatch == currentBatch) {
+            pending.removeIf(entry -> {
+                if (entry.batch == currentBatch) {
+                    entry.dropped = true;
+                    return true;
+                }
+                return false;
+            });
+            failure = null;
+        }
+        throw exception;
+    }
+
+    private class Entry implements Acknowledgement {
+
+        private final long sequence;
+        private final long batch;
+        private final ChangeEvent<Object, Object> record;
+        private final RecordCommitter<ChangeEvent<Object, Object>> committer;
+        // Guarded by the enclosing watermark
+        private boolean acknowledged;
+        private boolean dropped;
+
+        Entry(long sequence, long batch, ChangeEvent<Object, Object> record, RecordCommitter<ChangeEvent<Object, Object>> committer) {
+            this.sequence = sequence;
+            this.batch = batch;
+            this.record = record;
+            this.committer = committer;
+        }
+
+        @Override
+        public void acknowledge() {
+            synchronized (AcknowledgementWatermark.this) {
+                acknowledged = true;
+                AcknowledgementWatermark.this.notifyAll();
+            }
+        }
+
+        @Override
+        public void fail(Throwable error) {
+            synchronized (AcknowledgementWatermark.this) {
+                // A late failure of a dropped record must not fail its redelivery
+                if (failure == null && !dropped) {
+                    failure = error;
+                    failedBatch = batch;
+                }
+                AcknowledgementWatermark.this.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * A consumer that adapts the size of the batches handed to the sink to a latency target.
+ * <p>
+ * The batches received from the engine are split into sub-batches of the current batch size. The batch size is
+ * controlled by the {@code handleBatch} latency of the sink: it is halved whenever a sub-batch takes longer than the
+ * target and grows by a quarter whenever a full sub-batch completes in less than half of the target.
+ * <p>
+ * Batches that are not full while the connector queue still holds more records are coalesced with the following
+ * batches, for at most the linger time. The held records are not acknowledged until they are delivered. If the engine
+ * does not hand over another batch within the linger time, the held records are delivered by a timer thread. As flushing
+ * is not thread-safe, the offsets are always flushed while holding the lock of the engine committer.
+ */
+public class AdaptiveBatchingChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>, MeterBinder, Drainable, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveBatchingChangeConsumer.class);
+
+    private final String name;
+    private final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate;
+    private final long targetLatencyNanos;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int engineBatchSize;
+    private final long lingerMs;
+    private final IntSupplier pendingRecords;
+    private final ScheduledExecutorService timer;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private final List<ChangeEvent<Object, Object>> held = new ArrayList<>();
+    private long heldSinceNanos;
+    private ScheduledFuture<?> lingerTask;
+    private RecordCommitter<ChangeEvent<Object, Object>> heldCommitter;
+    private volatile int batchSize;
+
+    /**
+     * @param engineBatchSize the maximum size of the batches produced by the engine
+     * @param pendingRecords the number of records waiting in the connector queue
+     */
+    public AdaptiveBatchingChangeConsumer(String name, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate, Duration targetLatency,
+                                          int minBatchSize, int maxBatchSize, int engineBatchSize, Duration linger, IntSupplier pendingRecords) {
+        if (minBatchSize < 1 || maxBatchSize < minBatchSize) {
+            throw new DebeziumException("Invalid adaptive batch size bounds " + minBatchSize + " - " + maxBatchSize);
+        }
+        this.name = name;
+        this.delegate = delegate;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.engineBatchSize = engineBatchSize;
+        this.lingerMs = linger.toMillis();
+        this.pendingRecords = pendingRecords;
+        this.batchSize = Math.max(minBatchSize, Math.min(maxBatchSize, engineBatchSize));
+        this.timer = Executors.newSingleThreadScheduledExecutor(ServerThreads.threadFactory("debezium-sink-batching"));
+        LOGGER.info("Adaptive batching for '{}' enabled with latency target {} and batch size between {} and {}", name, targetLatency, minBatchSize,
+                maxBatchSize);
+    }
+
+    @Override
+    public synchronized void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        final Throwable lingerFailure = failure.get();
+        if (lingerFailure != null) {
+            throw new DebeziumException("Failed to deliver lingering records", lingerFailure);
+        }
+        if (held.isEmpty()) {
+            heldSinceNanos = System.nanoTime();
+        }
+        held.addAll(records);
+
+        heldCommitter = new SynchronizedFlushCommitter(committer);
+        if (shouldHold(records.size())) {
+            if (lingerTask == null) {
+                lingerTask = timer.schedule(this::deliverHeld, lingerMs, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+        deliver(heldCommitter);
+    }
+
+    private boolean shouldHold(int engineBatch) {
+        return held.size() < batchSize
+                && engineBatch < engineBatchSize
+                && System.nanoTime() - heldSinceNanos < TimeUnit.MILLISECONDS.toNanos(lingerMs)
+                && pendingRecords.getAsInt() > 0;
+    }
+
+    private synchronized void deliverHeld() {
+        lingerTask = null;
+        if (held.isEmpty()) {
+            return;
+        }
+        try {
+            deliver(heldCommitter);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (Throwable t) {
+            // The records were not acknowledged, the engine is stopped with the next batch so they are redelivered after restart
+            LOGGER.error("Failed to deliver lingering records of '{}'", name, t);
+            failure.set(t);
+        }
+    }
+
+    private void deliver(RecordCommitter<ChangeEvent<Object, Object>> committer) throws InterruptedException {
+        if (lingerTask != null) {
+            lingerTask.cancel(false);
+            lingerTask = null;
+        }
+        final List<ChangeEvent<Object, Object>> records = new ArrayList<>(held);
+        held.clear();
+        heldCommitter = null;
+
+        int from = 0;
+        while (from < records.size()) {
+            final int to = Math.min(records.size(), from + batchSize);
+            final long start = System.nanoTime();
+            delegate.handleBatch(records.subList(from, to), committer);
+            adjust(to - from, System.nanoTime() - start);
+            from = to;
+        }
+    }
+
+    private void adjust(int size, long latencyNanos) {
+        final int current = batchSize;
+        if (latencyNanos > targetLatencyNanos) {
+            batchSize = Math.max(minBatchSize, Math.min(current, size) / 2);
+        }
+        else if (size >= current && latencyNanos < targetLatencyNanos / 2) {
+            batchSize = Math.min(maxBatchSize, current + Math.max(1, current / 4));
+        }
+        if (batchSize != current) {
+            LOGGER.debug("Batch size of '{}' changed from {} to {} after a batch of {} took {} ms", name, current, batchSize, size,
+                    TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+        }
+    }
+
+    /**
+     * Delivers the held records without waiting for the linger time. The delivery itself is not bounded by the timeout.
+     */
+    @Override
+    public synchronized boolean drain(Duration timeout) throws InterruptedException {
+        if (!held.isEmpty() && failure.get() == null) {
+            deliver(heldCommitter);
+        }
+        return failure.get() == null;
+    }
+
+    /**
+     * @return the current size of the batches handed to the sink
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public boolean supportsTombstoneEvents() {
+        return delegate.supportsTombstoneEvents();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("debezium.sink.batching.size", this, AdaptiveBatchingChangeConsumer::getBatchSize)
+                .description("Current size of the batches handed to the sink")
+                .tag("pipeline", name)
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * The committer handed to the sink. Record acknowledgements are passed directly to the engine, the end of the batch
+     * is flushed under the lock of the engine committer as the timer thread may deliver records too.
+     */
+    private static class SynchronizedFlushCommitter implements RecordCommitter<ChangeEvent<Object, Object>> {
+
+        private final RecordCommitter<ChangeEvent<Object, Object>> committer;
+
+        SynchronizedFlushCommitter(RecordCommitter<ChangeEvent<Object, Object>> committer) {
+            this.committer = committer;
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record) throws InterruptedException {
+            committer.markProcessed(record);
+        }
+
+        @Override
+        public void markBatchFinished() throws InterruptedException {
+            synchronized (committer) {
+                committer.markBatchFinished();
+            }
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record, DebeziumEngine.Offsets sourceOffsets) throws InterruptedException {
+            committer.markProcessed(record, sourceOffsets);
+        }
+
+        @Override
+        public DebeziumEngine.Offsets buildOffsets() {
+            return committer.buildOffsets();
+        }
+    }
+}
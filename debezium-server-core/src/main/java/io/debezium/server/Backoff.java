@@ -0,0 +1,72 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delays between retries using decorrelated jitter: every delay is a random value between the base delay and three
+ * times the previous delay, capped at the maximum delay. The randomization spreads the retries of many clients that
+ * failed at the same time, so that they do not hit the recovering service in synchronized waves.
+ * <p>
+ * The instances are not thread-safe, every retry loop uses its own instance.
+ */
+public class Backoff {
+
+    private final long baseMs;
+    private final long maxMs;
+    private long previousMs;
+
+    public Backoff(Duration base, Duration max) {
+        this.baseMs = Math.max(1, base.toMillis());
+        this.maxMs = Math.max(baseMs, max.toMillis());
+        this.previousMs = baseMs;
+    }
+
+    /**
+     * @return the delay before the next retry in milliseconds
+     */
+    public long nextDelayMillis() {
+        final long upper = Math.min(maxMs, previousMs * 3);
+        previousMs = upper > baseMs ? ThreadLocalRandom.current().nextLong(baseMs, upper + 1) : baseMs;
+        return previousMs;
+    }
+
+    /**
+     * Starts again from the base delay, e.g. after a successful attempt.
+     */
+    public void reset() {
+        previousMs = baseMs;
+    }
+
+    /**
+     * Sleeps for the next delay.
+     */
+    public void pause() throws InterruptedException {
+        Thread.sleep(nextDelayMillis());
+    }
+
+    /**
+     * Sleeps for the next delay if the criteria is met and resets the delay otherwise. An interruption of the sleep is
+     * preserved in the interrupt status of the thread.
+     *
+     * @return the criteria
+     */
+    public boolean sleepWhen(boolean criteria) {
+        if (!criteria) {
+            reset();
+            return false;
+        }
+        try {
+            pause();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+}
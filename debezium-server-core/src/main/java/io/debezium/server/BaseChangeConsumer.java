@@ -9,17 +9,23 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
+import jakarta.inject.Named;
 
 import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.debezium.DebeziumException;
 import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
 import io.debezium.engine.Header;
 
 /**
@@ -32,19 +38,117 @@ public class BaseChangeConsumer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BaseChangeConsumer.class);
 
+    private static final String PROP_SINK_PREFIX = "debezium.sink.";
+    private static final String PROP_DISPATCH_LANES = "dispatch.lanes";
+    private static final String PROP_MAPPER_CACHE_ENABLED = PROP_SINK_PREFIX + "mapper.cache.enabled";
+    private static final String PROP_MAPPER_CACHE_SIZE = PROP_SINK_PREFIX + "mapper.cache.size";
+
+    private static final int DEFAULT_MAPPER_CACHE_SIZE = 1024;
+
+    /**
+     * Delivers a single record to the sink, blocking until it is acknowledged.
+     */
+    @FunctionalInterface
+    protected interface RecordDelivery {
+        void deliver(ChangeEvent<Object, Object> record) throws InterruptedException;
+    }
+
     protected StreamNameMapper streamNameMapper = (x) -> x;
 
     @Inject
     Instance<StreamNameMapper> customStreamNameMapper;
 
+    private String sinkName;
+    private int dispatchLanes = 1;
+    private KeyOrderedDispatcher dispatcher;
+    private volatile Consumer<String> retryListener = destination -> {
+    };
+
     @PostConstruct
     void init() {
+        final Config config = ConfigProvider.getConfig();
+        sinkName = resolveSinkName();
+        if (sinkName != null) {
+            dispatchLanes = config.getOptionalValue(PROP_SINK_PREFIX + sinkName + "." + PROP_DISPATCH_LANES, Integer.class).orElse(1);
+        }
+
         if (customStreamNameMapper.isResolvable()) {
             streamNameMapper = customStreamNameMapper.get();
+            if (config.getOptionalValue(PROP_MAPPER_CACHE_ENABLED, Boolean.class).orElse(true)) {
+                streamNameMapper = new CachingStreamNameMapper(streamNameMapper, sinkName,
+                        config.getOptionalValue(PROP_MAPPER_CACHE_SIZE, Integer.class).orElse(DEFAULT_MAPPER_CACHE_SIZE));
+            }
         }
         LOGGER.info("Using '{}' stream name mapper", streamNameMapper);
     }
 
+    @PreDestroy
+    void closeDispatcher() {
+        if (dispatcher != null) {
+            dispatcher.close();
+            dispatcher = null;
+        }
+    }
+
+    /**
+     * @return the name of the sink as given by its {@code @Named} annotation or {@code null} if the sink is not named
+     */
+    String sinkName() {
+        return sinkName;
+    }
+
+    void setRetryListener(Consumer<String> retryListener) {
+        this.retryListener = retryListener;
+    }
+
+    /**
+     * Reports a failed delivery attempt of a record for the given destination that is going to be retried.
+     */
+    protected void recordRetry(String destination) {
+        retryListener.accept(destination);
+    }
+
+    private String resolveSinkName() {
+        // Intercepted beans are instantiated as generated subclasses
+        for (Class<?> clazz = getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+            final Named named = clazz.getAnnotation(Named.class);
+            if (named != null) {
+                return named.value();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Delivers all records of the batch one by one, marks them as processed in the batch order and finishes the batch.
+     * <p>
+     * If {@code debezium.sink.<name>.dispatch.lanes} is larger than one, the records are spread over that number of
+     * lanes by the hash of their key. Each lane delivers its records in order and the lanes run concurrently, so the
+     * order of records with the same key is preserved. The records are marked as processed only once all lanes have
+     * drained. With {@code debezium.threads.virtual=true} every lane runs on a virtual thread, so that a large number of
+     * lanes does not require a matching number of platform threads.
+     */
+    protected void dispatchByKey(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer,
+                                 RecordDelivery delivery)
+            throws InterruptedException {
+        if (dispatchLanes <= 1 || records.size() <= 1) {
+            for (ChangeEvent<Object, Object> record : records) {
+                delivery.deliver(record);
+                committer.markProcessed(record);
+            }
+        }
+        else {
+            if (dispatcher == null) {
+                dispatcher = new KeyOrderedDispatcher(sinkName, dispatchLanes);
+            }
+            dispatcher.dispatch(records, delivery);
+            for (ChangeEvent<Object, Object> record : records) {
+                committer.markProcessed(record);
+            }
+        }
+        committer.markBatchFinished();
+    }
+
     /**
      * Get a subset of the configuration properties that matches the given prefix.
      *
@@ -67,6 +171,12 @@ protected Map<String, Object> getConfigSubset(Config config, String prefix) {
         return ret;
     }
 
+    /**
+     * Returns the serialized key or value as bytes. Byte arrays, as produced by the {@code jsonbytearray}, {@code avro} and
+     * {@code protobuf} formats or by the payload compression, are returned as they are; strings are encoded to UTF-8.
+     * The returned array is not modified or reused by the server, so sinks can hand it to client APIs that wrap it
+     * instead of copying it.
+     */
     protected byte[] getBytes(Object object) {
         if (object instanceof byte[]) {
             return (byte[]) object;
@@ -84,6 +194,20 @@ protected String getString(Object object) {
         throw new DebeziumException(unsupportedTypeMessage(object));
     }
 
+    /**
+     * Returns the serialized key or value as text for clients that accept strings only. Byte arrays are decoded from
+     * UTF-8, so this is suitable for the {@code json} and {@code jsonbytearray} formats but not for binary formats.
+     */
+    protected String getText(Object object) {
+        if (object instanceof String) {
+            return (String) object;
+        }
+        else if (object instanceof byte[]) {
+            return new String((byte[]) object, StandardCharsets.UTF_8);
+        }
+        throw new DebeziumException(unsupportedTypeMessage(object));
+    }
+
     protected String unsupportedTypeMessage(Object object) {
         final String type = (object == null) ? "null" : object.getClass().getName();
         return "Unexpected data type '" + type + "'";
@@ -91,10 +215,30 @@ protected String unsupportedTypeMessage(Object object) {
 
     protected Map<String, String> convertHeaders(ChangeEvent<Object, Object> record) {
         List<Header<Object>> headers = record.headers();
-        Map<String, String> result = new HashMap<>();
+        Map<String, String> result = new HashMap<>((int) (headers.size() / 0.75f) + 1);
         for (Header<Object> header : headers) {
             result.put(header.getKey(), getString(header.getValue()));
         }
         return result;
     }
+
+    /**
+     * Passes the headers of the record to the action one by one, without copying them into an intermediate map. The
+     * header values are converted to strings like in {@link #convertHeaders(ChangeEvent)}.
+     */
+    protected void forEachHeader(ChangeEvent<Object, Object> record, BiConsumer<String, String> action) {
+        for (Header<Object> header : record.headers()) {
+            action.accept(header.getKey(), getString(header.getValue()));
+        }
+    }
+
+    /**
+     * Passes the headers of the record to the action one by one, with the keys and values in the form provided by the
+     * cache.
+     */
+    protected <V> void forEachHeader(ChangeEvent<Object, Object> record, HeaderEncodingCache<V> cache, BiConsumer<String, V> action) {
+        for (Header<Object> header : record.headers()) {
+            action.accept(cache.key(header.getKey()), cache.value(record.destination(), header.getKey(), header.getValue()));
+        }
+    }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A store for the payloads offloaded by the {@link ClaimCheckChangeConsumer claim check}. Implementations are CDI beans
+ * annotated with {@code @Named}, selected by {@code debezium.sink.<name>.claimcheck.store}, and must be {@code Dependent},
+ * as every sink gets its own instance.
+ * <p>
+ * The payloads are addressed by their content hash, so storing the same payload twice, e.g. when a batch is redelivered,
+ * must return the same reference without failing.
+ */
+public interface BlobStore extends AutoCloseable {
+
+    /**
+     * Configures the store of the given sink with the {@code debezium.sink.<name>.claimcheck.store.*} options, passed
+     * without the prefix.
+     */
+    void configure(String sinkName, Map<String, String> config);
+
+    /**
+     * Stores the payload durably, so it can be retrieved once the reference was delivered.
+     *
+     * @param destination the destination of the record the payload belongs to
+     * @param hash the hex encoded SHA-256 hash of the payload
+     * @return the reference under which the payload can be retrieved
+     */
+    String put(String destination, String hash, byte[] payload) throws IOException;
+
+    /**
+     * Retrieves a stored payload.
+     */
+    byte[] get(String reference) throws IOException;
+
+    @Override
+    void close();
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.debezium.util.BoundedConcurrentHashMap;
+import io.debezium.util.BoundedConcurrentHashMap.Eviction;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Memoizes the results of another {@link StreamNameMapper}. The number of distinct destinations is usually small (one per
+ * captured table), so after warm-up the mapping is a single map lookup. The cache is bounded and evicts the least recently
+ * used entries once full.
+ * <p>
+ * The wrapped mapper must return the same stream name for the same destination; {@code null} results are not cached.
+ */
+class CachingStreamNameMapper implements StreamNameMapper, MeterBinder {
+
+    private static final int CONCURRENCY_LEVEL = 16;
+
+    private final StreamNameMapper delegate;
+    private final String sinkName;
+    private final Map<String, String> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    CachingStreamNameMapper(StreamNameMapper delegate, String sinkName, int maxSize) {
+        this.delegate = delegate;
+        this.sinkName = sinkName;
+        this.cache = new BoundedConcurrentHashMap<>(maxSize, Math.min(CONCURRENCY_LEVEL, maxSize), Eviction.LRU);
+    }
+
+    @Override
+    public String map(String topic) {
+        if (topic == null) {
+            return delegate.map(null);
+        }
+        final String cached = cache.get(topic);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        final String mapped = delegate.map(topic);
+        if (mapped != null) {
+            cache.put(topic, mapped);
+        }
+        return mapped;
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Registers the cache meters, replacing those of a mapper of a previous instance of the same sink.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        final String sink = sinkName == null ? "" : sinkName;
+        registry.find("debezium.sink.mapper.cache.hits").tag("sink", sink).meters().forEach(registry::remove);
+        registry.find("debezium.sink.mapper.cache.misses").tag("sink", sink).meters().forEach(registry::remove);
+        registry.find("debezium.sink.mapper.cache.size").tag("sink", sink).meters().forEach(registry::remove);
+        FunctionCounter.builder("debezium.sink.mapper.cache.hits", hits, LongAdder::sum)
+                .description("Stream names served from the mapper cache")
+                .tag("sink", sink)
+                .register(registry);
+        FunctionCounter.builder("debezium.sink.mapper.cache.misses", misses, LongAdder::sum)
+                .description("Stream names computed by the stream name mapper")
+                .tag("sink", sink)
+                .register(registry);
+        Gauge.builder("debezium.sink.mapper.cache.size", cache, Map::size)
+                .description("Stream names held by the mapper cache")
+                .tag("sink", sink)
+                .register(registry);
+    }
+
+    @Override
+    public String toString() {
+        return "caching " + delegate;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.Header;
+
+/**
+ * Serializes change events to a compact binary form, used to keep them in local files. The destination, partition,
+ * key, value and headers are serialized; keys, values and header values must be strings or byte arrays unless the
+ * events are written leniently, in which case other values are stored as their string representation.
+ */
+final class ChangeEventCodec {
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_BYTES = 2;
+
+    private ChangeEventCodec() {
+    }
+
+    static byte[] encode(List<ChangeEvent<Object, Object>> records) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(records.size());
+            for (ChangeEvent<Object, Object> record : records) {
+                write(out, record, false);
+            }
+        }
+        catch (IOException e) {
+            throw new DebeziumException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<ChangeEvent<Object, Object>> decode(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            final int count = in.readInt();
+            final List<ChangeEvent<Object, Object>> records = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                records.add(read(in));
+            }
+            return records;
+        }
+    }
+
+    static void write(DataOutput out, ChangeEvent<Object, Object> record, boolean lenient) throws IOException {
+        writeValue(out, record.destination(), lenient);
+        final Integer partition = record.partition();
+        out.writeInt(partition == null ? -1 : partition);
+        writeValue(out, record.key(), lenient);
+        writeValue(out, record.value(), lenient);
+        final List<Header<Object>> headers = record.headers();
+        out.writeInt(headers.size());
+        for (Header<Object> header : headers) {
+            writeValue(out, header.getKey(), lenient);
+            writeValue(out, header.getValue(), lenient);
+        }
+    }
+
+    static ChangeEvent<Object, Object> read(DataInput in) throws IOException {
+        final String destination = (String) readValue(in);
+        final int partition = in.readInt();
+        final Object key = readValue(in);
+        final Object value = readValue(in);
+        final int headerCount = in.readInt();
+        final List<Header<Object>> headers = new ArrayList<>(headerCount);
+        for (int j = 0; j < headerCount; j++) {
+            headers.add(new SerializedHeader((String) readValue(in), readValue(in)));
+        }
+        return new SerializedChangeEvent(destination, partition == -1 ? null : partition, key, value, headers);
+    }
+
+    private static void writeValue(DataOutput out, Object value, boolean lenient) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+            return;
+        }
+        final byte[] bytes;
+        if (value instanceof byte[]) {
+            out.writeByte(TYPE_BYTES);
+            bytes = (byte[]) value;
+        }
+        else if (value instanceof String || lenient) {
+            out.writeByte(TYPE_STRING);
+            bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        else {
+            throw new DebeziumException("Unexpected data type '" + value.getClass().getName() + "' cannot be serialized");
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static Object readValue(DataInput in) throws IOException {
+        final byte type = in.readByte();
+        if (type == TYPE_NULL) {
+            return null;
+        }
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return type == TYPE_STRING ? new String(bytes, StandardCharsets.UTF_8) : bytes;
+    }
+
+    /**
+     * A change event restored from its serialized form or derived from another event.
+     */
+    static class SerializedChangeEvent implements ChangeEvent<Object, Object> {
+
+        private final String destination;
+        private final Integer partition;
+        private final Object key;
+        private final Object value;
+        private final List<Header<Object>> headers;
+
+        SerializedChangeEvent(String destination, Integer partition, Object key, Object value, List<Header<Object>> headers) {
+            this.destination = destination;
+            this.partition = partition;
+            this.key = key;
+            this.value = value;
+            this.headers = headers;
+        }
+
+        @Override
+        public Object key() {
+            return key;
+        }
+
+        @Override
+        public Object value() {
+            return value;
+        }
+
+        @Override
+        public List<Header<Object>> headers() {
+            return headers;
+        }
+
+        @Override
+        public String destination() {
+            return destination;
+        }
+
+        @Override
+        public Integer partition() {
+            return partition;
+        }
+
+        @Override
+        public String toString() {
+            return "SerializedChangeEvent [destination=" + destination + ", partition=" + partition + ", key=" + key + "]";
+        }
+    }
+
+    static class SerializedHeader implements Header<Object> {
+
+        private final String key;
+        private final Object value;
+
+        SerializedHeader(String key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+import io.debezium.engine.Header;
+
+/**
+ * A consumer decorator that offloads oversized record values to a {@link BlobStore} and hands the sink a small reference
+ * envelope in their place, so wide rows do not exceed the message size limits of the target system. The envelope is a
+ * JSON document
+ *
+ * <pre>
+ * {"claimCheck":{"reference":"...","sha256":"...","size":...}}
+ * </pre>
+ *
+ * of the same type as the value it replaces, a string or a UTF-8 byte array, and the reference is added to the record
+ * headers as {@value #HEADER_REFERENCE}. The size and the hash describe the offloaded payload, which is the value as the
+ * sink would have sent it, e.g. already compressed.
+ * <p>
+ * The payloads are stored before the batch is handed to the sink, so a delivered reference always resolves. Values up to
+ * the threshold, other value types and tombstones are passed on unchanged.
+ */
+public class ClaimCheckChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> {
+
+    static final String HEADER_REFERENCE = "__debezium.claimcheck";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final String sinkName;
+    private final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate;
+    private final BlobStore store;
+    private final int threshold;
+
+    public ClaimCheckChangeConsumer(String sinkName, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate, BlobStore store, int threshold) {
+        this.sinkName = sinkName;
+        this.delegate = delegate;
+        this.store = store;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        final List<ChangeEvent<Object, Object>> checked = new ArrayList<>(records.size());
+        // Written before the batch is handed to the sink and only read afterwards, so the sink may acknowledge from any thread
+        final Map<ChangeEvent<Object, Object>, ChangeEvent<Object, Object>> originals = new IdentityHashMap<>();
+        for (ChangeEvent<Object, Object> record : records) {
+            final ChangeEvent<Object, Object> replacement = offload(record);
+            if (replacement != record) {
+                originals.put(replacement, record);
+            }
+            checked.add(replacement);
+        }
+        delegate.handleBatch(checked, originals.isEmpty() ? committer : new OriginalRecordCommitter(committer, originals));
+    }
+
+    private ChangeEvent<Object, Object> offload(ChangeEvent<Object, Object> record) {
+        final Object value = record.value();
+        final byte[] payload;
+        if (value instanceof byte[]) {
+            payload = (byte[]) value;
+        }
+        else if (value instanceof String) {
+            // A character takes at most three bytes in UTF-8, so short strings need not be encoded
+            if (((String) value).length() <= threshold / 3) {
+                return record;
+            }
+            payload = ((String) value).getBytes(StandardCharsets.UTF_8);
+        }
+        else {
+            return record;
+        }
+        if (payload.length <= threshold) {
+            return record;
+        }
+
+        final String hash = sha256(payload);
+        final String reference;
+        try {
+            reference = store.put(record.destination(), hash, payload);
+        }
+        catch (IOException e) {
+            throw new DebeziumException("Failed to store the value of a record for destination '" + record.destination() + "' in " + store, e);
+        }
+        // The reference is a URI or a similar identifier chosen by the store and needs no escaping
+        final String envelope = "{\"claimCheck\":{\"reference\":\"" + reference + "\",\"sha256\":\"" + hash + "\",\"size\":" + payload.length + "}}";
+
+        final List<Header<Object>> headers = new ArrayList<>(record.headers().size() + 1);
+        headers.addAll(record.headers());
+        headers.add(new ChangeEventCodec.SerializedHeader(HEADER_REFERENCE, reference));
+        return new ChangeEventCodec.SerializedChangeEvent(record.destination(), record.partition(), record.key(),
+                value instanceof String ? envelope : envelope.getBytes(StandardCharsets.UTF_8), headers);
+    }
+
+    private static String sha256(byte[] payload) {
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(payload);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new DebeziumException("SHA-256 is not available", e);
+        }
+        final char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    @Override
+    public boolean supportsTombstoneEvents() {
+        return delegate.supportsTombstoneEvents();
+    }
+
+    @Override
+    public String toString() {
+        return "ClaimCheckChangeConsumer [" + sinkName + "] " + delegate;
+    }
+}
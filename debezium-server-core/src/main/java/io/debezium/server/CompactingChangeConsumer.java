@@ -0,0 +1,180 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+
+/**
+ * A consumer decorator for sinks that store the current state per key, where only the last write of a key matters. Of
+ * the records of a batch with the same destination and key only the last one is handed to the sink; the others are
+ * still marked as processed, so the offsets advance as usual.
+ * <p>
+ * The records are acknowledged to the engine in the batch order: a superseded record is acknowledged once the sink
+ * acknowledged the record that superseded it and all records before it. Tombstones and records without a key are always
+ * handed to the sink and never supersede other records, so a sink that ignores tombstones still receives the preceding
+ * delete event.
+ */
+public class CompactingChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> {
+
+    private final String sinkName;
+    private final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate;
+
+    public CompactingChangeConsumer(String sinkName, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate) {
+        this.sinkName = sinkName;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        // Index of the record superseding the record at the given index, or -1 if the record is handed to the sink
+        final int[] supersededBy = new int[records.size()];
+        final Map<CompactionKey, Integer> lastByKey = new HashMap<>();
+        boolean compacted = false;
+        for (int i = 0; i < records.size(); i++) {
+            supersededBy[i] = -1;
+            final ChangeEvent<Object, Object> record = records.get(i);
+            if (record.key() == null || record.value() == null) {
+                continue;
+            }
+            final Integer previous = lastByKey.put(new CompactionKey(record.destination(), record.key()), i);
+            if (previous != null) {
+                supersededBy[previous] = i;
+                compacted = true;
+            }
+        }
+        if (!compacted) {
+            delegate.handleBatch(records, committer);
+            return;
+        }
+        // Point every superseded record to the record retained for its key
+        for (int i = records.size() - 1; i >= 0; i--) {
+            if (supersededBy[i] != -1 && supersededBy[supersededBy[i]] != -1) {
+                supersededBy[i] = supersededBy[supersededBy[i]];
+            }
+        }
+
+        final List<ChangeEvent<Object, Object>> retained = new ArrayList<>(lastByKey.size());
+        for (int i = 0; i < records.size(); i++) {
+            if (supersededBy[i] == -1) {
+                retained.add(records.get(i));
+            }
+        }
+        delegate.handleBatch(retained, new OrderedCommitter(committer, records, supersededBy));
+    }
+
+    @Override
+    public boolean supportsTombstoneEvents() {
+        return delegate.supportsTombstoneEvents();
+    }
+
+    @Override
+    public String toString() {
+        return "CompactingChangeConsumer [" + sinkName + "] " + delegate;
+    }
+
+    /**
+     * The destination and key of a record, comparing byte array keys by their content.
+     */
+    private static class CompactionKey {
+
+        private final String destination;
+        private final Object key;
+
+        CompactionKey(String destination, Object key) {
+            this.destination = destination;
+            this.key = key instanceof byte[] ? ByteBuffer.wrap((byte[]) key) : key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CompactionKey)) {
+                return false;
+            }
+            final CompactionKey other = (CompactionKey) o;
+            return Objects.equals(destination, other.destination) && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(destination) + key.hashCode();
+        }
+    }
+
+    /**
+     * Acknowledges the records of the original batch in order as the sink acknowledges the retained ones.
+     */
+    private static class OrderedCommitter implements RecordCommitter<ChangeEvent<Object, Object>> {
+
+        private final RecordCommitter<ChangeEvent<Object, Object>> committer;
+        private final List<ChangeEvent<Object, Object>> records;
+        private final int[] supersededBy;
+        private final Map<ChangeEvent<Object, Object>, Integer> indexes = new IdentityHashMap<>();
+        private final DebeziumEngine.Offsets[] sourceOffsets;
+        private final boolean[] acknowledged;
+        private int next;
+
+        OrderedCommitter(RecordCommitter<ChangeEvent<Object, Object>> committer, List<ChangeEvent<Object, Object>> records, int[] supersededBy) {
+            this.committer = committer;
+            this.records = records;
+            this.supersededBy = supersededBy;
+            this.sourceOffsets = new DebeziumEngine.Offsets[records.size()];
+            this.acknowledged = new boolean[records.size()];
+            for (int i = 0; i < records.size(); i++) {
+                if (supersededBy[i] == -1) {
+                    indexes.put(records.get(i), i);
+                }
+            }
+        }
+
+        @Override
+        public synchronized void markProcessed(ChangeEvent<Object, Object> record) throws InterruptedException {
+            markProcessed(record, null);
+        }
+
+        @Override
+        public synchronized void markBatchFinished() throws InterruptedException {
+            committer.markBatchFinished();
+        }
+
+        @Override
+        public synchronized void markProcessed(ChangeEvent<Object, Object> record, DebeziumEngine.Offsets offsets) throws InterruptedException {
+            final Integer index = indexes.get(record);
+            if (index == null) {
+                throw new IllegalArgumentException("Record " + record + " is not part of the batch");
+            }
+            acknowledged[index] = true;
+            sourceOffsets[index] = offsets;
+            while (next < records.size() && (acknowledged[next] || (supersededBy[next] != -1 && acknowledged[supersededBy[next]]))) {
+                if (sourceOffsets[next] != null) {
+                    committer.markProcessed(records.get(next), sourceOffsets[next]);
+                }
+                else {
+                    committer.markProcessed(records.get(next));
+                }
+                next++;
+            }
+        }
+
+        @Override
+        public DebeziumEngine.Offsets buildOffsets() {
+            return committer.buildOffsets();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+import io.debezium.engine.Header;
+
+/**
+ * A consumer decorator that compresses the record values before they are handed to the sink. String values are
+ * compressed in their UTF-8 form, the same form {@link BaseChangeConsumer#getBytes(Object)} sends, so the sinks receive
+ * the compressed bytes as a byte array value. The codec is added to the record headers as {@value #HEADER_CODEC}, for
+ * the sinks that propagate headers.
+ * <p>
+ * Values smaller than the configured minimum, and values that would not get smaller, are passed on unchanged and
+ * without the header. Other value types and tombstones are passed on unchanged as well.
+ */
+public class CompressingChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> {
+
+    static final String HEADER_CODEC = "__debezium.compression";
+
+    private final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate;
+    private final PayloadCompressor compressor;
+    private final int minSize;
+
+    public CompressingChangeConsumer(DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate, PayloadCompressor compressor, int minSize) {
+        this.delegate = delegate;
+        this.compressor = compressor;
+        this.minSize = minSize;
+    }
+
+    @Override
+    public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        final List<ChangeEvent<Object, Object>> compressed = new ArrayList<>(records.size());
+        // Written before the batch is handed to the sink and only read afterwards, so the sink may acknowledge from any thread
+        final Map<ChangeEvent<Object, Object>, ChangeEvent<Object, Object>> originals = new IdentityHashMap<>();
+        for (ChangeEvent<Object, Object> record : records) {
+            final ChangeEvent<Object, Object> replacement = compress(record);
+            if (replacement != record) {
+                originals.put(replacement, record);
+            }
+            compressed.add(replacement);
+        }
+        delegate.handleBatch(compressed, originals.isEmpty() ? committer : new OriginalRecordCommitter(committer, originals));
+    }
+
+    private ChangeEvent<Object, Object> compress(ChangeEvent<Object, Object> record) {
+        final Object value = record.value();
+        final byte[] payload;
+        if (value instanceof byte[]) {
+            payload = (byte[]) value;
+        }
+        else if (value instanceof String) {
+            payload = ((String) value).getBytes(StandardCharsets.UTF_8);
+        }
+        else {
+            return record;
+        }
+        if (payload.length < minSize) {
+            return record;
+        }
+        final byte[] compressed = compressor.compress(record.destination(), payload);
+        if (compressed.length >= payload.length) {
+            return record;
+        }
+        final List<Header<Object>> headers = new ArrayList<>(record.headers().size() + 1);
+        headers.addAll(record.headers());
+        headers.add(new ChangeEventCodec.SerializedHeader(HEADER_CODEC, compressor.codec().value()));
+        return new ChangeEventCodec.SerializedChangeEvent(record.destination(), record.partition(), record.key(), compressed, headers);
+    }
+
+    @Override
+    public boolean supportsTombstoneEvents() {
+        return delegate.supportsTombstoneEvents();
+    }
+
+    @Override
+    public String toString() {
+        return "CompressingChangeConsumer [" + compressor.codec().value() + "] " + delegate;
+    }
+}
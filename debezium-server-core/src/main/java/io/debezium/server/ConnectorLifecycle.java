@@ -5,12 +5,16 @@
  */
 package io.debezium.server;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 
 import org.eclipse.microprofile.health.HealthCheck;
 import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
 import org.eclipse.microprofile.health.Liveness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,6 +29,9 @@
 /**
  * The server lifecycle listener that published CDI events based on the lifecycle changes and also provides
  * Microprofile Health information.
+ * <p>
+ * When the server hosts several pipelines, each engine reports to its own {@link #forPipeline(String) pipeline callback}
+ * and the server is live only while all of the pipelines are live.
  *
  * @author Jiri Pechanec
  *
@@ -35,7 +42,9 @@ public class ConnectorLifecycle implements HealthCheck, DebeziumEngine.Connector
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ConnectorLifecycle.class);
 
-    private volatile boolean live = false;
+    static final String DEFAULT_PIPELINE = "default";
+
+    private final Map<String, Pipeline> pipelines = new ConcurrentHashMap<>();
 
     @Inject
     Event<ConnectorStartedEvent> connectorStartedEvent;
@@ -52,48 +61,108 @@ public class ConnectorLifecycle implements HealthCheck, DebeziumEngine.Connector
     @Inject
     Event<ConnectorCompletedEvent> connectorCompletedEvent;
 
+    /**
+     * @return the lifecycle callbacks of the named pipeline
+     */
+    public Pipeline forPipeline(String name) {
+        return pipelines.computeIfAbsent(name, Pipeline::new);
+    }
+
     @Override
     public void connectorStarted() {
-        LOGGER.debug("Connector started");
-        connectorStartedEvent.fire(new ConnectorStartedEvent());
+        forPipeline(DEFAULT_PIPELINE).connectorStarted();
     }
 
     @Override
     public void connectorStopped() {
-        LOGGER.debug("Connector stopped");
-        connectorStoppedEvent.fire(new ConnectorStoppedEvent());
+        forPipeline(DEFAULT_PIPELINE).connectorStopped();
     }
 
     @Override
     public void taskStarted() {
-        LOGGER.debug("Task started");
-        taskStartedEvent.fire(new TaskStartedEvent());
-        live = true;
+        forPipeline(DEFAULT_PIPELINE).taskStarted();
     }
 
     @Override
     public void taskStopped() {
-        LOGGER.debug("Task stopped");
-        taskStoppedEvent.fire(new TaskStoppedEvent());
+        forPipeline(DEFAULT_PIPELINE).taskStopped();
     }
 
     @Override
     public void handle(boolean success, String message, Throwable error) {
-        String logMessage = String.format("Connector completed: success = '%s', message = '%s', error = '%s'", success, message, error);
-        if (success) {
-            LOGGER.info(logMessage);
-        }
-        else {
-            LOGGER.error(logMessage, error);
-        }
-        connectorCompletedEvent.fire(new ConnectorCompletedEvent(success, message, error));
-        live = false;
+        forPipeline(DEFAULT_PIPELINE).handle(success, message, error);
+    }
+
+    /**
+     * @return {@code true} if the tasks of all pipelines are running
+     */
+    public boolean isLive() {
+        return !pipelines.isEmpty() && pipelines.values().stream().allMatch(pipeline -> pipeline.live);
     }
 
     @Override
     public HealthCheckResponse call() {
+        final boolean live = isLive();
         LOGGER.trace("Healthcheck called - live = '{}'", live);
-        return HealthCheckResponse.named("debezium").status(live).build();
+        final HealthCheckResponseBuilder response = HealthCheckResponse.named("debezium").status(live);
+        if (pipelines.size() > 1) {
+            pipelines.values().forEach(pipeline -> response.withData(pipeline.name, pipeline.live));
+        }
+        return response.build();
     }
 
+    /**
+     * The lifecycle callbacks of a single engine.
+     */
+    public class Pipeline implements DebeziumEngine.ConnectorCallback, DebeziumEngine.CompletionCallback {
+
+        private final String name;
+        private volatile boolean live = false;
+
+        Pipeline(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void connectorStarted() {
+            LOGGER.debug("Connector of pipeline '{}' started", name);
+            connectorStartedEvent.fire(new ConnectorStartedEvent());
+        }
+
+        @Override
+        public void connectorStopped() {
+            LOGGER.debug("Connector of pipeline '{}' stopped", name);
+            connectorStoppedEvent.fire(new ConnectorStoppedEvent());
+        }
+
+        @Override
+        public void taskStarted() {
+            LOGGER.debug("Task of pipeline '{}' started", name);
+            taskStartedEvent.fire(new TaskStartedEvent());
+            live = true;
+        }
+
+        @Override
+        public void taskStopped() {
+            LOGGER.debug("Task of pipeline '{}' stopped", name);
+            taskStoppedEvent.fire(new TaskStoppedEvent());
+        }
+
+        @Override
+        public void handle(boolean success, String message, Throwable error) {
+            String logMessage = String.format("Connector of pipeline '%s' completed: success = '%s', message = '%s', error = '%s'", name, success, message, error);
+            if (success) {
+                LOGGER.info(logMessage);
+            }
+            else {
+                LOGGER.error(logMessage, error);
+            }
+            connectorCompletedEvent.fire(new ConnectorCompletedEvent(success, message, error));
+            live = false;
+        }
+
+        public boolean isLive() {
+            return live;
+        }
+    }
 }
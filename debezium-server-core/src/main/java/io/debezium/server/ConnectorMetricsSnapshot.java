@@ -0,0 +1,86 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+/**
+ * An immutable, point-in-time view of the source connector metrics as sampled by {@link DebeziumMetrics}.
+ */
+public final class ConnectorMetricsSnapshot {
+
+    private final boolean available;
+    private final boolean snapshotRunning;
+    private final boolean snapshotCompleted;
+    private final int queueTotalCapacity;
+    private final int queueRemainingCapacity;
+    private final long milliSecondsBehindSource;
+    private final long sampledAtNanos;
+
+    ConnectorMetricsSnapshot(boolean available, boolean snapshotRunning, boolean snapshotCompleted, int queueTotalCapacity,
+                             int queueRemainingCapacity, long milliSecondsBehindSource, long sampledAtNanos) {
+        this.available = available;
+        this.snapshotRunning = snapshotRunning;
+        this.snapshotCompleted = snapshotCompleted;
+        this.queueTotalCapacity = queueTotalCapacity;
+        this.queueRemainingCapacity = queueRemainingCapacity;
+        this.milliSecondsBehindSource = milliSecondsBehindSource;
+        this.sampledAtNanos = sampledAtNanos;
+    }
+
+    /**
+     * @return a snapshot indicating that the connector has not registered its metrics yet
+     */
+    static ConnectorMetricsSnapshot unavailable(long sampledAtNanos) {
+        return new ConnectorMetricsSnapshot(false, false, false, 0, 0, -1, sampledAtNanos);
+    }
+
+    /**
+     * @return {@code false} if the connector MBeans were not found when the metrics were sampled
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public boolean isSnapshotRunning() {
+        return snapshotRunning;
+    }
+
+    public boolean isSnapshotCompleted() {
+        return snapshotCompleted;
+    }
+
+    public int getQueueTotalCapacity() {
+        return queueTotalCapacity;
+    }
+
+    public int getQueueRemainingCapacity() {
+        return queueRemainingCapacity;
+    }
+
+    public int getQueueCurrentSize() {
+        return queueTotalCapacity - queueRemainingCapacity;
+    }
+
+    /**
+     * @return the streaming lag or {@code -1} if the connector did not process any event yet
+     */
+    public long getMilliSecondsBehindSource() {
+        return milliSecondsBehindSource;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which the metrics were read
+     */
+    public long getSampledAtNanos() {
+        return sampledAtNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "snapshotCompleted=" + snapshotCompleted + " snapshotRunning=" + snapshotRunning
+                + " streamingQueueCurrentSize=" + getQueueCurrentSize() + " streamingQueueRemainingCapacity=" + queueRemainingCapacity
+                + " maxQueueSize=" + queueTotalCapacity + " streamingMilliSecondsBehindSource=" + milliSecondsBehindSource;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+import org.eclipse.microprofile.health.Readiness;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Evaluates whether the server keeps up with the source and provides it as Microprofile Health readiness.
+ * <p>
+ * The server is {@link ServerStatus.State#DOWN down} while its pipelines are not live. It is
+ * {@link ServerStatus.State#DEGRADED degraded} or down when the streaming lag, the fill ratio of the connector queue or
+ * the number of records in flight in the sinks cross the configured thresholds. The connector metrics are registered
+ * only once the connector runs and some connectors do not register them at all, so missing metrics are reported as a
+ * detail and leave the state untouched. A threshold
+ * that is not positive is disabled. A degraded server stays ready, so that the state can drive autoscaling and load
+ * shedding without taking the server out of service.
+ * <p>
+ * With several pipelines, the lag and the queue fill are evaluated for every pipeline from the metrics of its own
+ * connector and the server takes the worst state. The records in flight are shared by the pipelines as they share the
+ * sinks, so they are evaluated for the server only.
+ */
+@Readiness
+@ApplicationScoped
+public class ConnectorReadiness implements HealthCheck {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectorReadiness.class);
+
+    static final String IN_FLIGHT_GAUGE = "debezium.sink.records.in.flight";
+
+    @ConfigProperty(name = "debezium.health.lag.degraded.ms", defaultValue = "60000")
+    long lagDegradedMs;
+
+    @ConfigProperty(name = "debezium.health.lag.unhealthy.ms", defaultValue = "0")
+    long lagUnhealthyMs;
+
+    @ConfigProperty(name = "debezium.health.queue.degraded.ratio", defaultValue = "0.9")
+    double queueDegradedRatio;
+
+    @ConfigProperty(name = "debezium.health.queue.unhealthy.ratio", defaultValue = "0")
+    double queueUnhealthyRatio;
+
+    @ConfigProperty(name = "debezium.health.in.flight.degraded", defaultValue = "0")
+    long inFlightDegraded;
+
+    @ConfigProperty(name = "debezium.health.in.flight.unhealthy", defaultValue = "0")
+    long inFlightUnhealthy;
+
+    @Inject
+    DebeziumMetrics metrics;
+
+    @Inject
+    ConnectorLifecycle lifecycle;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    /**
+     * @return the current status of the server
+     */
+    public ServerStatus status() {
+        final Map<String, DebeziumMetrics> pipelineMetrics = metrics.pipelines();
+        if (pipelineMetrics.size() <= 1) {
+            final DebeziumMetrics pipeline = pipelineMetrics.isEmpty() ? metrics : pipelineMetrics.values().iterator().next();
+            return evaluate(pipeline.snapshot(), lifecycle.isLive(), recordsInFlight());
+        }
+        final Map<String, ServerStatus> pipelines = new LinkedHashMap<>();
+        pipelineMetrics.forEach((name, pipeline) -> pipelines.put(name, evaluate(pipeline.snapshot(), lifecycle.forPipeline(name).isLive(), 0)));
+        return evaluate(pipelines, recordsInFlight());
+    }
+
+    private long recordsInFlight() {
+        long inFlight = 0;
+        for (Gauge gauge : meterRegistry.find(IN_FLIGHT_GAUGE).gauges()) {
+            inFlight += (long) gauge.value();
+        }
+        return inFlight;
+    }
+
+    ServerStatus evaluate(ConnectorMetricsSnapshot snapshot, boolean live, long inFlight) {
+        final List<String> down = new ArrayList<>();
+        final List<String> degraded = new ArrayList<>();
+        final List<String> details = new ArrayList<>();
+
+        if (!live) {
+            down.add("not live");
+        }
+        if (!snapshot.isAvailable()) {
+            details.add("metrics unavailable");
+        }
+        else {
+            final long lag = snapshot.getMilliSecondsBehindSource();
+            check(lag >= 0 ? lag : 0, lagUnhealthyMs, lagDegradedMs, "lag", down, degraded);
+            final double fill = snapshot.getQueueTotalCapacity() > 0 ? (double) snapshot.getQueueCurrentSize() / snapshot.getQueueTotalCapacity() : 0;
+            check(fill, queueUnhealthyRatio, queueDegradedRatio, "queue fill", down, degraded);
+        }
+        check(inFlight, inFlightUnhealthy, inFlightDegraded, "records in flight", down, degraded);
+
+        return status(down, degraded, details, live, snapshot.getMilliSecondsBehindSource(), snapshot.getQueueCurrentSize(),
+                snapshot.getQueueTotalCapacity(), inFlight, Map.of());
+    }
+
+    /**
+     * Combines the statuses of the pipelines, the reasons are prefixed with the name of the pipeline. The server reports
+     * the largest lag and the sum of the connector queues.
+     */
+    ServerStatus evaluate(Map<String, ServerStatus> pipelines, long inFlight) {
+        final List<String> down = new ArrayList<>();
+        final List<String> degraded = new ArrayList<>();
+        final List<String> details = new ArrayList<>();
+        boolean live = true;
+        long lag = -1;
+        int queueCurrentSize = 0;
+        int queueTotalCapacity = 0;
+        for (Map.Entry<String, ServerStatus> pipeline : pipelines.entrySet()) {
+            final ServerStatus status = pipeline.getValue();
+            final List<String> reasons;
+            switch (status.getState()) {
+                case DOWN:
+                    reasons = down;
+                    break;
+                case DEGRADED:
+                    reasons = degraded;
+                    break;
+                default:
+                    reasons = details;
+            }
+            for (String reason : status.getReasons()) {
+                reasons.add(pipeline.getKey() + ": " + reason);
+            }
+            live &= status.isLive();
+            lag = Math.max(lag, status.getMilliSecondsBehindSource());
+            queueCurrentSize += status.getQueueCurrentSize();
+            queueTotalCapacity += status.getQueueTotalCapacity();
+        }
+        check(inFlight, inFlightUnhealthy, inFlightDegraded, "records in flight", down, degraded);
+
+        return status(down, degraded, details, live, lag, queueCurrentSize, queueTotalCapacity, inFlight, pipelines);
+    }
+
+    /**
+     * The details do not change the state and are reported after the reasons for it.
+     */
+    private static ServerStatus status(List<String> down, List<String> degraded, List<String> details, boolean live, long lag, int queueCurrentSize,
+                                       int queueTotalCapacity, long inFlight, Map<String, ServerStatus> pipelines) {
+        final ServerStatus.State state;
+        final List<String> reasons;
+        if (!down.isEmpty()) {
+            state = ServerStatus.State.DOWN;
+            reasons = down;
+        }
+        else if (!degraded.isEmpty()) {
+            state = ServerStatus.State.DEGRADED;
+            reasons = degraded;
+        }
+        else {
+            state = ServerStatus.State.UP;
+            reasons = new ArrayList<>();
+        }
+        reasons.addAll(details);
+        return new ServerStatus(state, reasons, live, lag, queueCurrentSize, queueTotalCapacity, inFlight, pipelines);
+    }
+
+    private static void check(double value, double unhealthy, double degraded, String name, List<String> down, List<String> degradedReasons) {
+        if (unhealthy > 0 && value >= unhealthy) {
+            down.add(name);
+        }
+        else if (degraded > 0 && value >= degraded) {
+            degradedReasons.add(name);
+        }
+    }
+
+    @Override
+    public HealthCheckResponse call() {
+        final ServerStatus status = status();
+        LOGGER.trace("Readiness check called - {}", status);
+        final HealthCheckResponseBuilder response = HealthCheckResponse.named("debezium-readiness")
+                .status(status.getState() != ServerStatus.State.DOWN)
+                .withData("state", status.getState().name())
+                .withData("milliSecondsBehindSource", status.getMilliSecondsBehindSource())
+                .withData("queueCurrentSize", status.getQueueCurrentSize())
+                .withData("recordsInFlight", status.getRecordsInFlight());
+        if (!status.getReasons().isEmpty()) {
+            response.withData("reasons", String.join(", ", status.getReasons()));
+        }
+        status.getPipelines().forEach((name, pipeline) -> response.withData(name, pipeline.getState().name()));
+        return response.build();
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+import io.debezium.engine.Header;
+
+/**
+ * A consumer that isolates poison records instead of failing the engine. When the sink fails to handle a batch, the
+ * records of the batch that were not acknowledged yet are delivered to the sink one by one. A record that still fails is
+ * only suspected to be poison, as a sink that is unavailable fails for every record. It is written to the
+ * {@link DeadLetterQueue} with the failure as the reason, optionally sent to a dead-letter destination of the same sink,
+ * and acknowledged only once the sink delivered a later record, possibly of a later batch. Until then the
+ * acknowledgements of the later records are held back, so the offsets are committed in the order of the records.
+ * <p>
+ * Once the configured number of records failed in a row the failure is rethrown without acknowledging the suspected
+ * records, so that an outage stops the engine rather than moving any records to the dead-letter queue.
+ */
+public class DeadLetterChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeadLetterChangeConsumer.class);
+
+    static final String HEADER_REASON = "__debezium.dlq.reason";
+    static final String HEADER_DESTINATION = "__debezium.dlq.destination";
+
+    private final String sinkName;
+    private final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate;
+    private final DeadLetterQueue deadLetterQueue;
+    private final String deadLetterDestination;
+    private final int maxConsecutiveFailures;
+    private int consecutiveFailures;
+    // The failed records not proven to be poison yet, in the order of the engine
+    private final List<Suspect> suspects = new ArrayList<>();
+
+    /**
+     * @param deadLetterDestination the destination of the same sink the failed records are sent to, or {@code null}
+     */
+    public DeadLetterChangeConsumer(String sinkName, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate, DeadLetterQueue deadLetterQueue,
+                                    String deadLetterDestination, int maxConsecutiveFailures) {
+        this.sinkName = sinkName;
+        this.delegate = delegate;
+        this.deadLetterQueue = deadLetterQueue;
+        this.deadLetterDestination = deadLetterDestination;
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+    }
+
+    @Override
+    public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        final TrackingCommitter tracking = new TrackingCommitter(committer, !suspects.isEmpty());
+        RuntimeException failure = null;
+        try {
+            delegate.handleBatch(records, tracking);
+        }
+        catch (RuntimeException e) {
+            failure = e;
+        }
+        // A failure to write the dead-letter queue is not a failure of the sink and fails the engine
+        if (failure == null) {
+            delivered(tracking);
+            // The held acknowledgements are flushed with this batch
+            if (tracking.holding) {
+                committer.markBatchFinished();
+            }
+            return;
+        }
+        LOGGER.warn("Sink '{}' failed to handle a batch of {} records, {} of them were acknowledged; delivering the others one by one",
+                sinkName, records.size(), tracking.processed.size(), failure);
+        if (!tracking.processed.isEmpty()) {
+            delivered(tracking);
+        }
+
+        for (ChangeEvent<Object, Object> record : records) {
+            if (tracking.processed.contains(record)) {
+                continue;
+            }
+            final TrackingCommitter single = new TrackingCommitter(committer, !suspects.isEmpty());
+            try {
+                delegate.handleBatch(Collections.singletonList(record), single);
+                failure = null;
+            }
+            catch (RuntimeException e) {
+                failure = e;
+            }
+            if (failure == null || single.processed.contains(record)) {
+                delivered(single);
+                continue;
+            }
+            if (++consecutiveFailures >= maxConsecutiveFailures) {
+                // None of the suspected records is acknowledged, they are delivered again after the restart
+                suspects.clear();
+                throw new DebeziumException(consecutiveFailures + " records in a row could not be delivered by sink '" + sinkName
+                        + "', the sink is considered unavailable", failure);
+            }
+            LOGGER.warn("Sink '{}' failed to deliver a record to '{}', it is moved to the dead-letter queue once a later record is delivered",
+                    sinkName, record.destination(), failure);
+            suspects.add(new Suspect(record, failure, committer));
+        }
+        committer.markBatchFinished();
+    }
+
+    /**
+     * The sink delivered a record, so it is available and the suspected records are poison. They are moved to the
+     * dead-letter queue before the held acknowledgements are passed on.
+     */
+    private void delivered(TrackingCommitter tracking) throws InterruptedException {
+        consecutiveFailures = 0;
+        for (Suspect suspect : suspects) {
+            deadLetter(suspect.record, suspect.error, suspect.committer);
+        }
+        suspects.clear();
+        tracking.release();
+    }
+
+    private void deadLetter(ChangeEvent<Object, Object> record, RuntimeException error, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        final String reason = reason(error);
+        LOGGER.error("Sink '{}' failed to deliver a record to '{}', moving it to the dead-letter queue: {}", sinkName, record.destination(), reason);
+        deadLetterQueue.write(sinkName, record, reason);
+
+        if (deadLetterDestination != null) {
+            final List<Header<Object>> headers = new ArrayList<>(record.headers());
+            headers.add(new ChangeEventCodec.SerializedHeader(HEADER_REASON, reason));
+            headers.add(new ChangeEventCodec.SerializedHeader(HEADER_DESTINATION, record.destination()));
+            final ChangeEvent<Object, Object> deadLetter = new ChangeEventCodec.SerializedChangeEvent(deadLetterDestination, null, record.key(),
+                    record.value(), headers);
+            try {
+                // The dead letter is not known to the engine, so its acknowledgement must not be passed on
+                delegate.handleBatch(Collections.singletonList(deadLetter), new IgnoringCommitter(committer));
+            }
+            catch (RuntimeException e) {
+                LOGGER.warn("Failed to send the record to dead-letter destination '{}', it is kept in the local dead-letter queue only",
+                        deadLetterDestination, e);
+            }
+        }
+        committer.markProcessed(record);
+    }
+
+    private static String reason(Throwable error) {
+        final StringBuilder reason = new StringBuilder(error.toString());
+        for (Throwable cause = error.getCause(); cause != null && cause != cause.getCause(); cause = cause.getCause()) {
+            reason.append("; caused by ").append(cause);
+        }
+        return reason.toString();
+    }
+
+    @Override
+    public boolean supportsTombstoneEvents() {
+        return delegate.supportsTombstoneEvents();
+    }
+
+    @Override
+    public String toString() {
+        return "DeadLetterChangeConsumer [" + sinkName + "] " + delegate;
+    }
+
+    private static class Suspect {
+
+        private final ChangeEvent<Object, Object> record;
+        private final RuntimeException error;
+        private final RecordCommitter<ChangeEvent<Object, Object>> committer;
+
+        Suspect(ChangeEvent<Object, Object> record, RuntimeException error, RecordCommitter<ChangeEvent<Object, Object>> committer) {
+            this.record = record;
+            this.error = error;
+            this.committer = committer;
+        }
+    }
+
+    /**
+     * Remembers the records acknowledged by the sink, so that they are not delivered again after a failure. While
+     * records are suspected to be poison, the acknowledgements are held back until {@link #release() released}.
+     */
+    private static class TrackingCommitter implements RecordCommitter<ChangeEvent<Object, Object>> {
+
+        private final RecordCommitter<ChangeEvent<Object, Object>> committer;
+        private final boolean holding;
+        private final Set<ChangeEvent<Object, Object>> processed = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        // Guarded by this
+        private final List<Acknowledgement> held = new ArrayList<>();
+        private boolean released;
+
+        TrackingCommitter(RecordCommitter<ChangeEvent<Object, Object>> committer, boolean holding) {
+            this.committer = committer;
+            this.holding = holding;
+            this.released = !holding;
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record) throws InterruptedException {
+            markProcessed(record, null);
+        }
+
+        @Override
+        public void markBatchFinished() throws InterruptedException {
+            committer.markBatchFinished();
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record, DebeziumEngine.Offsets sourceOffsets) throws InterruptedException {
+            processed.add(record);
+            synchronized (this) {
+                if (!released) {
+                    held.add(new Acknowledgement(record, sourceOffsets));
+                    return;
+                }
+            }
+            new Acknowledgement(record, sourceOffsets).pass(committer);
+        }
+
+        synchronized void release() throws InterruptedException {
+            released = true;
+            for (Acknowledgement acknowledgement : held) {
+                acknowledgement.pass(committer);
+            }
+            held.clear();
+        }
+
+        @Override
+        public DebeziumEngine.Offsets buildOffsets() {
+            return committer.buildOffsets();
+        }
+    }
+
+    private static class Acknowledgement {
+
+        private final ChangeEvent<Object, Object> record;
+        private final DebeziumEngine.Offsets sourceOffsets;
+
+        Acknowledgement(ChangeEvent<Object, Object> record, DebeziumEngine.Offsets sourceOffsets) {
+            this.record = record;
+            this.sourceOffsets = sourceOffsets;
+        }
+
+        void pass(RecordCommitter<ChangeEvent<Object, Object>> committer) throws InterruptedException {
+            if (sourceOffsets == null) {
+                committer.markProcessed(record);
+            }
+            else {
+                committer.markProcessed(record, sourceOffsets);
+            }
+        }
+    }
+
+    private static class IgnoringCommitter implements RecordCommitter<ChangeEvent<Object, Object>> {
+
+        private final RecordCommitter<ChangeEvent<Object, Object>> committer;
+
+        IgnoringCommitter(RecordCommitter<ChangeEvent<Object, Object>> committer) {
+            this.committer = committer;
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record) {
+        }
+
+        @Override
+        public void markBatchFinished() {
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record, DebeziumEngine.Offsets sourceOffsets) {
+        }
+
+        @Override
+        public DebeziumEngine.Offsets buildOffsets() {
+            return committer.buildOffsets();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+
+/**
+ * Stores records that a sink could not deliver in rotating local segment files, together with the time and the reason
+ * of the failure, so that they can be inspected and {@link #read(Path) replayed} later.
+ * <p>
+ * Every write is forced to disk before it returns, as the record is acknowledged to the engine afterwards. A new segment
+ * is started when the current one exceeds the segment size. Once the maximum number of segments is reached the queue is
+ * full and rejects further records, so that the sink fails instead of losing dead letters whose offsets are committed
+ * already; the segments must then be inspected and removed. Only when explicitly enabled the oldest segments are
+ * deleted instead. Keys and values that are neither strings nor byte arrays are stored as their
+ * string representation.
+ */
+public class DeadLetterQueue implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeadLetterQueue.class);
+
+    static final String SEGMENT_PREFIX = "dlq-";
+    static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final int maxSegments;
+    private final boolean deleteOldest;
+    private final Deque<Path> segments = new LinkedList<>();
+    private FileChannel current;
+    private long written;
+
+    public DeadLetterQueue(Path directory, long segmentSize, int maxSegments) {
+        this(directory, segmentSize, maxSegments, false);
+    }
+
+    /**
+     * @param deleteOldest whether the oldest segments are deleted once the maximum number of segments is reached,
+     *                     instead of rejecting further records
+     */
+    public DeadLetterQueue(Path directory, long segmentSize, int maxSegments, boolean deleteOldest) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(1, maxSegments);
+        this.deleteOldest = deleteOldest;
+        try {
+            Files.createDirectories(directory);
+            segments.addAll(list(directory));
+        }
+        catch (IOException e) {
+            throw new DebeziumException("Failed to open dead-letter queue in '" + directory + "'", e);
+        }
+    }
+
+    /**
+     * Stores the record, returning after it was forced to disk.
+     *
+     * @throws DebeziumException if the record could not be written or the queue is full
+     */
+    public synchronized void write(String sink, ChangeEvent<Object, Object> record, String reason) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(0);
+                out.writeLong(System.currentTimeMillis());
+                out.writeUTF(sink);
+                out.writeUTF(truncate(reason));
+                ChangeEventCodec.write(out, record, true);
+            }
+            final ByteBuffer entry = ByteBuffer.wrap(bytes.toByteArray());
+            entry.putInt(0, entry.remaining() - Integer.BYTES);
+
+            if (current == null || written >= segmentSize) {
+                roll();
+            }
+            while (entry.hasRemaining()) {
+                written += current.write(entry);
+            }
+            current.force(false);
+        }
+        catch (IOException e) {
+            throw new DebeziumException("Failed to write record to dead-letter queue in '" + directory + "'", e);
+        }
+    }
+
+    private static String truncate(String reason) {
+        // DataOutput.writeUTF() is limited to 64 KiB, long stack traces are not needed to identify the failure
+        final String text = reason == null ? "" : reason;
+        return text.length() > 4096 ? text.substring(0, 4096) : text;
+    }
+
+    private void roll() throws IOException {
+        if (segments.size() >= maxSegments && !deleteOldest) {
+            throw new DebeziumException("Dead-letter queue in '" + directory + "' is full with " + segments.size()
+                    + " segments, inspect and remove them to accept further records");
+        }
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+        final Path file = directory.resolve(SEGMENT_PREFIX + System.currentTimeMillis() + "-" + System.nanoTime() + SEGMENT_SUFFIX);
+        current = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        written = 0;
+        segments.add(file);
+        while (segments.size() > maxSegments) {
+            final Path oldest = segments.poll();
+            LOGGER.warn("Deleting dead-letter segment '{}' as the maximum of {} segments was reached", oldest, maxSegments);
+            Files.deleteIfExists(oldest);
+        }
+        LOGGER.info("Writing dead-letter records to '{}'", file);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (current != null) {
+            try {
+                current.close();
+            }
+            catch (IOException e) {
+                LOGGER.warn("Failed to close dead-letter segment", e);
+            }
+            current = null;
+        }
+    }
+
+    /**
+     * @return the segment files in the directory, from the oldest to the newest
+     */
+    public static List<Path> list(Path directory) throws IOException {
+        final List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort((a, b) -> {
+            try {
+                final int result = Files.getLastModifiedTime(a).compareTo(Files.getLastModifiedTime(b));
+                return result != 0 ? result : a.getFileName().compareTo(b.getFileName());
+            }
+            catch (IOException e) {
+                throw new DebeziumException(e);
+            }
+        });
+        return files;
+    }
+
+    /**
+     * Reads the records stored in a segment file, e.g. to replay them to a sink.
+     */
+    public static List<DeadLetter> read(Path segment) throws IOException {
+        final List<DeadLetter> deadLetters = new ArrayList<>();
+        try (InputStream file = Files.newInputStream(segment); DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            while (true) {
+                final byte[] entry;
+                try {
+                    entry = new byte[in.readInt()];
+                    in.readFully(entry);
+                }
+                catch (EOFException e) {
+                    // The end of the segment or an entry that was not completely written before a crash
+                    return deadLetters;
+                }
+                deadLetters.add(readEntry(new DataInputStream(new ByteArrayInputStream(entry))));
+            }
+        }
+    }
+
+    private static DeadLetter readEntry(DataInputStream in) throws IOException {
+        final Instant timestamp = Instant.ofEpochMilli(in.readLong());
+        final String sink = in.readUTF();
+        final String reason = in.readUTF();
+        return new DeadLetter(timestamp, sink, reason, ChangeEventCodec.read(in));
+    }
+
+    /**
+     * A record stored in the dead-letter queue.
+     */
+    public static class DeadLetter {
+
+        private final Instant timestamp;
+        private final String sink;
+        private final String reason;
+        private final ChangeEvent<Object, Object> record;
+
+        DeadLetter(Instant timestamp, String sink, String reason, ChangeEvent<Object, Object> record) {
+            this.timestamp = timestamp;
+            this.sink = sink;
+            this.reason = reason;
+            this.record = record;
+        }
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        public String getSink() {
+            return sink;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public ChangeEvent<Object, Object> getRecord() {
+            return record;
+        }
+    }
+}
@@ -7,13 +7,24 @@
 package io.debezium.server;
 
 import java.lang.management.ManagementFactory;
-import java.util.Objects;
-
-import jakarta.enterprise.context.Dependent;
-
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.InstanceNotFoundException;
 import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,115 +32,206 @@
 
 /**
  * Reads debezium source pipeline metrics.
- * NOTE: calls for reading metrics should be made after debezium connector initialized,
+ * <p>
+ * The connector MBeans are resolved once via an {@link ObjectName} pattern and all attributes of an MBean are read with a
+ * single {@link MBeanServer#getAttributes} call. The result is published as an immutable {@link ConnectorMetricsSnapshot}
+ * that is re-sampled at most once per {@code debezium.metrics.max.age.ms}, so {@link #snapshot()} can be polled at high
+ * frequency without locking and without touching the MBean server on every call.
+ * <p>
+ * When the server hosts several pipelines, every pipeline reads the MBeans of its own connector, selected by the
+ * {@code server} key of the MBean name, i.e. the {@code topic.prefix} of the connector, via {@link #forPipeline}. This
+ * instance then reads the MBeans of an arbitrary connector.
+ * <p>
+ * NOTE: calls for reading individual metrics should be made after debezium connector initialized,
  * after connector registers metrics, otherwise it will throw `Debezium Mbean not found` error
  *
  * @author Ismail Simsek
  */
 
-@Dependent
+@ApplicationScoped
 public class DebeziumMetrics {
     protected static final Logger LOGGER = LoggerFactory.getLogger(DebeziumMetrics.class);
     public static final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
 
-    private ObjectName snapshotMetricsObjectName;
-    private ObjectName streamingMetricsObjectName;
+    private static final String CONTEXT_SNAPSHOT = "snapshot";
+    private static final String CONTEXT_STREAMING = "streaming";
 
-    private static ObjectName getDebeziumMbean(String context) {
-        ObjectName debeziumMbean = null;
+    private static final String[] SNAPSHOT_ATTRIBUTES = { "SnapshotRunning", "SnapshotCompleted" };
+    private static final String[] STREAMING_ATTRIBUTES = { "QueueTotalCapacity", "QueueRemainingCapacity", "MilliSecondsBehindSource" };
 
-        for (ObjectName mbean : mbeanServer.queryNames(null, null)) {
+    @ConfigProperty(name = "debezium.metrics.max.age.ms", defaultValue = "500")
+    long maxAgeMs;
 
-            if (mbean.getCanonicalName().contains("debezium.")
-                    && mbean.getCanonicalName().contains("type=connector-metrics")
-                    && mbean.getCanonicalName().contains("context=" + context)) {
-                LOGGER.debug("Using {} MBean to get {} metrics", mbean, context);
-                debeziumMbean = mbean;
-                break;
-            }
+    // The topic prefix of the connector, null to use the first connector found
+    private String serverName;
+    private final Map<String, DebeziumMetrics> pipelines = new ConcurrentHashMap<>();
 
-        }
+    private volatile ObjectName snapshotMetricsObjectName;
+    private volatile ObjectName streamingMetricsObjectName;
 
-        Objects.requireNonNull(debeziumMbean, "Debezium MBean (context=" + context + ") not found!");
+    private final AtomicReference<ConnectorMetricsSnapshot> current = new AtomicReference<>();
+    private final AtomicBoolean sampling = new AtomicBoolean();
 
-        return debeziumMbean;
+    /**
+     * @param serverName the {@code topic.prefix} of the pipeline's connector, or {@code null} if not known
+     * @return the metrics of the named pipeline
+     */
+    public DebeziumMetrics forPipeline(String name, String serverName) {
+        return pipelines.computeIfAbsent(name, x -> {
+            final DebeziumMetrics metrics = new DebeziumMetrics();
+            metrics.maxAgeMs = maxAgeMs;
+            metrics.serverName = serverName;
+            return metrics;
+        });
     }
 
-    public ObjectName getSnapshotMetricsObjectName() {
+    /**
+     * @return the metrics of the pipelines by pipeline name, empty if no pipeline was registered
+     */
+    public Map<String, DebeziumMetrics> pipelines() {
+        return Collections.unmodifiableMap(pipelines);
+    }
 
-        if (snapshotMetricsObjectName == null) {
-            snapshotMetricsObjectName = getDebeziumMbean("snapshot");
+    private ObjectName getDebeziumMbean(String context) {
+        final ObjectName pattern;
+        try {
+            pattern = new ObjectName("debezium.*:type=connector-metrics,context=" + context + ",*");
+        }
+        catch (MalformedObjectNameException e) {
+            throw new DebeziumException(e);
         }
 
-        return snapshotMetricsObjectName;
+        for (ObjectName debeziumMbean : mbeanServer.queryNames(pattern, null)) {
+            final String server = debeziumMbean.getKeyProperty("server");
+            if (serverName == null || serverName.equals(server) || ObjectName.quote(serverName).equals(server)) {
+                LOGGER.debug("Using {} MBean to get {} metrics", debeziumMbean, context);
+                return debeziumMbean;
+            }
+        }
+        return null;
     }
 
-    public ObjectName getStreamingMetricsObjectName() {
+    public ObjectName getSnapshotMetricsObjectName() {
+        ObjectName objectName = snapshotMetricsObjectName;
+        if (objectName == null) {
+            objectName = requireMbean(getDebeziumMbean(CONTEXT_SNAPSHOT), CONTEXT_SNAPSHOT);
+            snapshotMetricsObjectName = objectName;
+        }
+        return objectName;
+    }
 
-        if (streamingMetricsObjectName == null) {
-            streamingMetricsObjectName = getDebeziumMbean("streaming");
+    public ObjectName getStreamingMetricsObjectName() {
+        ObjectName objectName = streamingMetricsObjectName;
+        if (objectName == null) {
+            objectName = requireMbean(getDebeziumMbean(CONTEXT_STREAMING), CONTEXT_STREAMING);
+            streamingMetricsObjectName = objectName;
         }
+        return objectName;
+    }
 
-        return streamingMetricsObjectName;
+    private ObjectName requireMbean(ObjectName objectName, String context) {
+        if (objectName == null) {
+            throw new DebeziumException("Debezium MBean (context=" + context + (serverName != null ? ", server=" + serverName : "") + ") not found!");
+        }
+        return objectName;
     }
 
-    public int maxQueueSize() {
+    /**
+     * Returns the latest sampled metrics. The metrics are re-sampled if the latest sample is older than the configured
+     * maximum age; concurrent callers get the previous sample while a single caller refreshes it.
+     */
+    public ConnectorMetricsSnapshot snapshot() {
+        final ConnectorMetricsSnapshot snapshot = current.get();
+        if (snapshot != null && System.nanoTime() - snapshot.getSampledAtNanos() < TimeUnit.MILLISECONDS.toNanos(maxAgeMs)) {
+            return snapshot;
+        }
+        if (!sampling.compareAndSet(false, true)) {
+            // Another caller is refreshing the metrics
+            return snapshot != null ? snapshot : ConnectorMetricsSnapshot.unavailable(System.nanoTime());
+        }
         try {
-            return (int) mbeanServer.getAttribute(getStreamingMetricsObjectName(), "QueueTotalCapacity");
+            final ConnectorMetricsSnapshot sampled = sample();
+            current.set(sampled);
+            return sampled;
         }
-        catch (Exception e) {
-            throw new DebeziumException(e);
+        finally {
+            sampling.set(false);
         }
     }
 
-    public boolean snapshotRunning() {
+    private ConnectorMetricsSnapshot sample() {
         try {
-            return (boolean) mbeanServer.getAttribute(getSnapshotMetricsObjectName(), "SnapshotRunning");
+            final Map<String, Object> snapshotAttributes = attributes(getSnapshotMetricsObjectName(), SNAPSHOT_ATTRIBUTES);
+            final Map<String, Object> streamingAttributes = attributes(getStreamingMetricsObjectName(), STREAMING_ATTRIBUTES);
+            return new ConnectorMetricsSnapshot(
+                    true,
+                    (boolean) snapshotAttributes.getOrDefault("SnapshotRunning", false),
+                    (boolean) snapshotAttributes.getOrDefault("SnapshotCompleted", false),
+                    (int) streamingAttributes.getOrDefault("QueueTotalCapacity", 0),
+                    (int) streamingAttributes.getOrDefault("QueueRemainingCapacity", 0),
+                    (long) streamingAttributes.getOrDefault("MilliSecondsBehindSource", -1L),
+                    System.nanoTime());
+        }
+        catch (InstanceNotFoundException e) {
+            // The connector was restarted and its MBeans are registered again, possibly under different names
+            LOGGER.debug("Debezium MBean was unregistered", e);
+            snapshotMetricsObjectName = null;
+            streamingMetricsObjectName = null;
+            return ConnectorMetricsSnapshot.unavailable(System.nanoTime());
+        }
+        catch (DebeziumException e) {
+            LOGGER.debug("Debezium metrics are not available", e);
+            return ConnectorMetricsSnapshot.unavailable(System.nanoTime());
         }
         catch (Exception e) {
             throw new DebeziumException(e);
         }
     }
 
-    public boolean snapshotCompleted() {
-        try {
-            return (boolean) mbeanServer.getAttribute(getSnapshotMetricsObjectName(), "SnapshotCompleted");
+    private static Map<String, Object> attributes(ObjectName objectName, String[] names) throws Exception {
+        final AttributeList attributes = mbeanServer.getAttributes(objectName, names);
+        final Map<String, Object> values = new HashMap<>(names.length);
+        for (Attribute attribute : attributes.asList()) {
+            if (attribute.getValue() != null) {
+                values.put(attribute.getName(), attribute.getValue());
+            }
         }
-        catch (Exception e) {
-            throw new DebeziumException(e);
+        return values;
+    }
+
+    private ConnectorMetricsSnapshot availableSnapshot() {
+        final ConnectorMetricsSnapshot snapshot = snapshot();
+        if (!snapshot.isAvailable()) {
+            throw new DebeziumException("Debezium MBeans not found!");
         }
+        return snapshot;
+    }
+
+    public int maxQueueSize() {
+        return availableSnapshot().getQueueTotalCapacity();
+    }
+
+    public boolean snapshotRunning() {
+        return availableSnapshot().isSnapshotRunning();
+    }
+
+    public boolean snapshotCompleted() {
+        return availableSnapshot().isSnapshotCompleted();
     }
 
     public int streamingQueueRemainingCapacity() {
-        try {
-            return (int) mbeanServer.getAttribute(getStreamingMetricsObjectName(), "QueueRemainingCapacity");
-        }
-        catch (Exception e) {
-            throw new DebeziumException(e);
-        }
+        return availableSnapshot().getQueueRemainingCapacity();
     }
 
     public int streamingQueueCurrentSize() {
-        return maxQueueSize() - streamingQueueRemainingCapacity();
+        return availableSnapshot().getQueueCurrentSize();
     }
 
     public long streamingMilliSecondsBehindSource() {
-        try {
-            return (long) mbeanServer.getAttribute(getStreamingMetricsObjectName(), "MilliSecondsBehindSource");
-        }
-        catch (Exception e) {
-            throw new DebeziumException(e);
-        }
+        return availableSnapshot().getMilliSecondsBehindSource();
     }
 
     public void logMetrics() {
-        LOGGER.info("Debezium Metrics: snapshotCompleted={} snapshotRunning={} "
-                + "streamingQueueCurrentSize={} streamingQueueRemainingCapacity={} maxQueueSize={} streamingMilliSecondsBehindSource={}",
-                this.snapshotCompleted(),
-                this.snapshotRunning(),
-                this.streamingQueueCurrentSize(),
-                this.streamingQueueRemainingCapacity(),
-                this.maxQueueSize(),
-                this.streamingMilliSecondsBehindSource());
+        LOGGER.info("Debezium Metrics: {}", availableSnapshot());
     }
 }
@@ -6,6 +6,14 @@
 package io.debezium.server;
 
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Properties;
@@ -13,6 +21,7 @@
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -41,6 +50,8 @@
 import io.debezium.engine.format.Protobuf;
 import io.debezium.relational.history.SchemaHistory;
 import io.debezium.server.events.ConnectorCompletedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.quarkus.runtime.Quarkus;
 import io.quarkus.runtime.ShutdownEvent;
 import io.quarkus.runtime.Startup;
@@ -50,8 +61,13 @@
  * and provides few out-of-the-box target implementations.</p>
  * <p>The implementation uses CDI to find all classes that implements {@link DebeziumEngine.ChangeConsumer} interface.
  * The candidate classes should be annotated with {@code @Named} annotation and should be {@code Dependent}.</p>
- * <p>The configuration option {@code debezium.consumer} provides a name of the consumer that should be used and the value
- * must match to exactly one of the implementation classes.</p>
+ * <p>The configuration option {@code debezium.sink.type} provides a name of the consumer that should be used and the value
+ * must match to exactly one of the implementation classes. A comma-separated list of names delivers every batch to all of
+ * the listed consumers.</p>
+ * <p>The option {@code debezium.pipelines} hosts several engines in the same process. Each named pipeline takes the
+ * {@code debezium.source.*} options overridden by its own {@code debezium.pipelines.<name>.source.*} options, so every
+ * pipeline should at least get its own offset storage, and uses its name as the engine name. The sink instances are
+ * shared by all pipelines.</p>
  *
  * @author Jiri Pechanec
  *
@@ -76,6 +92,51 @@ public class DebeziumServer {
     private static final String PROP_PREDICATES = PROP_PREFIX + "predicates";
     private static final String PROP_TRANSFORMS = PROP_PREFIX + "transforms";
     private static final String PROP_SINK_TYPE = PROP_SINK_PREFIX + "type";
+    private static final String PROP_PIPELINES = PROP_PREFIX + "pipelines";
+    private static final String PROP_PIPELINES_PREFIX = PROP_PIPELINES + ".";
+    private static final String PROP_PIPELINING_PREFIX = PROP_SINK_PREFIX + "pipelining.";
+    private static final String PROP_PIPELINING_ENABLED = PROP_PIPELINING_PREFIX + "enabled";
+    private static final String PROP_PIPELINING_QUEUE_SIZE = PROP_PIPELINING_PREFIX + "queue.size";
+    private static final String PROP_METRICS_ENABLED = PROP_SINK_PREFIX + "metrics.enabled";
+    private static final String PROP_METRICS_BYTES_ENABLED = PROP_SINK_PREFIX + "metrics.bytes.enabled";
+    private static final String PROP_LATENCY_ENABLED = PROP_SINK_PREFIX + "latency.enabled";
+    private static final String PROP_LATENCY_HEADER = PROP_SINK_PREFIX + "latency.header";
+    private static final String PROP_TRACING_ENABLED = PROP_SINK_PREFIX + "tracing.enabled";
+    private static final String PROP_BATCHING_PREFIX = PROP_SINK_PREFIX + "batching.";
+    private static final String PROP_BATCHING_ENABLED = PROP_BATCHING_PREFIX + "enabled";
+    private static final String PROP_BATCHING_LATENCY_TARGET = PROP_BATCHING_PREFIX + "latency.target.ms";
+    private static final String PROP_BATCHING_MIN_SIZE = PROP_BATCHING_PREFIX + "min.size";
+    private static final String PROP_BATCHING_MAX_SIZE = PROP_BATCHING_PREFIX + "max.size";
+    private static final String PROP_BATCHING_LINGER = PROP_BATCHING_PREFIX + "linger.ms";
+    private static final String PROP_SPILL_PREFIX = PROP_SINK_PREFIX + "spill.";
+    private static final String PROP_SPILL_ENABLED = PROP_SPILL_PREFIX + "enabled";
+    private static final String PROP_SPILL_DIRECTORY = PROP_SPILL_PREFIX + "directory";
+    private static final String PROP_SPILL_SEGMENT_SIZE = PROP_SPILL_PREFIX + "segment.bytes";
+    private static final String PROP_SPILL_MAX_SIZE = PROP_SPILL_PREFIX + "max.bytes";
+    private static final String PROP_SPILL_RETRY_INTERVAL = PROP_SPILL_PREFIX + "retry.interval.ms";
+    private static final String PROP_DLQ_PREFIX = PROP_SINK_PREFIX + "dlq.";
+    private static final String PROP_DLQ_ENABLED = PROP_DLQ_PREFIX + "enabled";
+    private static final String PROP_DLQ_DIRECTORY = PROP_DLQ_PREFIX + "directory";
+    private static final String PROP_DLQ_DESTINATION = PROP_DLQ_PREFIX + "destination";
+    private static final String PROP_DLQ_SEGMENT_SIZE = PROP_DLQ_PREFIX + "segment.bytes";
+    private static final String PROP_DLQ_MAX_SEGMENTS = PROP_DLQ_PREFIX + "max.segments";
+    private static final String PROP_DLQ_DELETE_OLDEST = PROP_DLQ_PREFIX + "delete.oldest.segments";
+    private static final String PROP_DLQ_MAX_CONSECUTIVE_FAILURES = PROP_DLQ_PREFIX + "max.consecutive.failures";
+    private static final String PROP_RELOAD_PREFIX = PROP_SINK_PREFIX + "reload.";
+    private static final String PROP_RELOAD_ENABLED = PROP_RELOAD_PREFIX + "enabled";
+    private static final String PROP_RELOAD_FILE = PROP_RELOAD_PREFIX + "file";
+    private static final String PROP_COMPACTION_ENABLED = "compaction.enabled";
+    private static final String PROP_RATE_LIMIT_RECORDS = "rate.limit.records.per.second";
+    private static final String PROP_RATE_LIMIT_BYTES = "rate.limit.bytes.per.second";
+    private static final String PROP_RATE_LIMIT_DESTINATION_RECORDS = "rate.limit.destination.records.per.second";
+    private static final String PROP_RATE_LIMIT_DESTINATION_BYTES = "rate.limit.destination.bytes.per.second";
+    private static final String PROP_CLAIM_CHECK_THRESHOLD = "claimcheck.threshold.bytes";
+    private static final String PROP_CLAIM_CHECK_STORE = "claimcheck.store";
+    private static final String PROP_CLAIM_CHECK_STORE_PREFIX = PROP_CLAIM_CHECK_STORE + ".";
+    private static final String PROP_COMPRESSION_CODEC = "compression.codec";
+    private static final String PROP_COMPRESSION_LEVEL = "compression.level";
+    private static final String PROP_COMPRESSION_MIN_SIZE = "compression.min.bytes";
+    private static final String PROP_COMPRESSION_DICTIONARY_DIRECTORY = "compression.zstd.dictionary.directory";
 
     private static final String PROP_HEADER_FORMAT = PROP_FORMAT_PREFIX + "header";
     private static final String PROP_KEY_FORMAT = PROP_FORMAT_PREFIX + "key";
@@ -88,10 +149,26 @@ public class DebeziumServer {
     private static final String FORMAT_AVRO = Avro.class.getSimpleName().toLowerCase();
     private static final String FORMAT_PROTOBUF = Protobuf.class.getSimpleName().toLowerCase();
 
+    private static final int DEFAULT_PIPELINING_QUEUE_SIZE = 4;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 2048;
+    private static final long DEFAULT_BATCHING_LATENCY_TARGET_MS = 1000;
+    private static final long DEFAULT_BATCHING_LINGER_MS = 100;
+    private static final String DEFAULT_SPILL_DIRECTORY = "data/spill";
+    private static final int DEFAULT_SPILL_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final long DEFAULT_SPILL_MAX_SIZE = 1024L * 1024 * 1024;
+    private static final long DEFAULT_SPILL_RETRY_INTERVAL_MS = 5000;
+    private static final String DEFAULT_DLQ_DIRECTORY = "data/dlq";
+    private static final long DEFAULT_DLQ_SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final int DEFAULT_DLQ_MAX_SEGMENTS = 10;
+    private static final int DEFAULT_DLQ_MAX_CONSECUTIVE_FAILURES = 10;
+    private static final int DEFAULT_COMPRESSION_MIN_SIZE = 256;
+    private static final String DEFAULT_CLAIM_CHECK_STORE = "filesystem";
+    private static final String DEFAULT_RELOAD_FILE = "conf/application.properties";
+
     private static final Pattern SHELL_PROPERTY_NAME_PATTERN = Pattern.compile("^[a-zA-Z0-9_]+_+[a-zA-Z0-9_]+$");
 
-    private ExecutorService executor = Executors.newSingleThreadExecutor();
-    private int returnCode = 0;
+    private ExecutorService executor;
+    private volatile int returnCode = 0;
 
     @Inject
     BeanManager beanManager;
@@ -100,10 +177,27 @@ public class DebeziumServer {
     @Liveness
     ConnectorLifecycle health;
 
-    private Bean<DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>> consumerBean;
-    private CreationalContext<ChangeConsumer<ChangeEvent<Object, Object>>> consumerBeanCreationalContext;
-    private DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer;
-    private DebeziumEngine<?> engine;
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    DebeziumMetrics metrics;
+
+    private final Map<DebeziumEngine.ChangeConsumer<?>, Runnable> consumerDestroyers = new LinkedHashMap<>();
+    // Replaced by a sink reload in single-sink mode
+    private volatile DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer;
+    private FanOutChangeConsumer fanOut;
+    private final List<PipelinedChangeConsumer> pipelinedConsumers = new ArrayList<>();
+    private final List<AdaptiveBatchingChangeConsumer> batchingConsumers = new ArrayList<>();
+    private final List<SpillingChangeConsumer> spillingConsumers = new ArrayList<>();
+    private final List<DeadLetterQueue> deadLetterQueues = new ArrayList<>();
+    private final List<Runnable> blobStoreDestroyers = new ArrayList<>();
+    private final List<DrainGate> drainGates = new ArrayList<>();
+    private final List<Drainable> drainableSinks = new ArrayList<>();
+    private final Map<String, ReloadableChangeConsumer> reloadableSinks = new LinkedHashMap<>();
+    private final Map<String, MeteredChangeConsumer> meteredSinks = new LinkedHashMap<>();
+    private final List<DebeziumEngine<?>> engines = new ArrayList<>();
+    private final AtomicInteger runningEngines = new AtomicInteger();
     private final Properties props = new Properties();
 
     @SuppressWarnings("unchecked")
@@ -111,23 +205,31 @@ public class DebeziumServer {
     public void start() {
         final Config config = loadConfigOrDie();
         final String name = config.getValue(PROP_SINK_TYPE, String.class);
+        final List<String> sinkNames = parseList(name);
+        final List<String> pipelineNames = parseList(config.getOptionalValue(PROP_PIPELINES, String.class).orElse(""));
 
-        final Set<Bean<?>> beans = beanManager.getBeans(name).stream()
-                .filter(x -> DebeziumEngine.ChangeConsumer.class.isAssignableFrom(x.getBeanClass()))
-                .collect(Collectors.toSet());
-        LOGGER.debug("Found {} candidate consumer(s)", beans.size());
+        if (sinkNames.isEmpty()) {
+            throw new DebeziumException("No Debezium consumer is configured in '" + PROP_SINK_TYPE + "'");
+        }
 
-        if (beans.size() == 0) {
-            throw new DebeziumException("No Debezium consumer named '" + name + "' is available");
+        DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> sinkConsumer;
+        if (sinkNames.size() == 1) {
+            consumer = createConsumer(sinkNames.get(0));
+            sinkConsumer = decorate(config, sinkNames.get(0), consumer);
         }
-        else if (beans.size() > 1) {
-            throw new DebeziumException("Multiple Debezium consumers named '" + name + "' were found");
+        else {
+            final Map<String, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>> consumers = new LinkedHashMap<>();
+            for (String sinkName : sinkNames) {
+                consumers.put(sinkName, decorate(config, sinkName, createConsumer(sinkName)));
+            }
+            fanOut = new FanOutChangeConsumer(consumers);
+            consumer = fanOut;
+            sinkConsumer = fanOut;
+        }
+        if (pipelineNames.size() > 1) {
+            // The sink instances and their clients are shared by all pipelines
+            sinkConsumer = new SharedChangeConsumer(sinkConsumer);
         }
-
-        consumerBean = (Bean<DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>>) beans.iterator().next();
-        consumerBeanCreationalContext = beanManager.createCreationalContext(consumerBean);
-        consumer = consumerBean.create(consumerBeanCreationalContext);
-        LOGGER.info("Consumer '{}' instantiated", consumer.getClass().getName());
 
         final Class<Any> keyFormat = (Class<Any>) getFormat(config, PROP_KEY_FORMAT);
         final Class<Any> valueFormat = (Class<Any>) getFormat(config, PROP_VALUE_FORMAT);
@@ -140,8 +242,10 @@ else if (beans.size() > 1) {
         configToProperties(config, props, PROP_KEY_FORMAT_PREFIX, "key.converter.", true);
         configToProperties(config, props, PROP_VALUE_FORMAT_PREFIX, "value.converter.", true);
         configToProperties(config, props, PROP_HEADER_FORMAT_PREFIX, "header.converter.", true);
-        configToProperties(config, props, PROP_SINK_PREFIX + name + ".", SchemaHistory.CONFIGURATION_FIELD_PREFIX_STRING + name + ".", false);
-        configToProperties(config, props, PROP_SINK_PREFIX + name + ".", PROP_OFFSET_STORAGE_PREFIX + name + ".", false);
+        for (String sinkName : sinkNames) {
+            configToProperties(config, props, PROP_SINK_PREFIX + sinkName + ".", SchemaHistory.CONFIGURATION_FIELD_PREFIX_STRING + sinkName + ".", false);
+            configToProperties(config, props, PROP_SINK_PREFIX + sinkName + ".", PROP_OFFSET_STORAGE_PREFIX + sinkName + ".", false);
+        }
 
         final Optional<String> transforms = config.getOptionalValue(PROP_TRANSFORMS, String.class);
         if (transforms.isPresent()) {
@@ -155,25 +259,379 @@ else if (beans.size() > 1) {
             configToProperties(config, props, PROP_PREDICATES_PREFIX, "predicates.", true);
         }
 
-        props.setProperty("name", name);
-        LOGGER.debug("Configuration for DebeziumEngine: {}", props);
+        if (pipelineNames.isEmpty()) {
+            props.setProperty("name", String.join(",", sinkNames));
+            LOGGER.debug("Configuration for DebeziumEngine: {}", props);
+            engines.add(createEngine(config, keyFormat, valueFormat, headerFormat, props, sinkConsumer, health, health,
+                    metrics.forPipeline(ConnectorLifecycle.DEFAULT_PIPELINE, serverName(props))));
+        }
+        else {
+            for (String pipelineName : pipelineNames) {
+                final Properties pipelineProps = new Properties();
+                pipelineProps.putAll(props);
+                configToProperties(config, pipelineProps, PROP_PIPELINES_PREFIX + pipelineName + ".source.", "", true);
+                pipelineProps.setProperty("name", pipelineName);
+                LOGGER.debug("Configuration for DebeziumEngine of pipeline '{}': {}", pipelineName, pipelineProps);
+                final ConnectorLifecycle.Pipeline pipelineHealth = health.forPipeline(pipelineName);
+                engines.add(createEngine(config, keyFormat, valueFormat, headerFormat, pipelineProps, sinkConsumer, pipelineHealth, pipelineHealth,
+                        metrics.forPipeline(pipelineName, serverName(pipelineProps))));
+            }
+        }
 
-        engine = DebeziumEngine.create(keyFormat, valueFormat, headerFormat)
-                .using(props)
-                .using((DebeziumEngine.ConnectorCallback) health)
-                .using((DebeziumEngine.CompletionCallback) health)
-                .notifying(consumer)
+        executor = ServerThreads.isVirtual() ? ServerThreads.newExecutor("debezium-engine", engines.size()) : Executors.newFixedThreadPool(engines.size());
+        runningEngines.set(engines.size());
+        for (DebeziumEngine<?> engine : engines) {
+            executor.execute(() -> {
+                try {
+                    engine.run();
+                }
+                finally {
+                    if (runningEngines.decrementAndGet() == 0) {
+                        Quarkus.asyncExit(returnCode);
+                    }
+                }
+            });
+        }
+        LOGGER.info("Engine executor started with {} engine(s)", engines.size());
+    }
+
+    private DebeziumEngine<?> createEngine(Config config, Class<Any> keyFormat, Class<Any> valueFormat, Class<Any> headerFormat, Properties engineProps,
+                                           DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> sinkConsumer,
+                                           DebeziumEngine.ConnectorCallback connectorCallback, DebeziumEngine.CompletionCallback completionCallback,
+                                           DebeziumMetrics engineMetrics) {
+        DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> engineConsumer = sinkConsumer;
+        if (config.getOptionalValue(PROP_SPILL_ENABLED, Boolean.class).orElse(false)) {
+            final SpillingChangeConsumer spillingConsumer = new SpillingChangeConsumer(engineProps.getProperty("name"), engineConsumer,
+                    Paths.get(config.getOptionalValue(PROP_SPILL_DIRECTORY, String.class).orElse(DEFAULT_SPILL_DIRECTORY), engineProps.getProperty("name")),
+                    config.getOptionalValue(PROP_SPILL_SEGMENT_SIZE, Integer.class).orElse(DEFAULT_SPILL_SEGMENT_SIZE),
+                    config.getOptionalValue(PROP_SPILL_MAX_SIZE, Long.class).orElse(DEFAULT_SPILL_MAX_SIZE),
+                    Duration.ofMillis(config.getOptionalValue(PROP_SPILL_RETRY_INTERVAL, Long.class).orElse(DEFAULT_SPILL_RETRY_INTERVAL_MS)));
+            if (config.getOptionalValue(PROP_METRICS_ENABLED, Boolean.class).orElse(true)) {
+                spillingConsumer.bindTo(meterRegistry);
+            }
+            spillingConsumers.add(spillingConsumer);
+            engineConsumer = spillingConsumer;
+        }
+        if (config.getOptionalValue(PROP_BATCHING_ENABLED, Boolean.class).orElse(false)) {
+            final int engineBatchSize = Integer.parseInt(engineProps.getProperty("max.batch.size", Integer.toString(DEFAULT_MAX_BATCH_SIZE)));
+            final AdaptiveBatchingChangeConsumer batchingConsumer = new AdaptiveBatchingChangeConsumer(engineProps.getProperty("name"), engineConsumer,
+                    Duration.ofMillis(config.getOptionalValue(PROP_BATCHING_LATENCY_TARGET, Long.class).orElse(DEFAULT_BATCHING_LATENCY_TARGET_MS)),
+                    config.getOptionalValue(PROP_BATCHING_MIN_SIZE, Integer.class).orElse(1),
+                    config.getOptionalValue(PROP_BATCHING_MAX_SIZE, Integer.class).orElse(engineBatchSize * 4),
+                    engineBatchSize,
+                    Duration.ofMillis(config.getOptionalValue(PROP_BATCHING_LINGER, Long.class).orElse(DEFAULT_BATCHING_LINGER_MS)),
+                    () -> {
+                        final ConnectorMetricsSnapshot snapshot = engineMetrics.snapshot();
+                        return snapshot.isAvailable() ? snapshot.getQueueCurrentSize() : 0;
+                    });
+            if (config.getOptionalValue(PROP_METRICS_ENABLED, Boolean.class).orElse(true)) {
+                batchingConsumer.bindTo(meterRegistry);
+            }
+            batchingConsumers.add(batchingConsumer);
+            engineConsumer = batchingConsumer;
+        }
+        if (config.getOptionalValue(PROP_PIPELINING_ENABLED, Boolean.class).orElse(false)) {
+            final PipelinedChangeConsumer pipelinedConsumer = new PipelinedChangeConsumer(engineConsumer,
+                    config.getOptionalValue(PROP_PIPELINING_QUEUE_SIZE, Integer.class).orElse(DEFAULT_PIPELINING_QUEUE_SIZE));
+            pipelinedConsumers.add(pipelinedConsumer);
+            engineConsumer = pipelinedConsumer;
+        }
+        final DrainGate drainGate = new DrainGate(engineProps.getProperty("name"), engineConsumer);
+        drainGates.add(drainGate);
+        engineConsumer = drainGate;
+
+        return DebeziumEngine.create(keyFormat, valueFormat, headerFormat)
+                .using(engineProps)
+                .using(connectorCallback)
+                .using(completionCallback)
+                .notifying(engineConsumer)
                 .build();
+    }
 
-        executor.execute(() -> {
-            try {
-                engine.run();
+    /**
+     * Returns the name under which the connector registers its metrics MBeans, or {@code null} if it is not configured.
+     */
+    private static String serverName(Properties engineProps) {
+        return engineProps.getProperty("topic.prefix", engineProps.getProperty("database.server.name"));
+    }
+
+    private static List<String> parseList(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(x -> !x.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> createConsumer(String name) {
+        final Set<Bean<?>> beans = beanManager.getBeans(name).stream()
+                .filter(x -> DebeziumEngine.ChangeConsumer.class.isAssignableFrom(x.getBeanClass()))
+                .collect(Collectors.toSet());
+        LOGGER.debug("Found {} candidate consumer(s)", beans.size());
+
+        if (beans.size() == 0) {
+            throw new DebeziumException("No Debezium consumer named '" + name + "' is available");
+        }
+        else if (beans.size() > 1) {
+            throw new DebeziumException("Multiple Debezium consumers named '" + name + "' were found");
+        }
+
+        final Bean<DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>> consumerBean = (Bean<DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>>) beans
+                .iterator().next();
+        final CreationalContext<ChangeConsumer<ChangeEvent<Object, Object>>> consumerBeanCreationalContext = beanManager.createCreationalContext(consumerBean);
+        final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer = consumerBean.create(consumerBeanCreationalContext);
+        consumerDestroyers.put(consumer, () -> consumerBean.destroy(consumer, consumerBeanCreationalContext));
+        LOGGER.info("Consumer '{}' instantiated", consumer.getClass().getName());
+        return consumer;
+    }
+
+    /**
+     * Applies the per-sink decorators, the dead-letter queue sees the records as emitted by the engine while the metrics
+     * see them as handed to the sink.
+     */
+    private DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> decorate(Config config, String name,
+                                                                                DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer) {
+        DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> sink = consumer;
+        if (config.getOptionalValue(PROP_RELOAD_ENABLED, Boolean.class).orElse(false)) {
+            final ReloadableChangeConsumer reloadable = new ReloadableChangeConsumer(name, consumer);
+            reloadableSinks.put(name, reloadable);
+            sink = reloadable;
+        }
+        final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> instrumented = instrument(config, name, sink);
+        // The metered sink drains the sink it wraps and settles its in-flight gauge
+        if (instrumented instanceof Drainable) {
+            drainableSinks.add((Drainable) instrumented);
+        }
+        bindMetrics(name, consumer);
+        return withDeadLetterQueue(config, name, withLatency(config, name, withCompaction(config, name, withCompression(config, name, withClaimCheck(config, name, withRateLimit(config, name, instrumented))))));
+    }
+
+    /**
+     * Wraps the consumer so that the sink throughput, latency and retries are exported as metrics, unless disabled via
+     * {@code debezium.sink.metrics.enabled}. The byte throughput is only counted if enabled via
+     * {@code debezium.sink.metrics.bytes.enabled}.
+     */
+    private DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> instrument(Config config, String name,
+                                                                                  DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer) {
+        if (!config.getOptionalValue(PROP_METRICS_ENABLED, Boolean.class).orElse(true)) {
+            return consumer;
+        }
+        final MeteredChangeConsumer metered = new MeteredChangeConsumer(name, consumer, meterRegistry,
+                config.getOptionalValue(PROP_METRICS_BYTES_ENABLED, Boolean.class).orElse(false));
+        meteredSinks.put(name, metered);
+        return metered;
+    }
+
+    /**
+     * Reports the retries and the stream name mapper cache of the sink instance to the metrics of the named sink.
+     */
+    private void bindMetrics(String name, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer) {
+        final MeteredChangeConsumer metered = meteredSinks.get(name);
+        if (metered != null && consumer instanceof BaseChangeConsumer) {
+            final BaseChangeConsumer baseConsumer = (BaseChangeConsumer) consumer;
+            baseConsumer.setRetryListener(metered::recordRetry);
+            if (baseConsumer.streamNameMapper instanceof CachingStreamNameMapper) {
+                ((CachingStreamNameMapper) baseConsumer.streamNameMapper).bindTo(meterRegistry);
             }
-            finally {
-                Quarkus.asyncExit(returnCode);
+        }
+    }
+
+    /**
+     * Re-reads the sink options from the configuration file set by {@code debezium.sink.reload.file} and replaces every
+     * sink whose {@code debezium.sink.<name>.*} options changed by a new instance of its consumer bean. The engines and
+     * the source connectors keep running; the new instance takes over between two batches. If the new instance cannot
+     * be created or the current one does not finish its batch within the termination wait, the current one stays.
+     * <p>
+     * The engine options, the sink types and the decorators are not reloaded.
+     *
+     * @return the names of the replaced sinks
+     */
+    public synchronized List<String> reloadSinks() {
+        if (reloadableSinks.isEmpty()) {
+            throw new DebeziumException("Sink reload is not enabled, set '" + PROP_RELOAD_ENABLED + "' to true");
+        }
+        final Config config = ConfigProvider.getConfig();
+        final Set<String> changed = ReloadableConfigSource.reload(
+                Paths.get(config.getOptionalValue(PROP_RELOAD_FILE, String.class).orElse(DEFAULT_RELOAD_FILE)), config);
+        final Duration terminationWait = Duration.ofSeconds(config.getOptionalValue(PROP_TERMINATION_WAIT, Integer.class).orElse(10));
+
+        final List<String> reloaded = new ArrayList<>();
+        for (Map.Entry<String, ReloadableChangeConsumer> sink : reloadableSinks.entrySet()) {
+            final String prefix = PROP_SINK_PREFIX + sink.getKey() + ".";
+            if (changed.removeIf(option -> option.startsWith(prefix))) {
+                final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> replacement = createConsumer(sink.getKey());
+                final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> replaced;
+                try {
+                    replaced = sink.getValue().swap(replacement, terminationWait);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    consumerDestroyers.remove(replacement).run();
+                    throw new DebeziumException("Interrupted while reloading sink '" + sink.getKey() + "'", e);
+                }
+                catch (RuntimeException e) {
+                    consumerDestroyers.remove(replacement).run();
+                    throw e;
+                }
+                bindMetrics(sink.getKey(), replacement);
+                if (consumer == replaced) {
+                    consumer = replacement;
+                }
+                consumerDestroyers.remove(replaced).run();
+                reloaded.add(sink.getKey());
+            }
+        }
+        if (!changed.isEmpty()) {
+            LOGGER.warn("Changed options {} are not reloaded, they take effect after restart", changed);
+        }
+        LOGGER.info("Reloaded sink(s) {}", reloaded);
+        return reloaded;
+    }
+
+    public boolean isSinkReloadEnabled() {
+        return !reloadableSinks.isEmpty();
+    }
+
+    /**
+     * Wraps the consumer so that the latency from the source commit to the acknowledgement by the sink is measured, if
+     * enabled via {@code debezium.sink.latency.enabled}, and the sink calls are traced, if enabled via
+     * {@code debezium.sink.tracing.enabled}. The spans are reported to the OpenTelemetry instance registered globally,
+     * e.g. by the OpenTelemetry Java agent.
+     */
+    private DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> withLatency(Config config, String name,
+                                                                                   DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer) {
+        final boolean latencyEnabled = config.getOptionalValue(PROP_LATENCY_ENABLED, Boolean.class).orElse(false);
+        final boolean tracingEnabled = config.getOptionalValue(PROP_TRACING_ENABLED, Boolean.class).orElse(false);
+        if (!latencyEnabled && !tracingEnabled) {
+            return consumer;
+        }
+        final EndToEndLatencyChangeConsumer measured = new EndToEndLatencyChangeConsumer(name, consumer,
+                latencyEnabled ? meterRegistry : null,
+                config.getOptionalValue(PROP_LATENCY_HEADER, String.class).orElse(null),
+                tracingEnabled ? GlobalOpenTelemetry.getTracer("io.debezium.server") : null);
+        LOGGER.info("Measuring the end-to-end latency of sink '{}': {}, tracing its batches: {}", name, latencyEnabled, tracingEnabled);
+        return measured;
+    }
+
+    /**
+     * Wraps the consumer so that only the last record per destination and key of each batch is handed to the sink, if
+     * enabled via {@code debezium.sink.<name>.compaction.enabled}.
+     */
+    private DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> withCompaction(Config config, String name,
+                                                                                      DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer) {
+        if (!config.getOptionalValue(PROP_SINK_PREFIX + name + "." + PROP_COMPACTION_ENABLED, Boolean.class).orElse(false)) {
+            return consumer;
+        }
+        LOGGER.info("Compacting the batches handed to sink '{}' by key", name);
+        return new CompactingChangeConsumer(name, consumer);
+    }
+
+    /**
+     * Wraps the consumer so that the record values are compressed before they are handed to the sink, if enabled via
+     * {@code debezium.sink.<name>.compression.codec}.
+     */
+    private DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> withCompression(Config config, String name,
+                                                                                       DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer) {
+        final String prefix = PROP_SINK_PREFIX + name + ".";
+        final PayloadCompressor.Codec codec = PayloadCompressor.Codec.parse(config.getOptionalValue(prefix + PROP_COMPRESSION_CODEC, String.class)
+                .orElse(PayloadCompressor.Codec.NONE.value()));
+        if (codec == PayloadCompressor.Codec.NONE) {
+            return consumer;
+        }
+        LOGGER.info("Compressing the values sent by sink '{}' with {}", name, codec.value());
+        final PayloadCompressor compressor = new PayloadCompressor(codec,
+                config.getOptionalValue(prefix + PROP_COMPRESSION_LEVEL, Integer.class).orElse(-1),
+                config.getOptionalValue(prefix + PROP_COMPRESSION_DICTIONARY_DIRECTORY, String.class).map(Paths::get).orElse(null));
+        return new CompressingChangeConsumer(consumer, compressor,
+                config.getOptionalValue(prefix + PROP_COMPRESSION_MIN_SIZE, Integer.class).orElse(DEFAULT_COMPRESSION_MIN_SIZE));
+    }
+
+    /**
+     * Wraps the consumer so that the batches are handed to the sink at most at the rates set by the
+     * {@code debezium.sink.<name>.rate.limit.*} options, if any is set.
+     */
+    private DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> withRateLimit(Config config, String name,
+                                                                                     DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer) {
+        final String prefix = PROP_SINK_PREFIX + name + ".";
+        final long recordsPerSecond = config.getOptionalValue(prefix + PROP_RATE_LIMIT_RECORDS, Long.class).orElse(0L);
+        final long bytesPerSecond = config.getOptionalValue(prefix + PROP_RATE_LIMIT_BYTES, Long.class).orElse(0L);
+        final long destinationRecordsPerSecond = config.getOptionalValue(prefix + PROP_RATE_LIMIT_DESTINATION_RECORDS, Long.class).orElse(0L);
+        final long destinationBytesPerSecond = config.getOptionalValue(prefix + PROP_RATE_LIMIT_DESTINATION_BYTES, Long.class).orElse(0L);
+        if (recordsPerSecond <= 0 && bytesPerSecond <= 0 && destinationRecordsPerSecond <= 0 && destinationBytesPerSecond <= 0) {
+            return consumer;
+        }
+        LOGGER.info("Limiting the rate of sink '{}' to {} records/s and {} bytes/s, per destination to {} records/s and {} bytes/s (0 is unlimited)", name,
+                recordsPerSecond, bytesPerSecond, destinationRecordsPerSecond, destinationBytesPerSecond);
+        final RateLimitingChangeConsumer rateLimited = new RateLimitingChangeConsumer(name, consumer, recordsPerSecond, bytesPerSecond,
+                destinationRecordsPerSecond, destinationBytesPerSecond);
+        if (config.getOptionalValue(PROP_METRICS_ENABLED, Boolean.class).orElse(true)) {
+            rateLimited.bindTo(meterRegistry);
+        }
+        return rateLimited;
+    }
+
+    /**
+     * Wraps the consumer so that values larger than {@code debezium.sink.<name>.claimcheck.threshold.bytes} are offloaded
+     * to the blob store named by {@code debezium.sink.<name>.claimcheck.store}, if the threshold is set.
+     */
+    private DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> withClaimCheck(Config config, String name,
+                                                                                      DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer) {
+        final String prefix = PROP_SINK_PREFIX + name + ".";
+        final Optional<Integer> threshold = config.getOptionalValue(prefix + PROP_CLAIM_CHECK_THRESHOLD, Integer.class);
+        if (threshold.isEmpty()) {
+            return consumer;
+        }
+        final String storeName = config.getOptionalValue(prefix + PROP_CLAIM_CHECK_STORE, String.class).orElse(DEFAULT_CLAIM_CHECK_STORE);
+        final BlobStore store = createBlobStore(storeName);
+        final Map<String, String> storeConfig = new HashMap<>();
+        final String storePrefix = prefix + PROP_CLAIM_CHECK_STORE_PREFIX;
+        for (String propertyName : config.getPropertyNames()) {
+            if (propertyName.startsWith(storePrefix)) {
+                storeConfig.put(propertyName.substring(storePrefix.length()), config.getConfigValue(propertyName).getValue());
             }
+        }
+        store.configure(name, storeConfig);
+        LOGGER.info("Offloading the values of sink '{}' larger than {} bytes to blob store '{}'", name, threshold.get(), storeName);
+        return new ClaimCheckChangeConsumer(name, consumer, store, threshold.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private BlobStore createBlobStore(String name) {
+        final Set<Bean<?>> beans = beanManager.getBeans(name).stream()
+                .filter(x -> BlobStore.class.isAssignableFrom(x.getBeanClass()))
+                .collect(Collectors.toSet());
+        if (beans.size() != 1) {
+            throw new DebeziumException(beans.isEmpty() ? "No blob store named '" + name + "' is available" : "Multiple blob stores named '" + name + "' were found");
+        }
+        final Bean<BlobStore> storeBean = (Bean<BlobStore>) beans.iterator().next();
+        final CreationalContext<BlobStore> storeBeanCreationalContext = beanManager.createCreationalContext(storeBean);
+        final BlobStore store = storeBean.create(storeBeanCreationalContext);
+        blobStoreDestroyers.add(() -> {
+            store.close();
+            storeBean.destroy(store, storeBeanCreationalContext);
         });
-        LOGGER.info("Engine executor started");
+        return store;
+    }
+
+    /**
+     * Wraps the consumer so that records the sink fails to deliver are moved to a dead-letter queue, if enabled via
+     * {@code debezium.sink.dlq.enabled}.
+     */
+    private DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> withDeadLetterQueue(Config config, String name,
+                                                                                           DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer) {
+        if (!config.getOptionalValue(PROP_DLQ_ENABLED, Boolean.class).orElse(false)) {
+            return consumer;
+        }
+        final DeadLetterQueue deadLetterQueue = new DeadLetterQueue(
+                Paths.get(config.getOptionalValue(PROP_DLQ_DIRECTORY, String.class).orElse(DEFAULT_DLQ_DIRECTORY), name),
+                config.getOptionalValue(PROP_DLQ_SEGMENT_SIZE, Long.class).orElse(DEFAULT_DLQ_SEGMENT_SIZE),
+                config.getOptionalValue(PROP_DLQ_MAX_SEGMENTS, Integer.class).orElse(DEFAULT_DLQ_MAX_SEGMENTS),
+                config.getOptionalValue(PROP_DLQ_DELETE_OLDEST, Boolean.class).orElse(false));
+        deadLetterQueues.add(deadLetterQueue);
+        return new DeadLetterChangeConsumer(name, consumer, deadLetterQueue,
+                config.getOptionalValue(PROP_DLQ_DESTINATION, String.class).orElse(null),
+                config.getOptionalValue(PROP_DLQ_MAX_CONSECUTIVE_FAILURES, Integer.class).orElse(DEFAULT_DLQ_MAX_CONSECUTIVE_FAILURES));
     }
 
     private void configToProperties(Config config, Properties props, String oldPrefix, String newPrefix, boolean overwrite) {
@@ -232,14 +690,62 @@ public void stop(@Observes ShutdownEvent event) {
         try {
             LOGGER.info("Received request to stop the engine");
             final Config config = ConfigProvider.getConfig();
-            engine.close();
-            executor.shutdown();
-            executor.awaitTermination(config.getOptionalValue(PROP_TERMINATION_WAIT, Integer.class).orElse(10), TimeUnit.SECONDS);
+            final Duration terminationWait = Duration.ofSeconds(config.getOptionalValue(PROP_TERMINATION_WAIT, Integer.class).orElse(10));
+            drain(terminationWait);
+            for (DebeziumEngine<?> engine : engines) {
+                engine.close();
+            }
+            if (executor != null) {
+                executor.shutdown();
+                executor.awaitTermination(terminationWait.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            for (PipelinedChangeConsumer pipelinedConsumer : pipelinedConsumers) {
+                pipelinedConsumer.close(terminationWait);
+            }
+            batchingConsumers.forEach(AdaptiveBatchingChangeConsumer::close);
+            for (SpillingChangeConsumer spillingConsumer : spillingConsumers) {
+                spillingConsumer.close();
+            }
         }
         catch (Exception e) {
             LOGGER.error("Exception while shuttting down Debezium", e);
         }
-        consumerBean.destroy(consumer, consumerBeanCreationalContext);
+        if (fanOut != null) {
+            fanOut.close();
+        }
+        deadLetterQueues.forEach(DeadLetterQueue::close);
+        blobStoreDestroyers.forEach(Runnable::run);
+        synchronized (this) {
+            // Destroy the consumers in the reverse order of their creation
+            final List<Runnable> destroyers = new ArrayList<>(consumerDestroyers.values());
+            Collections.reverse(destroyers);
+            destroyers.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Stops the intake of new batches and waits, within the termination wait in total, until the records accepted so far
+     * are delivered and acknowledged, in the order of the consumer chain. The engines commit the offsets of the
+     * acknowledged records when they are stopped.
+     */
+    private void drain(Duration terminationWait) throws InterruptedException {
+        final long deadline = System.nanoTime() + terminationWait.toNanos();
+        final List<Drainable> drainables = new ArrayList<>(drainGates);
+        drainables.addAll(pipelinedConsumers);
+        drainables.addAll(batchingConsumers);
+        drainables.addAll(spillingConsumers);
+        drainables.addAll(drainableSinks);
+
+        boolean drained = true;
+        for (Drainable drainable : drainables) {
+            drained &= drainable.drain(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+        }
+        if (drained) {
+            LOGGER.info("All accepted records were delivered, committing the final offsets");
+        }
+        else {
+            LOGGER.warn("Not all accepted records were delivered within {}, they will be redelivered after restart", terminationWait);
+        }
     }
 
     void connectorCompleted(@Observes ConnectorCompletedEvent event) {
@@ -271,6 +777,9 @@ DebeziumEngine.ChangeConsumer<?> getConsumer() {
         return consumer;
     }
 
+    /**
+     * @return the engine properties; with named pipelines only the properties shared by all of them
+     */
     public Properties getProps() {
         return props;
     }
@@ -0,0 +1,84 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+
+/**
+ * The first consumer of the chain of an engine, stopping the intake of new batches on shutdown. Once the gate is
+ * drained, the batches handed over by the engine until it stops are neither delivered nor acknowledged, so the
+ * connector delivers them again after the restart.
+ */
+class DrainGate implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>, Drainable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DrainGate.class);
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final String name;
+    private final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate;
+    private final AtomicInteger active = new AtomicInteger();
+    private volatile boolean open = true;
+
+    DrainGate(String name, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate) {
+        this.name = name;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        active.incrementAndGet();
+        try {
+            if (open) {
+                delegate.handleBatch(records, committer);
+                return;
+            }
+        }
+        finally {
+            active.decrementAndGet();
+        }
+        LOGGER.debug("Engine '{}' is draining, {} record(s) will be redelivered after restart", name, records.size());
+        // Do not spin while the engine is polling until it is stopped
+        Thread.sleep(POLL_INTERVAL_MS);
+    }
+
+    /**
+     * Stops the intake and waits until the batch being handed over, if any, was accepted by the rest of the chain.
+     */
+    @Override
+    public boolean drain(Duration timeout) throws InterruptedException {
+        open = false;
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        while (active.get() > 0) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean supportsTombstoneEvents() {
+        return delegate.supportsTombstoneEvents();
+    }
+
+    @Override
+    public String toString() {
+        return "DrainGate [" + name + "] " + delegate;
+    }
+}
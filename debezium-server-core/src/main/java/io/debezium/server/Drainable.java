@@ -0,0 +1,24 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.time.Duration;
+
+/**
+ * A consumer that can hold records it accepted but has not delivered or acknowledged yet, e.g. records queued for a
+ * background thread or sent asynchronously. On shutdown, the server stops handing over new batches and drains such
+ * consumers in the order of the consumer chain before it stops the engines. The records they acknowledge while
+ * draining are then covered by the final offset commit, so they are not delivered again after the restart.
+ */
+public interface Drainable {
+
+    /**
+     * Delivers and acknowledges the records accepted so far, waiting at most for the given time.
+     *
+     * @return {@code true} if all accepted records were acknowledged, {@code false} if the time elapsed first
+     */
+    boolean drain(Duration timeout) throws InterruptedException;
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+
+/**
+ * A consumer decorator that measures the end-to-end latency of the records, from the commit in the source database to
+ * the acknowledgement by the sink, as the histogram {@code debezium.sink.end.to.end.latency} tagged with the sink and the
+ * destination. The commit time is taken from the record as described in {@link SourceTimestamps}; records without it,
+ * e.g. tombstones, are not measured. Clock differences between the database and the server are not compensated,
+ * negative latencies are recorded as zero.
+ * <p>
+ * The latency is only measured if a registry is given. If a tracer is given, every {@code handleBatch} call of the sink
+ * is wrapped in a span, so the spans of the sink clients are nested in it.
+ */
+public class EndToEndLatencyChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> {
+
+    private static final String TAG_SINK = "sink";
+    private static final String TAG_DESTINATION = "destination";
+
+    private final String sinkName;
+    private final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate;
+    private final MeterRegistry registry;
+    private final String headerName;
+    private final Tracer tracer;
+    private final Map<String, Timer> latencies = new ConcurrentHashMap<>();
+
+    public EndToEndLatencyChangeConsumer(String sinkName, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate, MeterRegistry registry,
+                                         String headerName, Tracer tracer) {
+        this.sinkName = sinkName;
+        this.delegate = delegate;
+        this.registry = registry;
+        this.headerName = headerName;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        // Written before the batch is handed to the sink and only read afterwards, so the sink may acknowledge from any thread
+        final Map<ChangeEvent<Object, Object>, Long> timestamps = new IdentityHashMap<>();
+        if (registry != null) {
+            for (ChangeEvent<Object, Object> record : records) {
+                final long timestamp = SourceTimestamps.extract(record, headerName);
+                if (timestamp != SourceTimestamps.UNKNOWN) {
+                    timestamps.put(record, timestamp);
+                }
+            }
+        }
+        final RecordCommitter<ChangeEvent<Object, Object>> measuringCommitter = timestamps.isEmpty() ? committer : new LatencyCommitter(committer, timestamps);
+        if (tracer == null) {
+            delegate.handleBatch(records, measuringCommitter);
+            return;
+        }
+
+        final Span span = tracer.spanBuilder("debezium.sink.handleBatch")
+                .setAttribute("debezium.sink", sinkName)
+                .setAttribute("debezium.batch.size", records.size())
+                .startSpan();
+        try (Scope scope = span.makeCurrent()) {
+            delegate.handleBatch(records, measuringCommitter);
+        }
+        catch (InterruptedException | RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        }
+        finally {
+            span.end();
+        }
+    }
+
+    @Override
+    public boolean supportsTombstoneEvents() {
+        return delegate.supportsTombstoneEvents();
+    }
+
+    private void observe(ChangeEvent<Object, Object> record, long timestamp) {
+        final String destination = record.destination() == null ? "" : record.destination();
+        latencies.computeIfAbsent(destination, x -> Timer.builder("debezium.sink.end.to.end.latency")
+                .description("Time from the commit in the source database to the acknowledgement by the sink")
+                .tag(TAG_SINK, sinkName)
+                .tag(TAG_DESTINATION, destination)
+                .publishPercentileHistogram()
+                .register(registry))
+                .record(Math.max(0, System.currentTimeMillis() - timestamp), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "EndToEndLatencyChangeConsumer [" + sinkName + "] " + delegate;
+    }
+
+    /**
+     * Records the latency of every record when the sink acknowledges it.
+     */
+    private class LatencyCommitter implements RecordCommitter<ChangeEvent<Object, Object>> {
+
+        private final RecordCommitter<ChangeEvent<Object, Object>> committer;
+        private final Map<ChangeEvent<Object, Object>, Long> timestamps;
+
+        LatencyCommitter(RecordCommitter<ChangeEvent<Object, Object>> committer, Map<ChangeEvent<Object, Object>, Long> timestamps) {
+            this.committer = committer;
+            this.timestamps = timestamps;
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record) throws InterruptedException {
+            committer.markProcessed(record);
+            recordLatency(record);
+        }
+
+        @Override
+        public void markBatchFinished() throws InterruptedException {
+            committer.markBatchFinished();
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record, DebeziumEngine.Offsets sourceOffsets) throws InterruptedException {
+            committer.markProcessed(record, sourceOffsets);
+            recordLatency(record);
+        }
+
+        @Override
+        public DebeziumEngine.Offsets buildOffsets() {
+            return committer.buildOffsets();
+        }
+
+        private void recordLatency(ChangeEvent<Object, Object> record) {
+            final Long timestamp = timestamps.get(record);
+            if (timestamp != null) {
+                observe(record, timestamp);
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+
+/**
+ * A consumer that delivers every batch to several sinks concurrently. A record is marked as processed only when all of
+ * the sinks it was delivered to have acknowledged it, and the records are marked in the order of the engine, also across
+ * batches, so the offsets are never committed ahead of the slowest sink. Sinks acknowledging their sends asynchronously
+ * may acknowledge a record after their {@code handleBatch} returned, such a record is then marked processed by the
+ * acknowledging thread and flushed with a later batch. The batch is finished when all of the sinks have successfully
+ * handled it.
+ * <p>
+ * Tombstones are passed only to the sinks that support them. Source offsets passed by a sink via
+ * {@link RecordCommitter#markProcessed(Object, DebeziumEngine.Offsets)} are not propagated.
+ */
+public class FanOutChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FanOutChangeConsumer.class);
+
+    private final Map<String, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>> consumers;
+    private final ExecutorService executor;
+    // Guarded by itself, the records not acknowledged by all of their sinks yet in the order of the engine
+    private final Deque<Pending> pending = new ArrayDeque<>();
+
+    public FanOutChangeConsumer(Map<String, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>> consumers) {
+        if (consumers.isEmpty()) {
+            throw new DebeziumException("At least one consumer is required");
+        }
+        this.consumers = new LinkedHashMap<>(consumers);
+        this.executor = ServerThreads.newExecutor("debezium-sink-fanout", consumers.size());
+        LOGGER.info("Delivering batches to consumers {}", consumers.keySet());
+    }
+
+    @Override
+    public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        final Object batch = new Object();
+        final Map<ChangeEvent<Object, Object>, Pending> batchRecords = new IdentityHashMap<>(records.size());
+        final List<Pending> batchPending = new ArrayList<>(records.size());
+        for (ChangeEvent<Object, Object> record : records) {
+            final int sinks = (int) consumers.values().stream()
+                    .filter(consumer -> record.value() != null || consumer.supportsTombstoneEvents())
+                    .count();
+            final Pending entry = new Pending(batch, record, committer, sinks);
+            batchRecords.put(record, entry);
+            batchPending.add(entry);
+        }
+        synchronized (pending) {
+            pending.addAll(batchPending);
+        }
+
+        final Map<String, Future<?>> deliveries = new LinkedHashMap<>();
+        for (Map.Entry<String, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>> entry : consumers.entrySet()) {
+            final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> consumer = entry.getValue();
+            final List<ChangeEvent<Object, Object>> consumerRecords = consumer.supportsTombstoneEvents() ? records
+                    : records.stream().filter(record -> record.value() != null).collect(Collectors.toList());
+            deliveries.put(entry.getKey(), executor.submit(() -> {
+                consumer.handleBatch(consumerRecords, new AcknowledgingCommitter(committer, batchRecords));
+                return null;
+            }));
+        }
+
+        DebeziumException failure = null;
+        try {
+            for (Map.Entry<String, Future<?>> delivery : deliveries.entrySet()) {
+                try {
+                    delivery.getValue().get();
+                }
+                catch (ExecutionException e) {
+                    LOGGER.error("Consumer '{}' failed to handle the batch", delivery.getKey(), e.getCause());
+                    if (failure == null) {
+                        failure = new DebeziumException("Consumer '" + delivery.getKey() + "' failed to handle the batch", e.getCause());
+                    }
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            deliveries.values().forEach(delivery -> delivery.cancel(true));
+            discard(batch);
+            throw e;
+        }
+        if (failure != null) {
+            discard(batch);
+            throw failure;
+        }
+
+        commitAcknowledged();
+        committer.markBatchFinished();
+    }
+
+    private void commitAcknowledged() throws InterruptedException {
+        synchronized (pending) {
+            while (!pending.isEmpty() && pending.peek().remaining.get() == 0) {
+                final Pending entry = pending.poll();
+                entry.committer.markProcessed(entry.record);
+            }
+        }
+    }
+
+    /**
+     * Forgets the records of a failed batch so that a redelivery of the batch starts with clean acknowledgements.
+     */
+    private void discard(Object batch) {
+        synchronized (pending) {
+            pending.removeIf(entry -> entry.batch == batch);
+        }
+    }
+
+    /**
+     * @return the number of records delivered and not acknowledged by all of their sinks yet
+     */
+    int inFlight() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    @Override
+    public boolean supportsTombstoneEvents() {
+        return consumers.values().stream().anyMatch(DebeziumEngine.ChangeConsumer::supportsTombstoneEvents);
+    }
+
+    public Map<String, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>> getConsumers() {
+        return consumers;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FanOutChangeConsumer " + consumers.keySet();
+    }
+
+    private static class Pending {
+
+        private final Object batch;
+        private final ChangeEvent<Object, Object> record;
+        private final RecordCommitter<ChangeEvent<Object, Object>> committer;
+        private final AtomicInteger remaining;
+
+        Pending(Object batch, ChangeEvent<Object, Object> record, RecordCommitter<ChangeEvent<Object, Object>> committer, int sinks) {
+            this.batch = batch;
+            this.record = record;
+            this.committer = committer;
+            this.remaining = new AtomicInteger(sinks);
+        }
+    }
+
+    /**
+     * The committer handed to an individual sink. It counts the acknowledgements of the sink, the records are marked
+     * processed by the fan-out consumer once all sinks have acknowledged them, so only the offsets builder is passed
+     * through.
+     */
+    private class AcknowledgingCommitter implements RecordCommitter<ChangeEvent<Object, Object>> {
+
+        private final RecordCommitter<ChangeEvent<Object, Object>> committer;
+        private final Map<ChangeEvent<Object, Object>, Pending> batchRecords;
+        private final Set<ChangeEvent<Object, Object>> acknowledged = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        AcknowledgingCommitter(RecordCommitter<ChangeEvent<Object, Object>> committer, Map<ChangeEvent<Object, Object>, Pending> batchRecords) {
+            this.committer = committer;
+            this.batchRecords = batchRecords;
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record) throws InterruptedException {
+            final Pending entry = batchRecords.get(record);
+            if (entry == null) {
+                LOGGER.debug("Ignoring acknowledgement of a record not delivered by the fan-out consumer");
+                return;
+            }
+            // A sink acknowledging the same record twice must not stand in for another sink
+            if (acknowledged.add(record) && entry.remaining.decrementAndGet() == 0) {
+                commitAcknowledged();
+            }
+        }
+
+        @Override
+        public void markBatchFinished() {
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record, DebeziumEngine.Offsets sourceOffsets) throws InterruptedException {
+            markProcessed(record);
+        }
+
+        @Override
+        public DebeziumEngine.Offsets buildOffsets() {
+            return committer.buildOffsets();
+        }
+    }
+}
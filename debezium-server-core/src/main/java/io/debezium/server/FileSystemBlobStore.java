@@ -0,0 +1,96 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Named;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.DebeziumException;
+
+/**
+ * Stores the offloaded payloads as files in a local directory, {@code data/claimcheck/<sink>} unless set by the
+ * {@code directory} option. The files are grouped in subdirectories by the first two characters of their hash and are
+ * referenced by their {@code file:} URI, so the consumers of the sink need access to the same file system, e.g. a
+ * shared volume.
+ * <p>
+ * Every payload is forced to disk and then moved to its final name, so a reference never points to a partial file.
+ * The files are not removed by the server.
+ */
+@Named("filesystem")
+@Dependent
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemBlobStore.class);
+
+    private static final String PROP_DIRECTORY = "directory";
+    private static final String DEFAULT_DIRECTORY = "data/claimcheck";
+
+    private Path directory;
+
+    @Override
+    public void configure(String sinkName, Map<String, String> config) {
+        final String configured = config.get(PROP_DIRECTORY);
+        directory = (configured != null ? Paths.get(configured) : Paths.get(DEFAULT_DIRECTORY, sinkName)).toAbsolutePath();
+        try {
+            Files.createDirectories(directory);
+        }
+        catch (IOException e) {
+            throw new DebeziumException("Failed to create the claim check directory " + directory, e);
+        }
+        LOGGER.info("Storing the claim check payloads of sink '{}' in {}", sinkName, directory);
+    }
+
+    @Override
+    public String put(String destination, String hash, byte[] payload) throws IOException {
+        final Path file = directory.resolve(hash.substring(0, 2)).resolve(hash);
+        if (!Files.exists(file)) {
+            Files.createDirectories(file.getParent());
+            final Path temporary = Files.createTempFile(file.getParent(), hash, ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                    final ByteBuffer buffer = ByteBuffer.wrap(payload);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                }
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            finally {
+                Files.deleteIfExists(temporary);
+            }
+        }
+        return file.toUri().toString();
+    }
+
+    @Override
+    public byte[] get(String reference) throws IOException {
+        return Files.readAllBytes(Paths.get(URI.create(reference)));
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+        return "FileSystemBlobStore [" + directory + "]";
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caches the sink-specific form of record headers, e.g. upper-cased keys or Base64 encoded values, so that repeated
+ * headers are not normalized and encoded again for every record.
+ * <p>
+ * Header keys are cached by their name. For the values, the last value seen for every header key of a destination is
+ * remembered together with its encoded form. Values that repeat from record to record, like the operation or the source
+ * table, are therefore encoded once, while values unique to every record only cost a comparison with the previous one.
+ * <p>
+ * The encoded values may be shared by several records, so they must not be modified by the sink. The instances are
+ * thread-safe.
+ *
+ * @param <V> the type of the encoded header values
+ */
+public class HeaderEncodingCache<V> {
+
+    private static final int MAX_ENTRIES = 1024;
+
+    private final UnaryOperator<String> keyEncoder;
+    private final Function<Object, V> valueEncoder;
+    private final Map<String, String> keys = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, EncodedValue<V>>> values = new ConcurrentHashMap<>();
+
+    public HeaderEncodingCache(UnaryOperator<String> keyEncoder, Function<Object, V> valueEncoder) {
+        this.keyEncoder = keyEncoder;
+        this.valueEncoder = valueEncoder;
+    }
+
+    /**
+     * @return the encoded form of the header key
+     */
+    public String key(String key) {
+        final String encoded = keys.get(key);
+        if (encoded != null) {
+            return encoded;
+        }
+        return cache(keys, key, keyEncoder.apply(key));
+    }
+
+    /**
+     * @return the encoded form of the header value of a record sent to the given destination
+     */
+    public V value(String destination, String key, Object value) {
+        if (destination == null || key == null) {
+            return valueEncoder.apply(value);
+        }
+        Map<String, EncodedValue<V>> destinationValues = values.get(destination);
+        if (destinationValues == null) {
+            destinationValues = cache(values, destination, new ConcurrentHashMap<>());
+        }
+
+        final EncodedValue<V> last = destinationValues.get(key);
+        if (last != null && last.matches(value)) {
+            return last.encoded;
+        }
+        final V encoded = valueEncoder.apply(value);
+        if (last != null || destinationValues.size() < MAX_ENTRIES) {
+            destinationValues.put(key, new EncodedValue<>(value, encoded));
+        }
+        return encoded;
+    }
+
+    private static <T> T cache(Map<String, T> map, String key, T value) {
+        // The maps are only bounded to protect against unexpected cardinality, entries are never evicted
+        if (map.size() >= MAX_ENTRIES) {
+            return value;
+        }
+        final T previous = map.putIfAbsent(key, value);
+        return previous != null ? previous : value;
+    }
+
+    private static class EncodedValue<V> {
+
+        private final Object value;
+        private final V encoded;
+
+        EncodedValue(Object value, V encoded) {
+            this.value = value;
+            this.encoded = encoded;
+        }
+
+        boolean matches(Object other) {
+            if (value instanceof byte[] && other instanceof byte[]) {
+                return Arrays.equals((byte[]) value, (byte[]) other);
+            }
+            return Objects.equals(value, other);
+        }
+    }
+}
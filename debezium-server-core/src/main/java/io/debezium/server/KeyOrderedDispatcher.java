@@ -0,0 +1,122 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+
+/**
+ * Delivers a batch of records over a fixed number of lanes. Records are assigned to a lane by the hash of their key
+ * so that all records with the same key are delivered by the same lane in the order of the batch, while the lanes
+ * themselves run concurrently.
+ */
+class KeyOrderedDispatcher implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyOrderedDispatcher.class);
+
+    private final int lanes;
+    private final ExecutorService executor;
+
+    KeyOrderedDispatcher(String name, int lanes) {
+        this.lanes = lanes;
+        this.executor = ServerThreads.newExecutor("debezium-" + name + "-lane", lanes);
+        LOGGER.info("Dispatching records of sink '{}' over {} key-ordered lanes", name, lanes);
+    }
+
+    /**
+     * Delivers all records and returns once every lane has drained.
+     *
+     * @throws DebeziumException if the delivery failed for any of the lanes; the remaining lanes are still drained
+     */
+    void dispatch(List<ChangeEvent<Object, Object>> records, BaseChangeConsumer.RecordDelivery delivery) throws InterruptedException {
+        final List<Future<?>> futures = new ArrayList<>(lanes);
+        for (List<ChangeEvent<Object, Object>> lane : partition(records)) {
+            if (!lane.isEmpty()) {
+                futures.add(executor.submit(() -> {
+                    for (ChangeEvent<Object, Object> record : lane) {
+                        delivery.deliver(record);
+                    }
+                    return null;
+                }));
+            }
+        }
+
+        Throwable failure = null;
+        try {
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                }
+                catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+
+        if (failure instanceof InterruptedException) {
+            throw (InterruptedException) failure;
+        }
+        else if (failure instanceof DebeziumException) {
+            throw (DebeziumException) failure;
+        }
+        else if (failure != null) {
+            throw new DebeziumException(failure);
+        }
+    }
+
+    private List<List<ChangeEvent<Object, Object>>> partition(List<ChangeEvent<Object, Object>> records) {
+        final List<List<ChangeEvent<Object, Object>>> partitions = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            partitions.add(new ArrayList<>(records.size() / lanes + 1));
+        }
+        for (ChangeEvent<Object, Object> record : records) {
+            partitions.get(lane(record.key())).add(record);
+        }
+        return partitions;
+    }
+
+    int lane(Object key) {
+        final int hash;
+        if (key == null) {
+            hash = 0;
+        }
+        else if (key instanceof byte[]) {
+            hash = Arrays.hashCode((byte[]) key);
+        }
+        else {
+            hash = key.hashCode();
+        }
+        return Math.floorMod(hash, lanes);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * A consumer decorator that measures the sink side of the server. The following meters are registered, all of them
+ * tagged with the name of the sink:
+ * <ul>
+ * <li>{@code debezium.sink.records} - records successfully handled, tagged with the destination</li>
+ * <li>{@code debezium.sink.bytes} - approximate key/value bytes successfully handled, tagged with the destination; only
+ * registered when byte counting is enabled as it has to look at every key and value</li>
+ * <li>{@code debezium.sink.retries} - failed delivery attempts reported by the sink, tagged with the destination</li>
+ * <li>{@code debezium.sink.batch.duration} - histogram of the {@code handleBatch} latency</li>
+ * <li>{@code debezium.sink.records.in.flight} - records handed to the sink that were not marked as processed yet</li>
+ * </ul>
+ * A {@link Drainable} sink may acknowledge records after {@code handleBatch} returned, its unacknowledged records stay
+ * in flight until they are acknowledged or the sink is drained. For other sinks the records not acknowledged when
+ * {@code handleBatch} returns, e.g. filtered ones, are no longer in flight either.
+ */
+public class MeteredChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>, Drainable {
+
+    private static final String TAG_SINK = "sink";
+    private static final String TAG_DESTINATION = "destination";
+
+    private final String sinkName;
+    private final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate;
+    private final MeterRegistry registry;
+    private final boolean countBytes;
+    private final Timer batchDuration;
+    private final AtomicLong inFlight = new AtomicLong();
+    // Batches of a sink acknowledging asynchronously with records still in flight
+    private final Set<InFlightCommitter> unsettled = ConcurrentHashMap.newKeySet();
+    private final Map<String, DestinationMeters> destinations = new ConcurrentHashMap<>();
+
+    public MeteredChangeConsumer(String sinkName, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate, MeterRegistry registry) {
+        this(sinkName, delegate, registry, false);
+    }
+
+    /**
+     * @param countBytes whether the {@code debezium.sink.bytes} counter is registered
+     */
+    public MeteredChangeConsumer(String sinkName, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate, MeterRegistry registry,
+                                 boolean countBytes) {
+        this.sinkName = sinkName;
+        this.delegate = delegate;
+        this.registry = registry;
+        this.countBytes = countBytes;
+        this.batchDuration = Timer.builder("debezium.sink.batch.duration")
+                .description("Time spent by the sink handling a batch")
+                .tag(TAG_SINK, sinkName)
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("debezium.sink.records.in.flight", inFlight, AtomicLong::get)
+                .description("Records handed to the sink and not yet marked as processed")
+                .tag(TAG_SINK, sinkName)
+                .register(registry);
+    }
+
+    @Override
+    public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        // Aggregate per batch so that the meters are touched once per destination instead of once per record
+        final Map<String, long[]> totals = new HashMap<>();
+        for (ChangeEvent<Object, Object> record : records) {
+            final long[] total = totals.computeIfAbsent(record.destination(), x -> new long[2]);
+            total[0]++;
+            if (countBytes) {
+                total[1] += sizeOf(record.key()) + sizeOf(record.value());
+            }
+        }
+
+        final InFlightCommitter inFlightCommitter = new InFlightCommitter(committer, records.size());
+        inFlight.addAndGet(records.size());
+        final long start = System.nanoTime();
+        try {
+            delegate.handleBatch(records, inFlightCommitter);
+            totals.forEach((destination, total) -> {
+                final DestinationMeters meters = meters(destination);
+                meters.records.increment(total[0]);
+                if (meters.bytes != null) {
+                    meters.bytes.increment(total[1]);
+                }
+            });
+        }
+        finally {
+            batchDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (acknowledgesAsynchronously()) {
+                unsettled.add(inFlightCommitter);
+                // The last acknowledgement may have arrived before the batch was registered
+                if (inFlightCommitter.outstanding.get() == 0) {
+                    unsettled.remove(inFlightCommitter);
+                }
+            }
+            else {
+                inFlightCommitter.settle();
+            }
+        }
+    }
+
+    private boolean acknowledgesAsynchronously() {
+        final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> sink = delegate instanceof ReloadableChangeConsumer
+                ? ((ReloadableChangeConsumer) delegate).getDelegate()
+                : delegate;
+        return sink instanceof Drainable;
+    }
+
+    /**
+     * Drains the sink, the records it did not acknowledge until then are no longer in flight.
+     */
+    @Override
+    public boolean drain(Duration timeout) throws InterruptedException {
+        try {
+            return !(delegate instanceof Drainable) || ((Drainable) delegate).drain(timeout);
+        }
+        finally {
+            for (InFlightCommitter batch : unsettled) {
+                batch.settle();
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsTombstoneEvents() {
+        return delegate.supportsTombstoneEvents();
+    }
+
+    /**
+     * Counts a failed delivery attempt of a record for the given destination that is going to be retried.
+     */
+    public void recordRetry(String destination) {
+        meters(destination).retries.increment();
+    }
+
+    public DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> getDelegate() {
+        return delegate;
+    }
+
+    private DestinationMeters meters(String destination) {
+        return destinations.computeIfAbsent(destination == null ? "" : destination, DestinationMeters::new);
+    }
+
+    /**
+     * Returns the approximate number of bytes the key or value takes when sent. Strings are not encoded, their length
+     * is used instead, which is exact for ASCII text.
+     */
+    static long sizeOf(Object object) {
+        if (object instanceof byte[]) {
+            return ((byte[]) object).length;
+        }
+        else if (object instanceof String) {
+            return ((String) object).length();
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "MeteredChangeConsumer [" + sinkName + "] " + delegate;
+    }
+
+    private class DestinationMeters {
+
+        private final Counter records;
+        private final Counter bytes;
+        private final Counter retries;
+
+        DestinationMeters(String destination) {
+            records = Counter.builder("debezium.sink.records")
+                    .description("Records successfully handled by the sink")
+                    .tags(TAG_SINK, sinkName, TAG_DESTINATION, destination)
+                    .register(registry);
+            bytes = countBytes
+                    ? Counter.builder("debezium.sink.bytes")
+                            .description("Approximate key and value bytes successfully handled by the sink")
+                            .baseUnit("bytes")
+                            .tags(TAG_SINK, sinkName, TAG_DESTINATION, destination)
+                            .register(registry)
+                    : null;
+            retries = Counter.builder("debezium.sink.retries")
+                    .description("Failed delivery attempts that were retried by the sink")
+                    .tags(TAG_SINK, sinkName, TAG_DESTINATION, destination)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Tracks the records acknowledged by the sink so that the in-flight gauge drops as soon as the sink marks a record
+     * as processed, which can happen from other threads than the engine thread. Every record of the batch leaves the
+     * gauge once, either when it is acknowledged or when the batch is settled.
+     */
+    private class InFlightCommitter implements RecordCommitter<ChangeEvent<Object, Object>> {
+
+        private final RecordCommitter<ChangeEvent<Object, Object>> committer;
+        private final AtomicInteger outstanding;
+
+        InFlightCommitter(RecordCommitter<ChangeEvent<Object, Object>> committer, int records) {
+            this.committer = committer;
+            this.outstanding = new AtomicInteger(records);
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record) throws InterruptedException {
+            committer.markProcessed(record);
+            acknowledged();
+        }
+
+        @Override
+        public void markBatchFinished() throws InterruptedException {
+            committer.markBatchFinished();
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record, DebeziumEngine.Offsets sourceOffsets) throws InterruptedException {
+            committer.markProcessed(record, sourceOffsets);
+            acknowledged();
+        }
+
+        @Override
+        public DebeziumEngine.Offsets buildOffsets() {
+            return committer.buildOffsets();
+        }
+
+        private void acknowledged() {
+            // A record acknowledged twice or after the batch was settled is not counted again
+            final int previous = outstanding.getAndUpdate(n -> Math.max(0, n - 1));
+            if (previous > 0) {
+                inFlight.decrementAndGet();
+            }
+            if (previous == 1) {
+                unsettled.remove(this);
+            }
+        }
+
+        private void settle() {
+            inFlight.addAndGet(-outstanding.getAndSet(0));
+            unsettled.remove(this);
+        }
+    }
+}
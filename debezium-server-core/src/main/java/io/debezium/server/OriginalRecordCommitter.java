@@ -0,0 +1,47 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.util.Map;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+
+/**
+ * Acknowledges the original records in place of the replacements a decorator handed to the sink, as the engine only
+ * accepts the records it emitted. Records without a replacement are acknowledged as they are.
+ */
+class OriginalRecordCommitter implements RecordCommitter<ChangeEvent<Object, Object>> {
+
+    private final RecordCommitter<ChangeEvent<Object, Object>> committer;
+    private final Map<ChangeEvent<Object, Object>, ChangeEvent<Object, Object>> originals;
+
+    OriginalRecordCommitter(RecordCommitter<ChangeEvent<Object, Object>> committer, Map<ChangeEvent<Object, Object>, ChangeEvent<Object, Object>> originals) {
+        this.committer = committer;
+        this.originals = originals;
+    }
+
+    @Override
+    public void markProcessed(ChangeEvent<Object, Object> record) throws InterruptedException {
+        committer.markProcessed(originals.getOrDefault(record, record));
+    }
+
+    @Override
+    public void markBatchFinished() throws InterruptedException {
+        committer.markBatchFinished();
+    }
+
+    @Override
+    public void markProcessed(ChangeEvent<Object, Object> record, DebeziumEngine.Offsets sourceOffsets) throws InterruptedException {
+        committer.markProcessed(originals.getOrDefault(record, record), sourceOffsets);
+    }
+
+    @Override
+    public DebeziumEngine.Offsets buildOffsets() {
+        return committer.buildOffsets();
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+
+import io.debezium.DebeziumException;
+
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+/**
+ * Compresses record payloads with one of the supported {@link Codec codecs}. All codecs produce their standard frame
+ * format, which starts with the magic number of the codec, so the payloads can be decompressed by the stock tools and
+ * libraries even where the sink cannot carry the codec name in a header.
+ * <p>
+ * For zstd, a dictionary can be provided per destination as the file {@code <destination>.dict} in the dictionary
+ * directory, e.g. trained with {@code zstd --train} on sample payloads of the destination. Dictionaries considerably
+ * improve the ratio for the small payloads typical for change events; the consumers need the same dictionary, which is
+ * identified by the dictionary id stored in every frame. The instances are thread-safe.
+ */
+public class PayloadCompressor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PayloadCompressor.class);
+
+    private static final String DICTIONARY_SUFFIX = ".dict";
+
+    /**
+     * The supported compression codecs.
+     */
+    public enum Codec {
+        NONE,
+        GZIP,
+        LZ4,
+        ZSTD;
+
+        /**
+         * @return the codec name as used in the configuration and in the codec header
+         */
+        public String value() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Codec parse(String value) {
+            for (Codec codec : values()) {
+                if (codec.value().equalsIgnoreCase(value.trim())) {
+                    return codec;
+                }
+            }
+            throw new DebeziumException("Unknown compression codec '" + value + "', supported are none, gzip, lz4 and zstd");
+        }
+    }
+
+    private final Codec codec;
+    private final int level;
+    private final Path dictionaryDirectory;
+    private final Map<String, Optional<ZstdDictCompress>> dictionaries = new ConcurrentHashMap<>();
+
+    /**
+     * @param level the compression level, or a negative value for the default level of the codec
+     * @param dictionaryDirectory the directory with the zstd dictionaries of the destinations, or {@code null}
+     */
+    public PayloadCompressor(Codec codec, int level, Path dictionaryDirectory) {
+        this.codec = codec;
+        this.level = level;
+        this.dictionaryDirectory = dictionaryDirectory;
+    }
+
+    public Codec codec() {
+        return codec;
+    }
+
+    /**
+     * Compresses the payload that is sent to the given destination.
+     */
+    public byte[] compress(String destination, byte[] payload) {
+        switch (codec) {
+            case NONE:
+                return payload;
+            case GZIP:
+                return compressStream(payload, out -> new GZIPOutputStream(out) {
+                    {
+                        if (level >= 0) {
+                            def.setLevel(level);
+                        }
+                    }
+                });
+            case LZ4:
+                return compressStream(payload, LZ4FrameOutputStream::new);
+            case ZSTD:
+                final int zstdLevel = level >= 0 ? level : Zstd.defaultCompressionLevel();
+                final Optional<ZstdDictCompress> dictionary = dictionary(destination, zstdLevel);
+                return dictionary.isPresent() ? Zstd.compress(payload, dictionary.get()) : Zstd.compress(payload, zstdLevel);
+            default:
+                throw new IllegalStateException("Unsupported codec " + codec);
+        }
+    }
+
+    /**
+     * Decompresses a payload compressed with the given codec.
+     *
+     * @param dictionary the zstd dictionary the payload was compressed with, or {@code null}
+     */
+    public static byte[] decompress(Codec codec, byte[] payload, byte[] dictionary) {
+        switch (codec) {
+            case NONE:
+                return payload;
+            case GZIP:
+                return decompressStream(payload, GZIPInputStream::new);
+            case LZ4:
+                return decompressStream(payload, LZ4FrameInputStream::new);
+            case ZSTD:
+                final int size = (int) Zstd.decompressedSize(payload);
+                if (dictionary == null) {
+                    return Zstd.decompress(payload, size);
+                }
+                try (ZstdDictDecompress decompressDictionary = new ZstdDictDecompress(dictionary)) {
+                    return Zstd.decompress(payload, decompressDictionary, size);
+                }
+            default:
+                throw new IllegalStateException("Unsupported codec " + codec);
+        }
+    }
+
+    private Optional<ZstdDictCompress> dictionary(String destination, int zstdLevel) {
+        if (dictionaryDirectory == null || destination == null) {
+            return Optional.empty();
+        }
+        return dictionaries.computeIfAbsent(destination, x -> {
+            final Path file = dictionaryDirectory.resolve(destination + DICTIONARY_SUFFIX);
+            if (!Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+            try {
+                LOGGER.info("Using zstd dictionary '{}' for destination '{}'", file, destination);
+                return Optional.of(new ZstdDictCompress(Files.readAllBytes(file), zstdLevel));
+            }
+            catch (IOException e) {
+                throw new DebeziumException("Failed to read zstd dictionary '" + file + "'", e);
+            }
+        });
+    }
+
+    private static byte[] compressStream(byte[] payload, StreamWrapper<OutputStream> wrapper) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length / 2 + 64);
+        try (OutputStream out = wrapper.wrap(bytes)) {
+            out.write(payload);
+        }
+        catch (IOException e) {
+            throw new DebeziumException("Failed to compress payload", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] decompressStream(byte[] payload, StreamWrapper<InputStream> wrapper) {
+        try (InputStream in = wrapper.wrap(new ByteArrayInputStream(payload))) {
+            return in.readAllBytes();
+        }
+        catch (IOException e) {
+            throw new DebeziumException("Failed to decompress payload", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StreamWrapper<T> {
+        T wrap(T stream) throws IOException;
+    }
+}
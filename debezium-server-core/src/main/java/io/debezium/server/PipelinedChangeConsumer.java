@@ -0,0 +1,187 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+
+/**
+ * A consumer that decouples the engine thread from the delivery of batches to the sink. The engine thread only
+ * enqueues the batch into a bounded queue and returns to polling the connector while a dedicated sink thread
+ * delivers the queued batches one after another to the wrapped consumer.
+ * <p>
+ * The queued batches are delivered in order, so records are still marked as processed in the order they were
+ * produced. Flushing of the offsets is not thread-safe, so the sink thread flushes a finished batch while holding the
+ * lock of the engine committer. The offsets are thus committed also while the source is idle.
+ * A failure of the sink stops the pipeline and is rethrown on the engine thread.
+ */
+public class PipelinedChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>, Drainable, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelinedChangeConsumer.class);
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate;
+    private final BlockingQueue<Batch> queue;
+    private final Thread sinkThread;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    // Batches accepted from the engine and not yet handled by the sink
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean running = true;
+
+    public PipelinedChangeConsumer(DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate, int queueSize) {
+        if (queueSize < 1) {
+            throw new DebeziumException("Pipeline queue size must be positive but is " + queueSize);
+        }
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.sinkThread = ServerThreads.threadFactory("debezium-sink-pipeline").newThread(this::deliver);
+        sinkThread.start();
+        LOGGER.info("Pipelined delivery to consumer '{}' enabled with queue size {}", delegate.getClass().getName(), queueSize);
+    }
+
+    @Override
+    public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        checkFailure();
+
+        final Batch batch = new Batch(records, committer);
+        pending.incrementAndGet();
+        try {
+            while (!queue.offer(batch, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+                if (!running) {
+                    throw new DebeziumException("Sink pipeline is closed");
+                }
+            }
+        }
+        catch (InterruptedException | RuntimeException e) {
+            pending.decrementAndGet();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean supportsTombstoneEvents() {
+        return delegate.supportsTombstoneEvents();
+    }
+
+    /**
+     * Waits until the queued batches are handled by the sink.
+     */
+    @Override
+    public boolean drain(Duration timeout) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        while (pending.get() > 0 && failure.get() == null) {
+            if (System.nanoTime() - deadline >= 0) {
+                LOGGER.warn("Sink pipeline did not drain within {}, {} batch(es) are pending", timeout, pending.get());
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        return failure.get() == null;
+    }
+
+    /**
+     * Stops accepting new batches and waits for the already queued ones to be delivered.
+     */
+    public void close(Duration timeout) throws InterruptedException {
+        running = false;
+        // Thread.join(0) would wait forever
+        sinkThread.join(Math.max(1, timeout.toMillis()));
+        if (sinkThread.isAlive()) {
+            LOGGER.warn("Sink pipeline did not drain within {}, {} batch(es) were not delivered", timeout, queue.size());
+            sinkThread.interrupt();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        close(Duration.ZERO);
+    }
+
+    private void deliver() {
+        try {
+            while (running || !queue.isEmpty()) {
+                final Batch batch = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (batch != null) {
+                    try {
+                        delegate.handleBatch(batch.records, batch);
+                    }
+                    finally {
+                        pending.decrementAndGet();
+                    }
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            LOGGER.info("Sink pipeline interrupted");
+            Thread.currentThread().interrupt();
+        }
+        catch (Throwable t) {
+            LOGGER.error("Failed to deliver a batch, stopping the sink pipeline", t);
+            failure.set(t);
+            running = false;
+        }
+    }
+
+    private void checkFailure() {
+        final Throwable t = failure.get();
+        if (t != null) {
+            throw new DebeziumException("Sink pipeline failed", t);
+        }
+    }
+
+    /**
+     * A queued batch together with the committer through which the sink acknowledges it. Record acknowledgements
+     * are passed directly to the engine, the end of the batch is flushed under the lock of the engine committer.
+     */
+    private static class Batch implements RecordCommitter<ChangeEvent<Object, Object>> {
+
+        private final List<ChangeEvent<Object, Object>> records;
+        private final RecordCommitter<ChangeEvent<Object, Object>> committer;
+
+        Batch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer) {
+            this.records = records;
+            this.committer = committer;
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record) throws InterruptedException {
+            committer.markProcessed(record);
+        }
+
+        @Override
+        public void markBatchFinished() throws InterruptedException {
+            synchronized (committer) {
+                committer.markBatchFinished();
+            }
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record, DebeziumEngine.Offsets sourceOffsets) throws InterruptedException {
+            committer.markProcessed(record, sourceOffsets);
+        }
+
+        @Override
+        public DebeziumEngine.Offsets buildOffsets() {
+            return committer.buildOffsets();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * A consumer decorator that limits the rate at which records are handed to the sink, in records and in key/value bytes
+ * per second, for the sink as a whole and for every destination separately. Each limit is a {@link TokenBucket}; a
+ * limit of zero or less is not applied. The bytes are approximated as for the sink metrics and are only computed when
+ * a byte limit is set.
+ * <p>
+ * A batch waits until all limits it touches admit it and is then delivered as a whole, so the engine thread is blocked
+ * in the meantime and the connector stops polling once its queue is full. No records are dropped. As a batch is not
+ * split, the rate holds on average while a single batch may exceed it; the engine's {@code max.batch.size} bounds the
+ * bursts.
+ * <p>
+ * The time spent waiting is exported as {@code debezium.sink.rate.limit.wait}.
+ */
+public class RateLimitingChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>, MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimitingChangeConsumer.class);
+
+    private final String sinkName;
+    private final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate;
+    private final TokenBucket records;
+    private final TokenBucket bytes;
+    private final long destinationRecordsPerSecond;
+    private final long destinationBytesPerSecond;
+    private final Map<String, TokenBucket[]> destinations = new ConcurrentHashMap<>();
+    private final LongAdder waitNanos = new LongAdder();
+
+    public RateLimitingChangeConsumer(String sinkName, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate, long recordsPerSecond,
+                                      long bytesPerSecond, long destinationRecordsPerSecond, long destinationBytesPerSecond) {
+        this.sinkName = sinkName;
+        this.delegate = delegate;
+        this.records = recordsPerSecond > 0 ? new TokenBucket(recordsPerSecond) : null;
+        this.bytes = bytesPerSecond > 0 ? new TokenBucket(bytesPerSecond) : null;
+        this.destinationRecordsPerSecond = destinationRecordsPerSecond;
+        this.destinationBytesPerSecond = destinationBytesPerSecond;
+    }
+
+    @Override
+    public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        final long wait = take(records, System.nanoTime());
+        if (wait > 0) {
+            LOGGER.trace("Delaying a batch of {} records to sink '{}' by {} ms", records.size(), sinkName, TimeUnit.NANOSECONDS.toMillis(wait));
+            waitNanos.add(wait);
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        delegate.handleBatch(records, committer);
+    }
+
+    /**
+     * Takes the tokens for the batch from all limits and returns the time to wait until the last of them admits it.
+     */
+    long take(List<ChangeEvent<Object, Object>> batch, long now) {
+        // Aggregate per batch so that each bucket is taken from once
+        final Map<String, long[]> totals = new HashMap<>();
+        final boolean limitsBytes = bytes != null || destinationBytesPerSecond > 0;
+        long totalBytes = 0;
+        for (ChangeEvent<Object, Object> record : batch) {
+            final long size = limitsBytes ? MeteredChangeConsumer.sizeOf(record.key()) + MeteredChangeConsumer.sizeOf(record.value()) : 0;
+            totalBytes += size;
+            final long[] total = totals.computeIfAbsent(record.destination() == null ? "" : record.destination(), x -> new long[2]);
+            total[0]++;
+            total[1] += size;
+        }
+
+        long wait = 0;
+        if (records != null) {
+            wait = Math.max(wait, records.take(batch.size(), now));
+        }
+        if (bytes != null) {
+            wait = Math.max(wait, bytes.take(totalBytes, now));
+        }
+        if (destinationRecordsPerSecond > 0 || destinationBytesPerSecond > 0) {
+            for (Map.Entry<String, long[]> total : totals.entrySet()) {
+                final TokenBucket[] buckets = destinations.computeIfAbsent(total.getKey(), x -> new TokenBucket[]{
+                        destinationRecordsPerSecond > 0 ? new TokenBucket(destinationRecordsPerSecond, now) : null,
+                        destinationBytesPerSecond > 0 ? new TokenBucket(destinationBytesPerSecond, now) : null
+                });
+                for (int i = 0; i < buckets.length; i++) {
+                    if (buckets[i] != null) {
+                        wait = Math.max(wait, buckets[i].take(total.getValue()[i], now));
+                    }
+                }
+            }
+        }
+        return wait;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("debezium.sink.rate.limit.wait", waitNanos, adder -> adder.sum() / (double) TimeUnit.SECONDS.toNanos(1))
+                .description("Time the batches waited for the rate limits of the sink")
+                .baseUnit("seconds")
+                .tag("sink", sinkName)
+                .register(registry);
+    }
+
+    @Override
+    public boolean supportsTombstoneEvents() {
+        return delegate.supportsTombstoneEvents();
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitingChangeConsumer [" + sinkName + "] " + delegate;
+    }
+}
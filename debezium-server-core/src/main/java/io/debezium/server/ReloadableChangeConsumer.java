@@ -0,0 +1,96 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+
+/**
+ * A consumer whose sink can be replaced while the engines keep running. Every batch is handed to exactly one sink: the
+ * replacement waits until the batches being delivered by the current sink are finished and the records it accepted are
+ * acknowledged, so the new sink takes over between two batches and the offsets keep advancing in order.
+ */
+class ReloadableChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>, Drainable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReloadableChangeConsumer.class);
+
+    private final String sinkName;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+    private volatile DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate;
+
+    ReloadableChangeConsumer(String sinkName, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate) {
+        this.sinkName = sinkName;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        lock.readLock().lockInterruptibly();
+        try {
+            delegate.handleBatch(records, committer);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean supportsTombstoneEvents() {
+        return delegate.supportsTombstoneEvents();
+    }
+
+    @Override
+    public boolean drain(Duration timeout) throws InterruptedException {
+        final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> current = delegate;
+        return !(current instanceof Drainable) || ((Drainable) current).drain(timeout);
+    }
+
+    DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Replaces the sink once the batches in flight are delivered. If the current sink does not finish them within the
+     * given time, it stays in place.
+     *
+     * @return the replaced sink, to be destroyed by the caller
+     */
+    DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> swap(DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> replacement, Duration timeout)
+            throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        if (!lock.writeLock().tryLock(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new DebeziumException("Sink '" + sinkName + "' did not finish the batch in flight within " + timeout);
+        }
+        try {
+            if (!drain(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())))) {
+                throw new DebeziumException("Sink '" + sinkName + "' did not acknowledge the accepted records within " + timeout);
+            }
+            final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> replaced = delegate;
+            delegate = replacement;
+            LOGGER.info("Sink '{}' replaced by consumer '{}'", sinkName, replacement.getClass().getName());
+            return replaced;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ReloadableChangeConsumer [" + sinkName + "] " + delegate;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+
+import io.debezium.DebeziumException;
+
+/**
+ * A configuration source holding the sink options re-read from the configuration file when the sinks are reloaded. It
+ * takes precedence over the {@code application.properties} on the class path, from which the options were read at
+ * startup, but not over system properties and environment variables, so options set there cannot be reloaded.
+ * <p>
+ * The source is empty until the first reload. An option removed from the file falls back to the value read at startup.
+ */
+public class ReloadableConfigSource implements ConfigSource {
+
+    private static final String NAME = "DebeziumReloadableConfigSource";
+    private static final String SINK_PREFIX = "debezium.sink.";
+    // Above the application.properties on the class path (250), below the config directory and environment variables
+    private static final int ORDINAL = 255;
+
+    private static volatile Map<String, String> properties = Collections.emptyMap();
+
+    @Override
+    public Set<String> getPropertyNames() {
+        return properties.keySet();
+    }
+
+    @Override
+    public String getValue(String propertyName) {
+        return properties.get(propertyName);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int getOrdinal() {
+        return ORDINAL;
+    }
+
+    /**
+     * Re-reads the sink options from the given file.
+     *
+     * @return the names of the options whose effective value was changed by the reload
+     */
+    static synchronized Set<String> reload(Path file, Config config) {
+        final Properties loaded = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            loaded.load(reader);
+        }
+        catch (IOException e) {
+            throw new DebeziumException("Failed to read the sink configuration from " + file, e);
+        }
+
+        final Map<String, String> reloaded = new HashMap<>();
+        for (String name : loaded.stringPropertyNames()) {
+            if (name.startsWith(SINK_PREFIX)) {
+                reloaded.put(name, loaded.getProperty(name));
+            }
+        }
+        final Set<String> names = new HashSet<>(properties.keySet());
+        names.addAll(reloaded.keySet());
+        final Map<String, String> previous = new HashMap<>();
+        for (String name : names) {
+            previous.put(name, config.getConfigValue(name).getValue());
+        }
+
+        properties = Collections.unmodifiableMap(reloaded);
+
+        final Set<String> changed = new HashSet<>();
+        for (String name : names) {
+            if (!Objects.equals(previous.get(name), config.getConfigValue(name).getValue())) {
+                changed.add(name);
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.microprofile.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.DebeziumException;
+
+/**
+ * Retries the delivery of records for the sinks. Every delivery is retried up to a maximum number of attempts with
+ * {@link Backoff decorrelated jitter} between the attempts, subject to:
+ * <ul>
+ * <li>a retry budget - retries are allowed for a fraction of the successful deliveries plus a minimum number of retries
+ * per second, at least one, so that a failing sink does not multiply the load of the target system; a retry beyond the
+ * budget waits for the next second rather than being skipped, so the configured number of attempts is always made</li>
+ * <li>a circuit breaker per destination - after the configured number of consecutive failures, deliveries to the
+ * destination wait for the open period, after which a single trial delivery decides whether the circuit closes again
+ * and the waiting deliveries proceed</li>
+ * </ul>
+ * The circuit state is kept per destination and every delivery backs off on its own, so a failing destination does not
+ * delay the deliveries to the healthy ones. The instances are thread-safe.
+ */
+public class RetryEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetryEngine.class);
+
+    public static final String PROP_RETRIES = "retries";
+    public static final String PROP_RETRY_INTERVAL = "retry.interval.ms";
+    public static final String PROP_RETRY_MAX_INTERVAL = "retry.max.interval.ms";
+    public static final String PROP_RETRY_BUDGET_RATIO = "retry.budget.ratio";
+    public static final String PROP_RETRY_BUDGET_MIN_PER_SECOND = "retry.budget.min.per.second";
+    public static final String PROP_CIRCUIT_BREAKER_THRESHOLD = "circuit.breaker.failure.threshold";
+    public static final String PROP_CIRCUIT_BREAKER_OPEN = "circuit.breaker.open.ms";
+
+    private static final double DEFAULT_BUDGET_RATIO = 0.2;
+    private static final int DEFAULT_BUDGET_MIN_PER_SECOND = 10;
+    private static final int DEFAULT_CIRCUIT_BREAKER_THRESHOLD = 20;
+    private static final long DEFAULT_CIRCUIT_BREAKER_OPEN_MS = 30_000;
+    private static final double MAX_BUDGET_BALANCE = 100;
+
+    /**
+     * A single delivery attempt.
+     */
+    @FunctionalInterface
+    public interface Attempt {
+        /**
+         * @return {@code true} if the delivery succeeded, {@code false} if it failed and should be retried
+         */
+        boolean attempt() throws InterruptedException;
+    }
+
+    private final int maxAttempts;
+    private final Duration retryInterval;
+    private final Duration maxRetryInterval;
+    private final double budgetRatio;
+    private final int budgetMinPerSecond;
+    private final int circuitBreakerThreshold;
+    private final long circuitBreakerOpenNanos;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    private double budgetBalance;
+    private long budgetSecond;
+    private int budgetReserve;
+
+    public RetryEngine(int maxAttempts, Duration retryInterval, Duration maxRetryInterval, double budgetRatio, int budgetMinPerSecond,
+                       int circuitBreakerThreshold, Duration circuitBreakerOpen) {
+        this.maxAttempts = maxAttempts;
+        this.retryInterval = retryInterval;
+        this.maxRetryInterval = maxRetryInterval;
+        this.budgetRatio = budgetRatio;
+        this.budgetMinPerSecond = budgetMinPerSecond;
+        this.circuitBreakerThreshold = circuitBreakerThreshold;
+        this.circuitBreakerOpenNanos = circuitBreakerOpen.toNanos();
+    }
+
+    /**
+     * Creates the engine from the retry properties of a sink, e.g. {@code debezium.sink.http.retries}.
+     *
+     * @param prefix the prefix of the sink properties, including the trailing dot
+     */
+    public static RetryEngine fromConfig(Config config, String prefix, int defaultRetries, Duration defaultRetryInterval) {
+        final Duration retryInterval = Duration.ofMillis(config.getOptionalValue(prefix + PROP_RETRY_INTERVAL, Long.class)
+                .orElse(defaultRetryInterval.toMillis()));
+        return new RetryEngine(
+                config.getOptionalValue(prefix + PROP_RETRIES, Integer.class).orElse(defaultRetries),
+                retryInterval,
+                Duration.ofMillis(config.getOptionalValue(prefix + PROP_RETRY_MAX_INTERVAL, Long.class).orElse(retryInterval.toMillis() * 10)),
+                config.getOptionalValue(prefix + PROP_RETRY_BUDGET_RATIO, Double.class).orElse(DEFAULT_BUDGET_RATIO),
+                config.getOptionalValue(prefix + PROP_RETRY_BUDGET_MIN_PER_SECOND, Integer.class).orElse(DEFAULT_BUDGET_MIN_PER_SECOND),
+                config.getOptionalValue(prefix + PROP_CIRCUIT_BREAKER_THRESHOLD, Integer.class).orElse(DEFAULT_CIRCUIT_BREAKER_THRESHOLD),
+                Duration.ofMillis(config.getOptionalValue(prefix + PROP_CIRCUIT_BREAKER_OPEN, Long.class).orElse(DEFAULT_CIRCUIT_BREAKER_OPEN_MS)));
+    }
+
+    /**
+     * Executes the attempt until it succeeds.
+     *
+     * @param destination the destination the attempt delivers to
+     * @param subject the delivered record, used in the error messages
+     * @param onRetry notified with the destination before every retry
+     * @throws DebeziumException if the maximum number of attempts is exhausted
+     */
+    public void execute(String destination, Object subject, Attempt attempt, Consumer<String> onRetry) throws InterruptedException {
+        final Circuit circuit = circuits.computeIfAbsent(destination == null ? "" : destination, Circuit::new);
+        final Backoff backoff = new Backoff(retryInterval, maxRetryInterval);
+        for (int attempts = 1;; attempts++) {
+            circuit.acquire();
+            final boolean succeeded;
+            try {
+                succeeded = attempt.attempt();
+            }
+            catch (Throwable t) {
+                // Also releases a half-open trial, e.g. when a sink reports an I/O error as an InterruptedException
+                circuit.onFailure();
+                throw t;
+            }
+            if (succeeded) {
+                circuit.onSuccess();
+                deposit();
+                return;
+            }
+            circuit.onFailure();
+            if (attempts >= maxAttempts) {
+                throw new DebeziumException("Exceeded maximum number of attempts to publish event " + subject);
+            }
+            awaitBudget(destination);
+            onRetry.accept(destination);
+            backoff.pause();
+        }
+    }
+
+    private synchronized void deposit() {
+        budgetBalance = Math.min(MAX_BUDGET_BALANCE, budgetBalance + budgetRatio);
+    }
+
+    private void awaitBudget(String destination) throws InterruptedException {
+        while (!withdraw()) {
+            LOGGER.debug("Retry budget exhausted, delaying the retry of the delivery to '{}'", destination);
+            Thread.sleep(Math.max(1, 1000 - TimeUnit.NANOSECONDS.toMillis(System.nanoTime()) % 1000));
+        }
+    }
+
+    private synchronized boolean withdraw() {
+        final long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        if (second != budgetSecond) {
+            budgetSecond = second;
+            // At least one retry per second, so that the retries of a sink without successful deliveries go on
+            budgetReserve = Math.max(1, budgetMinPerSecond);
+        }
+        if (budgetReserve > 0) {
+            budgetReserve--;
+            return true;
+        }
+        if (budgetBalance >= 1) {
+            budgetBalance--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The circuit breaker of a destination.
+     */
+    private class Circuit {
+
+        private final String destination;
+        private int consecutiveFailures;
+        private long openUntilNanos;
+        private boolean open;
+        private boolean trialInFlight;
+
+        Circuit(String destination) {
+            this.destination = destination;
+        }
+
+        /**
+         * Waits until the circuit is closed or this delivery is the trial of the half-open circuit.
+         */
+        synchronized void acquire() throws InterruptedException {
+            while (circuitBreakerThreshold > 0 && open) {
+                final long remaining = openUntilNanos - System.nanoTime();
+                if (remaining > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+                else if (trialInFlight) {
+                    wait();
+                }
+                else {
+                    // Half-open, a single trial decides whether the circuit closes
+                    trialInFlight = true;
+                    return;
+                }
+            }
+        }
+
+        synchronized void onSuccess() {
+            if (open) {
+                LOGGER.info("Delivery to '{}' succeeded again, closing the circuit", destination);
+            }
+            consecutiveFailures = 0;
+            open = false;
+            trialInFlight = false;
+            notifyAll();
+        }
+
+        synchronized void onFailure() {
+            consecutiveFailures++;
+            if (circuitBreakerThreshold > 0 && (trialInFlight || consecutiveFailures >= circuitBreakerThreshold)) {
+                if (!open) {
+                    LOGGER.warn("{} consecutive failures to deliver to '{}', opening the circuit for {} ms", consecutiveFailures, destination,
+                            TimeUnit.NANOSECONDS.toMillis(circuitBreakerOpenNanos));
+                }
+                open = true;
+                trialInFlight = false;
+                openUntilNanos = System.nanoTime() + circuitBreakerOpenNanos;
+                notifyAll();
+            }
+        }
+    }
+}
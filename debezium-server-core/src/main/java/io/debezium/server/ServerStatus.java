@@ -0,0 +1,151 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The health of the server as evaluated by {@link ConnectorReadiness} from the connector lag, the fill of the connector
+ * queue and the records in flight in the sinks. When the server hosts several pipelines, the status of every pipeline is
+ * included and the server reports the worst of them.
+ */
+public final class ServerStatus {
+
+    public enum State {
+        /**
+         * The pipelines keep up with the source.
+         */
+        UP,
+        /**
+         * The pipelines are running but fall behind the source, the server should be scaled out or shed load.
+         */
+        DEGRADED,
+        /**
+         * The pipelines are not running or are too far behind to serve traffic.
+         */
+        DOWN
+    }
+
+    private final State state;
+    private final List<String> reasons;
+    private final boolean live;
+    private final long milliSecondsBehindSource;
+    private final int queueCurrentSize;
+    private final int queueTotalCapacity;
+    private final long recordsInFlight;
+    private final Map<String, ServerStatus> pipelines;
+
+    ServerStatus(State state, List<String> reasons, boolean live, long milliSecondsBehindSource, int queueCurrentSize, int queueTotalCapacity,
+                 long recordsInFlight) {
+        this(state, reasons, live, milliSecondsBehindSource, queueCurrentSize, queueTotalCapacity, recordsInFlight, Map.of());
+    }
+
+    ServerStatus(State state, List<String> reasons, boolean live, long milliSecondsBehindSource, int queueCurrentSize, int queueTotalCapacity,
+                 long recordsInFlight, Map<String, ServerStatus> pipelines) {
+        this.state = state;
+        this.reasons = List.copyOf(reasons);
+        this.live = live;
+        this.milliSecondsBehindSource = milliSecondsBehindSource;
+        this.queueCurrentSize = queueCurrentSize;
+        this.queueTotalCapacity = queueTotalCapacity;
+        this.recordsInFlight = recordsInFlight;
+        this.pipelines = pipelines;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return the thresholds that were crossed followed by details that do not affect the state, such as metrics that
+     *         are not available
+     */
+    public List<String> getReasons() {
+        return reasons;
+    }
+
+    public boolean isLive() {
+        return live;
+    }
+
+    /**
+     * @return the streaming lag or {@code -1} if it is not known
+     */
+    public long getMilliSecondsBehindSource() {
+        return milliSecondsBehindSource;
+    }
+
+    public int getQueueCurrentSize() {
+        return queueCurrentSize;
+    }
+
+    public int getQueueTotalCapacity() {
+        return queueTotalCapacity;
+    }
+
+    /**
+     * @return the fraction of the connector queue that is filled, between 0 and 1
+     */
+    public double getQueueFillRatio() {
+        return queueTotalCapacity > 0 ? (double) queueCurrentSize / queueTotalCapacity : 0;
+    }
+
+    public long getRecordsInFlight() {
+        return recordsInFlight;
+    }
+
+    /**
+     * @return the status of every pipeline by pipeline name, empty if the server hosts a single pipeline
+     */
+    public Map<String, ServerStatus> getPipelines() {
+        return pipelines;
+    }
+
+    /**
+     * @return the status as a flat JSON object
+     */
+    public String toJson() {
+        final StringBuilder json = new StringBuilder(256)
+                .append("{\"state\":\"").append(state)
+                .append("\",\"live\":").append(live)
+                .append(",\"milliSecondsBehindSource\":").append(milliSecondsBehindSource)
+                .append(",\"queueCurrentSize\":").append(queueCurrentSize)
+                .append(",\"queueTotalCapacity\":").append(queueTotalCapacity)
+                .append(",\"queueFillRatio\":").append(getQueueFillRatio())
+                .append(",\"recordsInFlight\":").append(recordsInFlight)
+                .append(",\"reasons\":[");
+        for (int i = 0; i < reasons.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            // The reasons are generated by the server and contain no characters that need escaping
+            json.append('"').append(reasons.get(i)).append('"');
+        }
+        json.append(']');
+        if (!pipelines.isEmpty()) {
+            json.append(",\"pipelines\":{");
+            boolean first = true;
+            for (Map.Entry<String, ServerStatus> pipeline : pipelines.entrySet()) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                // The pipeline names are configuration keys and contain no characters that need escaping
+                json.append('"').append(pipeline.getKey()).append("\":").append(pipeline.getValue().toJson());
+            }
+            json.append('}');
+        }
+        return json.append('}').toString();
+    }
+
+    @Override
+    public String toString() {
+        return "ServerStatus [state=" + state + ", reasons=" + reasons + ", live=" + live + ", milliSecondsBehindSource=" + milliSecondsBehindSource
+                + ", queueCurrentSize=" + queueCurrentSize + ", queueTotalCapacity=" + queueTotalCapacity + ", recordsInFlight=" + recordsInFlight
+                + ", pipelines=" + pipelines + "]";
+    }
+}
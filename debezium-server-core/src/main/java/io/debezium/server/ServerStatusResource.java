@@ -0,0 +1,29 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * Exposes the {@link ServerStatus} as a small JSON document for autoscalers and load balancers that need more than the
+ * binary health checks, e.g. the lag and queue fill driving a scaling decision.
+ */
+@Path("/debezium/status")
+public class ServerStatusResource {
+
+    @Inject
+    ConnectorReadiness readiness;
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public String status() {
+        return readiness.status().toJson();
+    }
+}
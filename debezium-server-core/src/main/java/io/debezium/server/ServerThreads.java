@@ -0,0 +1,148 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.DebeziumException;
+
+/**
+ * Creates the threads used by the server and the sinks. With {@code debezium.threads.virtual=true} the threads are
+ * virtual threads, so that blocking sink I/O does not hold a platform thread and per-record parallelism can be raised
+ * without sizing thread pools. Otherwise, and on Java versions without virtual threads, daemon platform threads are used.
+ * <p>
+ * Virtual threads are accessed reflectively so that the server still runs on Java versions that predate them or, as Java
+ * 19 and 20, provide them only as a preview feature.
+ */
+public final class ServerThreads {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServerThreads.class);
+
+    public static final String PROP_VIRTUAL_THREADS = "debezium.threads.virtual";
+
+    private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+    // The builder implementations are not public, so their methods must be invoked via the public interface
+    private static final Class<?> THREAD_BUILDER = findClass("java.lang.Thread$Builder");
+    private static final Method BUILDER_NAME = findMethod(THREAD_BUILDER, "name", String.class, long.class);
+    private static final Method BUILDER_FACTORY = findMethod(THREAD_BUILDER, "factory");
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR = findMethod(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+    private static final boolean VIRTUAL_THREADS_SUPPORTED = virtualThreadsSupported();
+
+    private ServerThreads() {
+    }
+
+    /**
+     * @return {@code true} if virtual threads are requested by the configuration and supported by the JVM
+     */
+    public static boolean isVirtual() {
+        final boolean requested = ConfigProvider.getConfig().getOptionalValue(PROP_VIRTUAL_THREADS, Boolean.class).orElse(false);
+        if (requested && !VIRTUAL_THREADS_SUPPORTED) {
+            LOGGER.warn("Virtual threads are not available on Java {}, platform threads are used instead", Runtime.version());
+            return false;
+        }
+        return requested;
+    }
+
+    /**
+     * @return a factory of threads named {@code <name>-<number>}
+     */
+    public static ThreadFactory threadFactory(String name) {
+        if (isVirtual()) {
+            return virtualThreadFactory(name);
+        }
+        final AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Creates an executor running up to {@code threads} tasks concurrently. With virtual threads every task gets a new
+     * thread and the concurrency is bounded only by the number of submitted tasks.
+     */
+    public static ExecutorService newExecutor(String name, int threads) {
+        if (isVirtual()) {
+            return newThreadPerTaskExecutor(virtualThreadFactory(name));
+        }
+        return Executors.newFixedThreadPool(threads, threadFactory(name));
+    }
+
+    /**
+     * @return an executor for the asynchronous work of blocking clients or {@code null} if the client default is to be
+     *         used, i.e. when virtual threads are not enabled
+     */
+    public static ExecutorService newClientExecutor(String name) {
+        return isVirtual() ? newThreadPerTaskExecutor(virtualThreadFactory(name)) : null;
+    }
+
+    /**
+     * Checks that virtual threads can be created, Java 19 and 20 provide the methods but reject their use unless preview
+     * features are enabled.
+     */
+    private static boolean virtualThreadsSupported() {
+        if (OF_VIRTUAL == null || BUILDER_NAME == null || BUILDER_FACTORY == null || NEW_THREAD_PER_TASK_EXECUTOR == null) {
+            return false;
+        }
+        try {
+            OF_VIRTUAL.invoke(null);
+            return true;
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.debug("Virtual threads cannot be created", e);
+            return false;
+        }
+    }
+
+    private static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            final Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name + "-", 0L);
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new DebeziumException("Failed to create virtual thread factory", e);
+        }
+    }
+
+    private static ExecutorService newThreadPerTaskExecutor(ThreadFactory factory) {
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new DebeziumException("Failed to create virtual thread executor", e);
+        }
+    }
+
+    private static Class<?> findClass(String name) {
+        try {
+            return Class.forName(name);
+        }
+        catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Method findMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        if (clazz == null) {
+            return null;
+        }
+        try {
+            return clazz.getMethod(name, parameterTypes);
+        }
+        catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
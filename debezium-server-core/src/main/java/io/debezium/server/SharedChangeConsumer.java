@@ -0,0 +1,49 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+
+/**
+ * A consumer shared by the engines of several pipelines. The sinks are not required to be thread-safe, so the batches
+ * of the pipelines are delivered one at a time, in the order in which the pipelines asked for the delivery.
+ */
+class SharedChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> {
+
+    private final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate;
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    SharedChangeConsumer(DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            delegate.handleBatch(records, committer);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean supportsTombstoneEvents() {
+        return delegate.supportsTombstoneEvents();
+    }
+
+    @Override
+    public String toString() {
+        return "SharedChangeConsumer " + delegate;
+    }
+}
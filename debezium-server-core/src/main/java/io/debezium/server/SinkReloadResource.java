@@ -0,0 +1,57 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.util.List;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.DebeziumException;
+
+/**
+ * Triggers a {@link DebeziumServer#reloadSinks() reload} of the sink configuration, e.g. after a configuration
+ * management tool updated the configuration file. Available only when enabled via {@code debezium.sink.reload.enabled}.
+ */
+@Path("/debezium/reload")
+public class SinkReloadResource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SinkReloadResource.class);
+
+    @Inject
+    DebeziumServer server;
+
+    @POST
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response reload() {
+        if (!server.isSinkReloadEnabled()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        try {
+            final List<String> reloaded = server.reloadSinks();
+            final StringBuilder json = new StringBuilder("{\"reloaded\":[");
+            for (int i = 0; i < reloaded.size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                // Sink names are bean names and contain no characters that need escaping
+                json.append('"').append(reloaded.get(i)).append('"');
+            }
+            return Response.ok(json.append("]}").toString()).build();
+        }
+        catch (DebeziumException e) {
+            LOGGER.error("Failed to reload the sinks", e);
+            return Response.serverError().type(MediaType.TEXT_PLAIN).entity(e.getMessage()).build();
+        }
+    }
+}
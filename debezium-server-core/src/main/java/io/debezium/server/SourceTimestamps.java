@@ -0,0 +1,109 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntUnaryOperator;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.Header;
+
+/**
+ * Extracts the time at which a change was committed in the source database, {@code source.ts_ms}, from a change event.
+ * <p>
+ * If a header name is given, the timestamp is taken from that header, e.g. one added by the {@code HeaderFrom}
+ * transformation, which works for every format. Otherwise the JSON serialized value is scanned for the {@code ts_ms}
+ * field of the {@code source} block, without parsing the whole document.
+ */
+final class SourceTimestamps {
+
+    static final long UNKNOWN = -1;
+
+    private static final String SOURCE_BLOCK = "\"source\":{";
+    private static final String TIMESTAMP_FIELD = "\"ts_ms\":";
+
+    private SourceTimestamps() {
+    }
+
+    /**
+     * @return the source timestamp in milliseconds since the epoch or {@link #UNKNOWN}
+     */
+    static long extract(ChangeEvent<Object, Object> record, String headerName) {
+        if (headerName != null) {
+            for (Header<Object> header : record.headers()) {
+                if (headerName.equals(header.getKey())) {
+                    return fromHeader(header.getValue());
+                }
+            }
+            return UNKNOWN;
+        }
+        final Object value = record.value();
+        if (value instanceof String) {
+            final String string = (String) value;
+            return scan(string::charAt, string.length());
+        }
+        else if (value instanceof byte[]) {
+            final byte[] bytes = (byte[]) value;
+            return scan(i -> bytes[i], bytes.length);
+        }
+        return UNKNOWN;
+    }
+
+    private static long fromHeader(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        final String string;
+        if (value instanceof String) {
+            string = (String) value;
+        }
+        else if (value instanceof byte[]) {
+            string = new String((byte[]) value, StandardCharsets.UTF_8);
+        }
+        else {
+            return UNKNOWN;
+        }
+        // The JSON header converter may serialize the number as a string
+        return parse(string::charAt, string.length(), string.startsWith("\"") ? 1 : 0);
+    }
+
+    private static long scan(IntUnaryOperator charAt, int length) {
+        final int source = indexOf(charAt, length, SOURCE_BLOCK, 0);
+        if (source < 0) {
+            return UNKNOWN;
+        }
+        final int timestamp = indexOf(charAt, length, TIMESTAMP_FIELD, source + SOURCE_BLOCK.length());
+        if (timestamp < 0) {
+            return UNKNOWN;
+        }
+        return parse(charAt, length, timestamp + TIMESTAMP_FIELD.length());
+    }
+
+    private static int indexOf(IntUnaryOperator charAt, int length, String pattern, int from) {
+        outer: for (int i = from; i <= length - pattern.length(); i++) {
+            for (int j = 0; j < pattern.length(); j++) {
+                if (charAt.applyAsInt(i + j) != pattern.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static long parse(IntUnaryOperator charAt, int length, int from) {
+        long result = 0;
+        int i = from;
+        for (; i < length; i++) {
+            final int c = charAt.applyAsInt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return i == from ? UNKNOWN : result;
+    }
+}
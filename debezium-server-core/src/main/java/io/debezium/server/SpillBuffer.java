@@ -0,0 +1,175 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only log of byte arrays stored in memory-mapped segment files. Entries are appended to the current
+ * segment and a new segment is started when an entry does not fit; a segment file is deleted as soon as all of its
+ * entries are released and no more entries are appended to it.
+ * <p>
+ * The log is not durable: it only moves data out of the heap, so it is neither forced to disk nor recovered after a
+ * restart. Segments left behind by a previous run are deleted on start. The instances are not thread-safe.
+ */
+class SpillBuffer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillBuffer.class);
+
+    private static final String SEGMENT_PREFIX = "spill-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment current;
+    private long segmentSequence;
+    private long size;
+
+    SpillBuffer(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stale) {
+                // The spilled records were never acknowledged, the connector delivers them again
+                LOGGER.info("Deleting spill segment '{}' left by a previous run", file);
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Appends the data to the log.
+     *
+     * @return the appended entry, to be {@link #read(Entry) read} and {@link #release(Entry) released} later
+     */
+    Entry append(byte[] data) throws IOException {
+        if (current == null || current.remaining() < data.length) {
+            roll(data.length);
+        }
+        final Entry entry = new Entry(current, current.position, data.length);
+        final ByteBuffer target = current.buffer.duplicate();
+        target.position(current.position);
+        target.put(data);
+        current.position += data.length;
+        current.entries++;
+        size += data.length;
+        return entry;
+    }
+
+    byte[] read(Entry entry) {
+        final ByteBuffer source = entry.segment.buffer.duplicate();
+        source.position(entry.position);
+        final byte[] data = new byte[entry.length];
+        source.get(data);
+        return data;
+    }
+
+    /**
+     * Marks the entry as no longer needed, deleting its segment if it holds no other entries.
+     */
+    void release(Entry entry) {
+        final Segment segment = entry.segment;
+        segment.entries--;
+        size -= entry.length;
+        if (segment.entries == 0 && segment != current) {
+            delete(segment);
+        }
+    }
+
+    /**
+     * @return the number of bytes held by the entries that were not released yet
+     */
+    long size() {
+        return size;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    private void roll(int minSize) throws IOException {
+        final Segment previous = current;
+        current = new Segment(directory.resolve(SEGMENT_PREFIX + segmentSequence++ + SEGMENT_SUFFIX), Math.max(segmentSize, minSize));
+        segments.add(current);
+        if (previous != null && previous.entries == 0) {
+            delete(previous);
+        }
+    }
+
+    private void delete(Segment segment) {
+        segments.remove(segment);
+        try {
+            // The mapping stays valid until the buffer is garbage collected, the file is only unlinked
+            segment.channel.close();
+            Files.deleteIfExists(segment.file);
+        }
+        catch (IOException e) {
+            LOGGER.warn("Failed to delete spill segment '{}'", segment.file, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Segment segment : new ArrayList<>(segments)) {
+            delete(segment);
+        }
+        current = null;
+        size = 0;
+    }
+
+    /**
+     * A position in the log.
+     */
+    static class Entry {
+
+        private final Segment segment;
+        private final int position;
+        private final int length;
+
+        Entry(Segment segment, int position, int length) {
+            this.segment = segment;
+            this.position = position;
+            this.length = length;
+        }
+
+        int length() {
+            return length;
+        }
+    }
+
+    private static class Segment {
+
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private int entries;
+
+        Segment(Path file, int size) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        int remaining() {
+            return buffer.capacity() - position;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.DebeziumException;
+import io.debezium.embedded.EmbeddedEngineChangeEvent;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * A consumer that spills the batches received from the engine to a local {@link SpillBuffer} and replays them to the
+ * sink from a dedicated thread. The engine thread only serializes the batch to the memory-mapped log and returns to
+ * polling the connector, so a slow or unavailable sink does not stall the source connector until the spill buffer
+ * reaches its maximum size.
+ * <p>
+ * A batch the sink fails to deliver is replayed again after the retry interval until it succeeds. The records are
+ * acknowledged to the engine only after their batch was delivered, so the delivery stays at-least-once and the spill
+ * buffer does not need to survive a restart. Only the last record of every source partition of a batch stays on the heap
+ * until the batch is delivered and is acknowledged then, as its offset covers the earlier records of the partition; the
+ * other records are only kept in the spill buffer. Records not emitted by the embedded engine, whose source partition is
+ * unknown, are all kept and acknowledged. The offsets are flushed by the replay thread right after the delivery, holding
+ * the lock of the engine committer, so they are committed also while the source is idle.
+ * <p>
+ * Keys, values and header values must be strings or byte arrays.
+ */
+public class SpillingChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>, MeterBinder, Drainable, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillingChangeConsumer.class);
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final String name;
+    private final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate;
+    private final long maxBytes;
+    private final long retryIntervalMs;
+    private final SpillBuffer buffer;
+    private final Deque<Batch> batches = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Thread replayThread;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean running = true;
+    private volatile long spilledBytes;
+    private volatile int spilledBatches;
+
+    public SpillingChangeConsumer(String name, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> delegate, Path directory, int segmentSize,
+                                  long maxBytes, Duration retryInterval) {
+        this.name = name;
+        this.delegate = delegate;
+        this.maxBytes = maxBytes;
+        this.retryIntervalMs = retryInterval.toMillis();
+        try {
+            this.buffer = new SpillBuffer(directory, segmentSize);
+        }
+        catch (IOException e) {
+            throw new DebeziumException("Failed to create spill buffer in '" + directory + "'", e);
+        }
+        this.replayThread = ServerThreads.threadFactory("debezium-sink-spill").newThread(this::replay);
+        replayThread.start();
+        LOGGER.info("Spill buffer for '{}' enabled in '{}' with maximum size {} bytes", name, directory, maxBytes);
+    }
+
+    @Override
+    public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+            throws InterruptedException {
+        checkFailure();
+        if (records.isEmpty()) {
+            return;
+        }
+
+        final byte[] data = ChangeEventCodec.encode(records);
+        lock.lockInterruptibly();
+        try {
+            // A batch is always accepted into an empty buffer, even if it is larger than the maximum size
+            while (buffer.size() > 0 && buffer.size() + data.length > maxBytes) {
+                checkFailure();
+                notFull.await(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            }
+            batches.add(new Batch(buffer.append(data), acknowledgements(records), committer));
+            updateSize();
+            notEmpty.signal();
+        }
+        catch (IOException e) {
+            throw new DebeziumException("Failed to spill a batch of " + records.size() + " records", e);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private void replay() {
+        try {
+            while (running) {
+                final Batch batch;
+                final byte[] data;
+                lock.lockInterruptibly();
+                try {
+                    while (batches.isEmpty()) {
+                        if (!running) {
+                            return;
+                        }
+                        notEmpty.await(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    }
+                    batch = batches.peek();
+                    data = buffer.read(batch.entry);
+                }
+                finally {
+                    lock.unlock();
+                }
+
+                deliver(ChangeEventCodec.decode(data), batch);
+                // The engine committer is shared with the engine thread and the other consumers
+                synchronized (batch.committer) {
+                    for (ChangeEvent<Object, Object> record : batch.acknowledgements) {
+                        batch.committer.markProcessed(record);
+                    }
+                    batch.committer.markBatchFinished();
+                }
+
+                lock.lockInterruptibly();
+                try {
+                    batches.poll();
+                    buffer.release(batch.entry);
+                    updateSize();
+                    notFull.signalAll();
+                }
+                finally {
+                    lock.unlock();
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            LOGGER.info("Spill buffer replay interrupted");
+            Thread.currentThread().interrupt();
+        }
+        catch (Throwable t) {
+            LOGGER.error("Failed to replay spilled records, stopping the spill buffer", t);
+            failure.set(t);
+            running = false;
+        }
+    }
+
+    /**
+     * @return the records acknowledging the batch, the last one of every source partition in the order of the batch
+     */
+    static List<ChangeEvent<Object, Object>> acknowledgements(List<ChangeEvent<Object, Object>> records) {
+        final Map<Object, ChangeEvent<Object, Object>> lastPerPartition = new LinkedHashMap<>();
+        for (ChangeEvent<Object, Object> record : records) {
+            // Records of unknown partition are keyed by themselves and all kept
+            final Object partition = record instanceof EmbeddedEngineChangeEvent
+                    ? ((EmbeddedEngineChangeEvent<?, ?, ?>) record).sourceRecord().sourcePartition()
+                    : new Object();
+            // Re-inserting moves the partition behind the partitions of the records it follows
+            lastPerPartition.remove(partition);
+            lastPerPartition.put(partition, record);
+        }
+        return new ArrayList<>(lastPerPartition.values());
+    }
+
+    private void deliver(List<ChangeEvent<Object, Object>> records, Batch batch) throws InterruptedException {
+        while (true) {
+            try {
+                delegate.handleBatch(records, batch);
+                return;
+            }
+            catch (InterruptedException e) {
+                throw e;
+            }
+            catch (Exception e) {
+                LOGGER.warn("Failed to deliver {} spilled record(s) of '{}', retrying in {} ms", records.size(), name, retryIntervalMs, e);
+                Thread.sleep(retryIntervalMs);
+            }
+        }
+    }
+
+    private void updateSize() {
+        spilledBytes = buffer.size();
+        spilledBatches = batches.size();
+    }
+
+    private void checkFailure() {
+        final Throwable t = failure.get();
+        if (t != null) {
+            throw new DebeziumException("Spill buffer failed", t);
+        }
+    }
+
+    /**
+     * @return the number of bytes of the batches that were not delivered yet
+     */
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    /**
+     * @return the number of batches that were not delivered yet
+     */
+    public int getSpilledBatches() {
+        return spilledBatches;
+    }
+
+    @Override
+    public boolean supportsTombstoneEvents() {
+        return delegate.supportsTombstoneEvents();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("debezium.sink.spill.bytes", this, SpillingChangeConsumer::getSpilledBytes)
+                .description("Bytes of the spilled batches not yet delivered to the sink")
+                .baseUnit("bytes")
+                .tag("pipeline", name)
+                .register(registry);
+        Gauge.builder("debezium.sink.spill.batches", this, SpillingChangeConsumer::getSpilledBatches)
+                .description("Spilled batches not yet delivered to the sink")
+                .tag("pipeline", name)
+                .register(registry);
+    }
+
+    /**
+     * Waits until the spilled batches are delivered and acknowledged.
+     */
+    @Override
+    public boolean drain(Duration timeout) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        lock.lockInterruptibly();
+        try {
+            while (!batches.isEmpty() && failure.get() == null) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    LOGGER.warn("Spill buffer of '{}' did not drain within {}, {} batch(es) are pending", name, timeout, batches.size());
+                    return false;
+                }
+                notFull.await(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(POLL_INTERVAL_MS)), TimeUnit.NANOSECONDS);
+            }
+            return failure.get() == null;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the replay and deletes the spill buffer. The records that were not delivered yet were not acknowledged
+     * either, so the connector delivers them again after restart.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        replayThread.interrupt();
+        replayThread.join(TimeUnit.SECONDS.toMillis(10));
+        lock.lock();
+        try {
+            if (!batches.isEmpty()) {
+                LOGGER.info("{} spilled batch(es) of '{}' were not delivered and will be redelivered by the connector", batches.size(), name);
+            }
+            batches.clear();
+            buffer.close();
+            updateSize();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A spilled batch together with the committer through which it is acknowledged. The sink acknowledgements of the
+     * replayed records are ignored, the batch is acknowledged after it was delivered.
+     */
+    private class Batch implements RecordCommitter<ChangeEvent<Object, Object>> {
+
+        private final SpillBuffer.Entry entry;
+        private final List<ChangeEvent<Object, Object>> acknowledgements;
+        private final RecordCommitter<ChangeEvent<Object, Object>> committer;
+
+        Batch(SpillBuffer.Entry entry, List<ChangeEvent<Object, Object>> acknowledgements, RecordCommitter<ChangeEvent<Object, Object>> committer) {
+            this.entry = entry;
+            this.acknowledgements = acknowledgements;
+            this.committer = committer;
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record) {
+        }
+
+        @Override
+        public void markBatchFinished() {
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record, DebeziumEngine.Offsets sourceOffsets) {
+        }
+
+        @Override
+        public DebeziumEngine.Offsets buildOffsets() {
+            return committer.buildOffsets();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.util.concurrent.TimeUnit;
+
+import io.debezium.DebeziumException;
+
+/**
+ * A token bucket refilled at a constant rate per second and holding at most one second worth of tokens. Taking tokens
+ * never fails: a request larger than the tokens available takes them all and leaves a debt, which the following requests
+ * wait for. A single request can thus exceed the capacity, e.g. a batch larger than the rate, while the rate is kept on
+ * average.
+ */
+class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double tokensPerSecond;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(long tokensPerSecond) {
+        this(tokensPerSecond, System.nanoTime());
+    }
+
+    TokenBucket(long tokensPerSecond, long now) {
+        if (tokensPerSecond < 1) {
+            throw new DebeziumException("Rate limit must be positive but is " + tokensPerSecond);
+        }
+        this.tokensPerSecond = tokensPerSecond;
+        this.capacity = tokensPerSecond;
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    /**
+     * Takes the tokens and returns the time in nanoseconds the caller has to wait before it may use them.
+     */
+    synchronized long take(long requested, long now) {
+        // Callers may pass slightly different times, the bucket is refilled by the latest one only
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerSecond / NANOS_PER_SECOND);
+            lastRefill = now;
+        }
+        tokens -= requested;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * NANOS_PER_SECOND / tokensPerSecond);
+    }
+}
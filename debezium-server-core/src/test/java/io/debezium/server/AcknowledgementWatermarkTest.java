@@ -0,0 +1,121 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static io.debezium.server.TestChangeEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.debezium.DebeziumException;
+import io.debezium.server.TestChangeEvents.RecordingCommitter;
+
+public class AcknowledgementWatermarkTest {
+
+    @Test
+    public void shouldCommitContiguousAcknowledgementsInOrder() throws Exception {
+        final AcknowledgementWatermark watermark = new AcknowledgementWatermark("test", 3);
+        final RecordingCommitter committer = new RecordingCommitter();
+        final AcknowledgementWatermark.Acknowledgement first = watermark.track(event("a", "1", "value"), committer);
+        final AcknowledgementWatermark.Acknowledgement second = watermark.track(event("a", "2", "value"), committer);
+        final AcknowledgementWatermark.Acknowledgement third = watermark.track(event("a", "3", "value"), committer);
+
+        // The later acknowledgements must not move the offsets past the pending first record
+        third.acknowledge();
+        second.acknowledge();
+        watermark.finishBatch(committer);
+        assertThat(committer.keys()).isEmpty();
+        assertThat(watermark.watermark()).isEqualTo(-1);
+        assertThat(committer.batchesFinished()).isEqualTo(1);
+
+        first.acknowledge();
+        assertThat(watermark.drain(Duration.ofSeconds(1))).isTrue();
+        assertThat(committer.keys()).containsExactly("1", "2", "3");
+        assertThat(watermark.watermark()).isEqualTo(2);
+        assertThat(watermark.inFlight()).isZero();
+    }
+
+    @Test
+    public void shouldWaitForAcknowledgementsFromOtherThreads() throws Exception {
+        final AcknowledgementWatermark watermark = new AcknowledgementWatermark("test", 0);
+        final RecordingCommitter committer = new RecordingCommitter();
+        final List<AcknowledgementWatermark.Acknowledgement> acknowledgements = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            acknowledgements.add(watermark.track(event("a", Integer.toString(i), "value"), committer));
+        }
+        // Complete the sends in reverse order on another thread
+        CompletableFuture.runAsync(() -> {
+            for (int i = acknowledgements.size() - 1; i >= 0; i--) {
+                acknowledgements.get(i).acknowledge();
+            }
+        });
+
+        watermark.finishBatch(committer);
+        assertThat(committer.keys()).hasSize(100).startsWith("0", "1").endsWith("99");
+        assertThat(committer.batchesFinished()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRethrowFailureOnEngineThread() throws Exception {
+        final AcknowledgementWatermark watermark = new AcknowledgementWatermark("test", 0);
+        final RecordingCommitter committer = new RecordingCommitter();
+        final AcknowledgementWatermark.Acknowledgement first = watermark.track(event("a", "1", "value"), committer);
+        final AcknowledgementWatermark.Acknowledgement second = watermark.track(event("a", "2", "value"), committer);
+        final AcknowledgementWatermark.Acknowledgement third = watermark.track(event("a", "3", "value"), committer);
+
+        first.acknowledge();
+        third.acknowledge();
+        CompletableFuture.runAsync(() -> second.fail(new IllegalStateException("broker unavailable")))
+                .get(1, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> watermark.finishBatch(committer))
+                .isInstanceOf(DebeziumException.class)
+                .hasRootCauseMessage("broker unavailable");
+        assertThat(committer.keys()).containsExactly("1");
+        assertThat(committer.batchesFinished()).isZero();
+        assertThat(watermark.inFlight()).isZero();
+
+        // The failed batch is redelivered from a clean watermark, a late failure of a dropped record is ignored
+        second.fail(new IllegalStateException("late failure"));
+        watermark.track(event("a", "2", "value"), committer).acknowledge();
+        watermark.track(event("a", "3", "value"), committer).acknowledge();
+        watermark.finishBatch(committer);
+        assertThat(committer.keys()).containsExactly("1", "2", "3");
+        assertThat(committer.batchesFinished()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldKeepFailureOfFinishedBatch() throws Exception {
+        final AcknowledgementWatermark watermark = new AcknowledgementWatermark("test", 1);
+        final RecordingCommitter committer = new RecordingCommitter();
+        final AcknowledgementWatermark.Acknowledgement first = watermark.track(event("a", "1", "value"), committer);
+        watermark.finishBatch(committer);
+
+        // The finished batch cannot be redelivered, so the sink keeps failing
+        first.fail(new IllegalStateException("broker unavailable"));
+        assertThatThrownBy(() -> watermark.track(event("a", "2", "value"), committer)).isInstanceOf(DebeziumException.class);
+        assertThatThrownBy(() -> watermark.track(event("a", "2", "value"), committer)).isInstanceOf(DebeziumException.class);
+        assertThat(watermark.drain(Duration.ofMillis(10))).isFalse();
+    }
+
+    @Test
+    public void shouldReportNotDrainedInTime() throws Exception {
+        final AcknowledgementWatermark watermark = new AcknowledgementWatermark("test", 1);
+        final RecordingCommitter committer = new RecordingCommitter();
+        watermark.track(event("a", "1", "value"), committer);
+
+        watermark.finishBatch(committer);
+        assertThat(watermark.drain(Duration.ofMillis(10))).isFalse();
+        assertThat(watermark.inFlight()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static io.debezium.server.TestChangeEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.server.TestChangeEvents.RecordingCommitter;
+
+public class AdaptiveBatchingChangeConsumerTest {
+
+    @Test
+    public void shouldSplitBatchesAndShrinkOnSlowDelivery() throws Exception {
+        final List<Integer> batchSizes = new ArrayList<>();
+        try (AdaptiveBatchingChangeConsumer consumer = new AdaptiveBatchingChangeConsumer("test", (records, c) -> {
+            batchSizes.add(records.size());
+            Thread.sleep(20);
+        }, Duration.ofMillis(10), 1, 8, 8, Duration.ofMillis(100), () -> 0)) {
+
+            consumer.handleBatch(events(8), new RecordingCommitter());
+            assertThat(batchSizes).containsExactly(8);
+            assertThat(consumer.getBatchSize()).isEqualTo(4);
+
+            consumer.handleBatch(events(8), new RecordingCommitter());
+            assertThat(batchSizes).containsExactly(8, 4, 2, 1, 1);
+            assertThat(consumer.getBatchSize()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void shouldGrowOnFastDelivery() throws Exception {
+        try (AdaptiveBatchingChangeConsumer consumer = new AdaptiveBatchingChangeConsumer("test", (records, c) -> {
+        }, Duration.ofSeconds(10), 1, 16, 8, Duration.ofMillis(100), () -> 0)) {
+
+            consumer.handleBatch(events(8), new RecordingCommitter());
+            assertThat(consumer.getBatchSize()).isEqualTo(10);
+        }
+    }
+
+    @Test
+    public void shouldCoalesceBatchesWhileRecordsArePending() throws Exception {
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        final RecordingCommitter committer = new RecordingCommitter();
+        try (AdaptiveBatchingChangeConsumer consumer = new AdaptiveBatchingChangeConsumer("test", (records, c) -> {
+            batchSizes.add(records.size());
+            for (ChangeEvent<Object, Object> record : records) {
+                c.markProcessed(record);
+            }
+            c.markBatchFinished();
+        }, Duration.ofSeconds(10), 1, 8, 8, Duration.ofSeconds(10), () -> 1)) {
+
+            consumer.handleBatch(events(3), committer);
+            consumer.handleBatch(events(3), committer);
+            assertThat(batchSizes).isEmpty();
+            assertThat(committer.values()).isEmpty();
+
+            consumer.handleBatch(events(3), committer);
+            assertThat(batchSizes).containsExactly(8, 1);
+            assertThat(committer.values()).hasSize(9);
+        }
+    }
+
+    @Test
+    public void shouldDeliverAndFlushLingeringRecordsOnTimerThread() throws Exception {
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final RecordingCommitter committer = new RecordingCommitter();
+        try (AdaptiveBatchingChangeConsumer consumer = new AdaptiveBatchingChangeConsumer("test", (records, c) -> {
+            for (ChangeEvent<Object, Object> record : records) {
+                c.markProcessed(record);
+            }
+            c.markBatchFinished();
+            delivered.countDown();
+        }, Duration.ofSeconds(10), 1, 8, 8, Duration.ofMillis(50), () -> 1)) {
+
+            consumer.handleBatch(events(2), committer);
+            assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(committer.values()).hasSize(2);
+            // Flushed without waiting for the next batch of the engine
+            assertThat(committer.flushThreads).hasSize(1).noneMatch(name -> name.equals(Thread.currentThread().getName()));
+
+            consumer.handleBatch(events(8), committer);
+            assertThat(committer.flushThreads).hasSize(2).last().isEqualTo(Thread.currentThread().getName());
+        }
+    }
+
+    private static List<ChangeEvent<Object, Object>> events(int count) {
+        final List<ChangeEvent<Object, Object>> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(event("test", null, Integer.toString(i)));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class CachingStreamNameMapperTest {
+
+    @Test
+    public void shouldMapEachDestinationOnce() {
+        final AtomicInteger calls = new AtomicInteger();
+        final CachingStreamNameMapper mapper = new CachingStreamNameMapper(topic -> {
+            calls.incrementAndGet();
+            return "mapped." + topic;
+        }, "test", 16);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(mapper.map("a")).isEqualTo("mapped.a");
+            assertThat(mapper.map("b")).isEqualTo("mapped.b");
+        }
+
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(mapper.misses()).isEqualTo(2);
+        assertThat(mapper.hits()).isEqualTo(198);
+    }
+
+    @Test
+    public void shouldNotCacheNullResults() {
+        final AtomicInteger calls = new AtomicInteger();
+        final CachingStreamNameMapper mapper = new CachingStreamNameMapper(topic -> {
+            calls.incrementAndGet();
+            return null;
+        }, "test", 16);
+
+        assertThat(mapper.map("a")).isNull();
+        assertThat(mapper.map("a")).isNull();
+        assertThat(calls.get()).isEqualTo(2);
+    }
+}
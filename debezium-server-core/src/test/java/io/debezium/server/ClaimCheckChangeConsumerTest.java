@@ -0,0 +1,70 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static io.debezium.server.TestChangeEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.server.TestChangeEvents.RecordingCommitter;
+
+public class ClaimCheckChangeConsumerTest {
+
+    private static final String LARGE = "{\"after\":{\"id\":1,\"description\":\"" + "x".repeat(2048) + "\"}}";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldOffloadLargeValuesAndAcknowledgeOriginals() throws Exception {
+        final FileSystemBlobStore store = new FileSystemBlobStore();
+        store.configure("test", Map.of("directory", directory.toString()));
+        final List<ChangeEvent<Object, Object>> delivered = new ArrayList<>();
+        final RecordingCommitter committer = new RecordingCommitter();
+        final ClaimCheckChangeConsumer consumer = new ClaimCheckChangeConsumer("test", (records, c) -> {
+            for (ChangeEvent<Object, Object> record : records) {
+                delivered.add(record);
+                c.markProcessed(record);
+            }
+            c.markBatchFinished();
+        }, store, 1024);
+
+        final ChangeEvent<Object, Object> large = event("topic", "key", LARGE);
+        final ChangeEvent<Object, Object> largeBytes = event("topic", "key", LARGE.getBytes(StandardCharsets.UTF_8));
+        final ChangeEvent<Object, Object> small = event("topic", "key", "{\"id\":1}");
+        final ChangeEvent<Object, Object> tombstone = event("topic", "key", null);
+        consumer.handleBatch(List.of(large, largeBytes, small, tombstone), committer);
+
+        assertThat(delivered).hasSize(4);
+        final String reference = delivered.get(0).headers().stream()
+                .filter(header -> header.getKey().equals(ClaimCheckChangeConsumer.HEADER_REFERENCE))
+                .map(header -> (String) header.getValue())
+                .findFirst()
+                .orElseThrow();
+        assertThat((String) delivered.get(0).value()).startsWith("{\"claimCheck\":{\"reference\":\"" + reference + "\",\"sha256\":\"")
+                .endsWith("\"size\":" + LARGE.length() + "}}");
+        assertThat(new String(store.get(reference), StandardCharsets.UTF_8)).isEqualTo(LARGE);
+        assertThat(delivered.get(0).key()).isEqualTo("key");
+        assertThat(delivered.get(0).destination()).isEqualTo("topic");
+
+        // The same payload is stored once and the envelope keeps the type of the value
+        assertThat(delivered.get(1).value()).isEqualTo(((String) delivered.get(0).value()).getBytes(StandardCharsets.UTF_8));
+        assertThat(delivered.get(2)).isSameAs(small);
+        assertThat(delivered.get(3)).isSameAs(tombstone);
+
+        assertThat(committer.processed).containsExactly(large, largeBytes, small, tombstone);
+        assertThat(committer.batchesFinished()).isEqualTo(1);
+    }
+}
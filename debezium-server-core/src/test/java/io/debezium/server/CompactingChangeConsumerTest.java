@@ -0,0 +1,66 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static io.debezium.server.TestChangeEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.server.TestChangeEvents.RecordingCommitter;
+
+public class CompactingChangeConsumerTest {
+
+    @Test
+    public void shouldKeepLastRecordPerDestinationAndKey() throws Exception {
+        final List<ChangeEvent<Object, Object>> delivered = new ArrayList<>();
+        final RecordingCommitter committer = new RecordingCommitter();
+        final CompactingChangeConsumer consumer = new CompactingChangeConsumer("test", (records, c) -> {
+            for (ChangeEvent<Object, Object> record : records) {
+                delivered.add(record);
+                c.markProcessed(record);
+            }
+            c.markBatchFinished();
+        });
+
+        final List<ChangeEvent<Object, Object>> batch = List.of(
+                event("a", "1", "a1"),
+                event("a", "2", "a2"),
+                event("b", "1", "b1"),
+                event("a", "1", "a1'"),
+                event("a", "1", "a1''"),
+                event("a", "2", null),
+                event("a", "3".getBytes(StandardCharsets.UTF_8), "a3"),
+                event("a", "3".getBytes(StandardCharsets.UTF_8), "a3'"));
+        consumer.handleBatch(batch, committer);
+
+        assertThat(delivered).extracting(ChangeEvent::value).containsExactly("a2", "b1", "a1''", null, "a3'");
+        assertThat(committer.processed).containsExactlyElementsOf(batch);
+        assertThat(committer.batchesFinished()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldAcknowledgeSupersededRecordsInOrder() throws Exception {
+        final RecordingCommitter committer = new RecordingCommitter();
+        final List<ChangeEvent<Object, Object>> batch = List.of(event("a", "1", "a1"), event("a", "2", "a2"), event("a", "1", "a1'"));
+        final CompactingChangeConsumer consumer = new CompactingChangeConsumer("test", (records, c) -> {
+            // The sink acknowledges the retained records in reverse order
+            c.markProcessed(records.get(1));
+            assertThat(committer.processed).containsExactly(batch.get(0));
+            c.markProcessed(records.get(0));
+            c.markBatchFinished();
+        });
+
+        consumer.handleBatch(batch, committer);
+
+        assertThat(committer.processed).containsExactlyElementsOf(batch);
+    }
+}
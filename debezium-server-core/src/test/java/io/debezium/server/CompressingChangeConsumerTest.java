@@ -0,0 +1,69 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static io.debezium.server.TestChangeEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.server.TestChangeEvents.RecordingCommitter;
+
+public class CompressingChangeConsumerTest {
+
+    private static final String PAYLOAD = ("{\"before\":null,\"after\":{\"id\":1001,\"first_name\":\"Sally\",\"last_name\":\"Thomas\"},"
+            + "\"source\":{\"version\":\"2.5.0\",\"connector\":\"postgresql\",\"name\":\"tutorial\",\"db\":\"postgres\"},"
+            + "\"op\":\"c\",\"ts_ms\":1559033904863,\"transaction\":null}").repeat(4);
+
+    @Test
+    public void shouldRoundTripAllCodecs() {
+        final byte[] payload = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+        for (PayloadCompressor.Codec codec : PayloadCompressor.Codec.values()) {
+            final byte[] compressed = new PayloadCompressor(codec, -1, null).compress("topic", payload);
+            if (codec != PayloadCompressor.Codec.NONE) {
+                assertThat(compressed.length).as(codec.value()).isLessThan(payload.length);
+            }
+            assertThat(PayloadCompressor.decompress(codec, compressed, null)).as(codec.value()).isEqualTo(payload);
+        }
+    }
+
+    @Test
+    public void shouldCompressValuesAndAcknowledgeOriginals() throws Exception {
+        final List<ChangeEvent<Object, Object>> delivered = new ArrayList<>();
+        final RecordingCommitter committer = new RecordingCommitter();
+        final CompressingChangeConsumer consumer = new CompressingChangeConsumer((records, c) -> {
+            for (ChangeEvent<Object, Object> record : records) {
+                delivered.add(record);
+                c.markProcessed(record);
+            }
+            c.markBatchFinished();
+        }, new PayloadCompressor(PayloadCompressor.Codec.ZSTD, 3, null), 64);
+
+        final ChangeEvent<Object, Object> large = event("topic", "key", PAYLOAD);
+        final ChangeEvent<Object, Object> small = event("topic", "key", "{\"id\":1}");
+        final ChangeEvent<Object, Object> tombstone = event("topic", "key", null);
+        consumer.handleBatch(List.of(large, small, tombstone), committer);
+
+        assertThat(delivered).hasSize(3);
+        assertThat(delivered.get(0).value()).isInstanceOf(byte[].class);
+        assertThat(new String(PayloadCompressor.decompress(PayloadCompressor.Codec.ZSTD, (byte[]) delivered.get(0).value(), null), StandardCharsets.UTF_8))
+                .isEqualTo(PAYLOAD);
+        assertThat(delivered.get(0).headers()).anyMatch(header -> header.getKey().equals(CompressingChangeConsumer.HEADER_CODEC)
+                && header.getValue().equals("zstd"));
+        assertThat(delivered.get(0).destination()).isEqualTo("topic");
+        assertThat(delivered.get(0).key()).isEqualTo("key");
+        assertThat(delivered.get(1)).isSameAs(small);
+        assertThat(delivered.get(2)).isSameAs(tombstone);
+
+        assertThat(committer.processed).containsExactly(large, small, tombstone);
+        assertThat(committer.batchesFinished()).isEqualTo(1);
+    }
+}
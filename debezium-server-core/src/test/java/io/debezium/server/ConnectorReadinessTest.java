@@ -0,0 +1,122 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class ConnectorReadinessTest {
+
+    @Test
+    public void shouldBeUpWithinThresholds() {
+        final ServerStatus status = readiness().evaluate(metrics(100, 10, 1000), true, 5);
+
+        assertThat(status.getState()).isEqualTo(ServerStatus.State.UP);
+        assertThat(status.getReasons()).isEmpty();
+        assertThat(status.getQueueFillRatio()).isEqualTo(0.01);
+    }
+
+    @Test
+    public void shouldStayUpWithDetailWhenMetricsUnavailable() {
+        final ServerStatus status = readiness().evaluate(ConnectorMetricsSnapshot.unavailable(0), true, 0);
+
+        assertThat(status.getState()).isEqualTo(ServerStatus.State.UP);
+        assertThat(status.getReasons()).containsExactly("metrics unavailable");
+
+        final ConnectorReadiness readiness = readiness();
+        final Map<String, ServerStatus> pipelines = new LinkedHashMap<>();
+        pipelines.put("orders", readiness.evaluate(ConnectorMetricsSnapshot.unavailable(0), true, 0));
+        pipelines.put("customers", readiness.evaluate(metrics(100, 10, 1000), true, 0));
+        final ServerStatus server = readiness.evaluate(pipelines, 0);
+        assertThat(server.getState()).isEqualTo(ServerStatus.State.UP);
+        assertThat(server.getReasons()).containsExactly("orders: metrics unavailable");
+    }
+
+    @Test
+    public void shouldBeDownWhenNotLive() {
+        final ServerStatus status = readiness().evaluate(ConnectorMetricsSnapshot.unavailable(0), false, 0);
+
+        assertThat(status.getState()).isEqualTo(ServerStatus.State.DOWN);
+        assertThat(status.getReasons()).containsExactly("not live", "metrics unavailable");
+    }
+
+    @Test
+    public void shouldDegradeAndFailOnThresholds() {
+        final ConnectorReadiness readiness = readiness();
+
+        ServerStatus status = readiness.evaluate(metrics(70_000, 950, 1000), true, 5);
+        assertThat(status.getState()).isEqualTo(ServerStatus.State.DEGRADED);
+        assertThat(status.getReasons()).containsExactly("lag", "queue fill");
+
+        status = readiness.evaluate(metrics(100, 10, 1000), true, 500);
+        assertThat(status.getState()).isEqualTo(ServerStatus.State.DEGRADED);
+        assertThat(status.getReasons()).containsExactly("records in flight");
+
+        status = readiness.evaluate(metrics(700_000, 950, 1000), true, 500);
+        assertThat(status.getState()).isEqualTo(ServerStatus.State.DOWN);
+        assertThat(status.getReasons()).containsExactly("lag");
+    }
+
+    @Test
+    public void shouldIgnoreUnknownLagAndDisabledThresholds() {
+        final ConnectorReadiness readiness = readiness();
+        readiness.inFlightDegraded = 0;
+
+        final ServerStatus status = readiness.evaluate(metrics(-1, 0, 1000), true, 1_000_000);
+
+        assertThat(status.getState()).isEqualTo(ServerStatus.State.UP);
+    }
+
+    @Test
+    public void shouldSerializeStatusToJson() {
+        final ServerStatus status = readiness().evaluate(metrics(70_000, 0, 1000), true, 3);
+
+        assertThat(status.toJson()).isEqualTo("{\"state\":\"DEGRADED\",\"live\":true,\"milliSecondsBehindSource\":70000,\"queueCurrentSize\":0,"
+                + "\"queueTotalCapacity\":1000,\"queueFillRatio\":0.0,\"recordsInFlight\":3,\"reasons\":[\"lag\"]}");
+    }
+
+    @Test
+    public void shouldReportWorstPipeline() {
+        final ConnectorReadiness readiness = readiness();
+        final Map<String, ServerStatus> pipelines = new LinkedHashMap<>();
+        pipelines.put("orders", readiness.evaluate(metrics(100, 10, 1000), true, 0));
+        pipelines.put("customers", readiness.evaluate(metrics(700_000, 20, 1000), true, 0));
+
+        ServerStatus status = readiness.evaluate(pipelines, 5);
+        assertThat(status.getState()).isEqualTo(ServerStatus.State.DOWN);
+        assertThat(status.getReasons()).containsExactly("customers: lag");
+        assertThat(status.getMilliSecondsBehindSource()).isEqualTo(700_000);
+        assertThat(status.getQueueCurrentSize()).isEqualTo(30);
+        assertThat(status.getQueueTotalCapacity()).isEqualTo(2000);
+        assertThat(status.getPipelines().get("orders").getState()).isEqualTo(ServerStatus.State.UP);
+        assertThat(status.toJson()).contains("\"pipelines\":{\"orders\":{\"state\":\"UP\"");
+
+        pipelines.put("customers", readiness.evaluate(ConnectorMetricsSnapshot.unavailable(0), false, 0));
+        status = readiness.evaluate(pipelines, 500);
+        assertThat(status.getState()).isEqualTo(ServerStatus.State.DOWN);
+        assertThat(status.isLive()).isFalse();
+        assertThat(status.getReasons()).containsExactly("customers: not live", "customers: metrics unavailable");
+    }
+
+    private static ConnectorReadiness readiness() {
+        final ConnectorReadiness readiness = new ConnectorReadiness();
+        readiness.lagDegradedMs = 60_000;
+        readiness.lagUnhealthyMs = 600_000;
+        readiness.queueDegradedRatio = 0.9;
+        readiness.queueUnhealthyRatio = 0;
+        readiness.inFlightDegraded = 100;
+        readiness.inFlightUnhealthy = 0;
+        return readiness;
+    }
+
+    private static ConnectorMetricsSnapshot metrics(long lag, int queueSize, int queueCapacity) {
+        return new ConnectorMetricsSnapshot(true, false, true, queueCapacity, queueCapacity - queueSize, lag, 0);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static io.debezium.server.TestChangeEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.server.TestChangeEvents.RecordingCommitter;
+
+public class DeadLetterChangeConsumerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldMovePoisonRecordToDeadLetterQueue() throws Exception {
+        final List<String> delivered = new ArrayList<>();
+        final RecordingCommitter committer = new RecordingCommitter();
+        try (DeadLetterQueue queue = new DeadLetterQueue(directory, 1024 * 1024, 2)) {
+            final DeadLetterChangeConsumer consumer = new DeadLetterChangeConsumer("test", (records, c) -> {
+                for (ChangeEvent<Object, Object> record : records) {
+                    if ("poison".equals(record.value())) {
+                        throw new DebeziumException("Unexpected data type");
+                    }
+                    delivered.add((String) record.value());
+                    c.markProcessed(record);
+                }
+                c.markBatchFinished();
+            }, queue, null, 3);
+
+            consumer.handleBatch(List.of(event("topic", null, "1"), event("topic", null, "poison"), event("topic", null, "3")), committer);
+
+            assertThat(delivered).containsExactly("1", "3");
+            assertThat(committer.values()).containsExactly("1", "poison", "3");
+
+            final List<Path> segments = DeadLetterQueue.list(directory);
+            assertThat(segments).hasSize(1);
+            final List<DeadLetterQueue.DeadLetter> deadLetters = DeadLetterQueue.read(segments.get(0));
+            assertThat(deadLetters).hasSize(1);
+            assertThat(deadLetters.get(0).getSink()).isEqualTo("test");
+            assertThat(deadLetters.get(0).getReason()).contains("Unexpected data type");
+            assertThat(deadLetters.get(0).getRecord().value()).isEqualTo("poison");
+            assertThat(deadLetters.get(0).getRecord().destination()).isEqualTo("topic");
+        }
+    }
+
+    @Test
+    public void shouldSendDeadLetterToDestinationWithoutAcknowledgingIt() throws Exception {
+        final List<ChangeEvent<Object, Object>> deadLetters = new ArrayList<>();
+        final RecordingCommitter committer = new RecordingCommitter();
+        try (DeadLetterQueue queue = new DeadLetterQueue(directory, 1024 * 1024, 2)) {
+            final DeadLetterChangeConsumer consumer = new DeadLetterChangeConsumer("test", (records, c) -> {
+                for (ChangeEvent<Object, Object> record : records) {
+                    if ("dlq".equals(record.destination())) {
+                        deadLetters.add(record);
+                    }
+                    else if ("poison".equals(record.value())) {
+                        throw new DebeziumException("too large");
+                    }
+                    c.markProcessed(record);
+                }
+            }, queue, "dlq", 3);
+
+            // Without a later delivery the failure may as well be an outage, so the record is only suspected
+            consumer.handleBatch(List.of(event("topic", null, "poison")), committer);
+            assertThat(deadLetters).isEmpty();
+            assertThat(committer.values()).isEmpty();
+            assertThat(committer.batchesFinished()).isEqualTo(1);
+
+            consumer.handleBatch(List.of(event("topic", null, "1")), committer);
+
+            assertThat(deadLetters).hasSize(1);
+            assertThat(deadLetters.get(0).value()).isEqualTo("poison");
+            assertThat(deadLetters.get(0).headers()).anyMatch(header -> header.getKey().equals(DeadLetterChangeConsumer.HEADER_REASON)
+                    && header.getValue().toString().contains("too large"));
+            assertThat(deadLetters.get(0).headers()).anyMatch(header -> header.getKey().equals(DeadLetterChangeConsumer.HEADER_DESTINATION)
+                    && header.getValue().equals("topic"));
+            assertThat(committer.values()).containsExactly("poison", "1");
+        }
+    }
+
+    @Test
+    public void shouldFailWhenSinkIsUnavailable() throws Exception {
+        try (DeadLetterQueue queue = new DeadLetterQueue(directory, 1024 * 1024, 2)) {
+            final DeadLetterChangeConsumer consumer = new DeadLetterChangeConsumer("test", (records, c) -> {
+                throw new DebeziumException("connection refused");
+            }, queue, null, 3);
+
+            final RecordingCommitter committer = new RecordingCommitter();
+            assertThatThrownBy(() -> consumer.handleBatch(List.of(event("topic", null, "1"), event("topic", null, "2"), event("topic", null, "3"), event("topic", null, "4")), committer))
+                    .isInstanceOf(DebeziumException.class)
+                    .hasMessageContaining("considered unavailable")
+                    .hasRootCauseMessage("connection refused");
+            assertThat(committer.values()).isEmpty();
+            // No healthy record is moved to the dead-letter queue by the outage
+            assertThat(DeadLetterQueue.list(directory)).isEmpty();
+        }
+    }
+
+    @Test
+    public void shouldRejectDeadLettersWhenQueueIsFull() throws Exception {
+        try (DeadLetterQueue queue = new DeadLetterQueue(directory, 1, 1)) {
+            queue.write("test", event("topic", null, "1"), "reason");
+            assertThatThrownBy(() -> queue.write("test", event("topic", null, "2"), "reason"))
+                    .isInstanceOf(DebeziumException.class)
+                    .hasMessageContaining("is full");
+            assertThat(DeadLetterQueue.read(DeadLetterQueue.list(directory).get(0))).hasSize(1);
+        }
+
+        // The deletion of the oldest segments must be enabled explicitly
+        try (DeadLetterQueue queue = new DeadLetterQueue(directory, 1, 1, true)) {
+            queue.write("test", event("topic", null, "3"), "reason");
+            final List<Path> segments = DeadLetterQueue.list(directory);
+            assertThat(segments).hasSize(1);
+            assertThat(DeadLetterQueue.read(segments.get(0))).extracting(deadLetter -> deadLetter.getRecord().value()).containsExactly("3");
+        }
+    }
+}
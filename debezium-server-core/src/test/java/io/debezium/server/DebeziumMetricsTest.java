@@ -0,0 +1,132 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.debezium.DebeziumException;
+
+public class DebeziumMetricsTest {
+
+    private static final String SNAPSHOT_MBEAN = "debezium.test:type=connector-metrics,context=snapshot,server=unit";
+    private static final String STREAMING_MBEAN = "debezium.test:type=connector-metrics,context=streaming,server=unit";
+    private static final String OTHER_SNAPSHOT_MBEAN = "debezium.test:type=connector-metrics,context=snapshot,server=other";
+    private static final String OTHER_STREAMING_MBEAN = "debezium.test:type=connector-metrics,context=streaming,server=other";
+
+    public interface TestSnapshotMetricsMXBean {
+        boolean getSnapshotRunning();
+
+        boolean getSnapshotCompleted();
+    }
+
+    public interface TestStreamingMetricsMXBean {
+        int getQueueTotalCapacity();
+
+        int getQueueRemainingCapacity();
+
+        long getMilliSecondsBehindSource();
+    }
+
+    public static class TestSnapshotMetrics implements TestSnapshotMetricsMXBean {
+        @Override
+        public boolean getSnapshotRunning() {
+            return false;
+        }
+
+        @Override
+        public boolean getSnapshotCompleted() {
+            return true;
+        }
+    }
+
+    public static class TestStreamingMetrics implements TestStreamingMetricsMXBean {
+        volatile int remainingCapacity = 8192;
+
+        @Override
+        public int getQueueTotalCapacity() {
+            return 8192;
+        }
+
+        @Override
+        public int getQueueRemainingCapacity() {
+            return remainingCapacity;
+        }
+
+        @Override
+        public long getMilliSecondsBehindSource() {
+            return 42;
+        }
+    }
+
+    @AfterEach
+    public void unregister() throws Exception {
+        for (String name : new String[]{ SNAPSHOT_MBEAN, STREAMING_MBEAN, OTHER_SNAPSHOT_MBEAN, OTHER_STREAMING_MBEAN }) {
+            if (DebeziumMetrics.mbeanServer.isRegistered(new ObjectName(name))) {
+                DebeziumMetrics.mbeanServer.unregisterMBean(new ObjectName(name));
+            }
+        }
+    }
+
+    @Test
+    public void shouldReportUnavailableMetricsBeforeConnectorStarts() {
+        final DebeziumMetrics metrics = new DebeziumMetrics();
+
+        assertThat(metrics.snapshot().isAvailable()).isFalse();
+        assertThatThrownBy(metrics::maxQueueSize).isInstanceOf(DebeziumException.class);
+    }
+
+    @Test
+    public void shouldServeCachedSnapshotWithinMaxAge() throws Exception {
+        final TestStreamingMetrics streaming = new TestStreamingMetrics();
+        DebeziumMetrics.mbeanServer.registerMBean(new TestSnapshotMetrics(), new ObjectName(SNAPSHOT_MBEAN));
+        DebeziumMetrics.mbeanServer.registerMBean(streaming, new ObjectName(STREAMING_MBEAN));
+
+        final DebeziumMetrics metrics = new DebeziumMetrics();
+        metrics.maxAgeMs = 60_000;
+
+        final ConnectorMetricsSnapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.isAvailable()).isTrue();
+        assertThat(snapshot.isSnapshotCompleted()).isTrue();
+        assertThat(snapshot.getQueueCurrentSize()).isZero();
+        assertThat(snapshot.getMilliSecondsBehindSource()).isEqualTo(42);
+        assertThat(metrics.getStreamingMetricsObjectName()).isEqualTo(new ObjectName(STREAMING_MBEAN));
+
+        streaming.remainingCapacity = 8000;
+        assertThat(metrics.snapshot()).isSameAs(snapshot);
+
+        metrics.maxAgeMs = 0;
+        assertThat(metrics.streamingQueueCurrentSize()).isEqualTo(192);
+    }
+
+    @Test
+    public void shouldReadMetricsOfPipelineConnector() throws Exception {
+        final TestStreamingMetrics streaming = new TestStreamingMetrics();
+        final TestStreamingMetrics otherStreaming = new TestStreamingMetrics();
+        otherStreaming.remainingCapacity = 0;
+        DebeziumMetrics.mbeanServer.registerMBean(new TestSnapshotMetrics(), new ObjectName(OTHER_SNAPSHOT_MBEAN));
+        DebeziumMetrics.mbeanServer.registerMBean(otherStreaming, new ObjectName(OTHER_STREAMING_MBEAN));
+        DebeziumMetrics.mbeanServer.registerMBean(new TestSnapshotMetrics(), new ObjectName(SNAPSHOT_MBEAN));
+        DebeziumMetrics.mbeanServer.registerMBean(streaming, new ObjectName(STREAMING_MBEAN));
+
+        final DebeziumMetrics metrics = new DebeziumMetrics();
+        final DebeziumMetrics unit = metrics.forPipeline("a", "unit");
+        final DebeziumMetrics other = metrics.forPipeline("b", "other");
+
+        assertThat(metrics.pipelines()).containsOnlyKeys("a", "b");
+        assertThat(metrics.forPipeline("a", "unit")).isSameAs(unit);
+        assertThat(unit.getStreamingMetricsObjectName()).isEqualTo(new ObjectName(STREAMING_MBEAN));
+        assertThat(unit.streamingQueueCurrentSize()).isZero();
+        assertThat(other.getStreamingMetricsObjectName()).isEqualTo(new ObjectName(OTHER_STREAMING_MBEAN));
+        assertThat(other.streamingQueueCurrentSize()).isEqualTo(8192);
+        assertThat(metrics.forPipeline("c", "missing").snapshot().isAvailable()).isFalse();
+    }
+}
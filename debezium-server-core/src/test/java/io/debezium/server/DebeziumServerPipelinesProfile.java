@@ -0,0 +1,46 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.connect.runtime.standalone.StandaloneConfig;
+
+import io.debezium.util.Testing;
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+/**
+ * Runs the file connector of {@link TestConfigSource} in two pipelines reading their own files and a third pipeline
+ * whose connector cannot be started, all of them delivering to the shared test sink.
+ */
+public class DebeziumServerPipelinesProfile implements QuarkusTestProfile {
+
+    public static final Path INPUT_A = Testing.Files.createTestingPath("pipeline-a-input.txt").toAbsolutePath();
+    public static final Path INPUT_B = Testing.Files.createTestingPath("pipeline-b-input.txt").toAbsolutePath();
+    public static final Path OFFSETS_A = Testing.Files.createTestingPath("pipeline-a-offsets.txt").toAbsolutePath();
+    public static final Path OFFSETS_B = Testing.Files.createTestingPath("pipeline-b-offsets.txt").toAbsolutePath();
+    public static final Path OFFSETS_BROKEN = Testing.Files.createTestingPath("pipeline-broken-offsets.txt").toAbsolutePath();
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        final Map<String, String> config = new HashMap<>();
+        config.put("debezium.pipelines", "a,b,broken");
+        pipeline(config, "a", INPUT_A, OFFSETS_A);
+        pipeline(config, "b", INPUT_B, OFFSETS_B);
+        config.put("debezium.pipelines.broken.source.connector.class", "io.debezium.server.NoSuchConnector");
+        config.put("debezium.pipelines.broken.source." + StandaloneConfig.OFFSET_STORAGE_FILE_FILENAME_CONFIG, OFFSETS_BROKEN.toString());
+        return config;
+    }
+
+    private static void pipeline(Map<String, String> config, String name, Path input, Path offsets) {
+        final String prefix = "debezium.pipelines." + name + ".source.";
+        config.put(prefix + "file", input.toString());
+        config.put(prefix + "topic", "topic-" + name);
+        config.put(prefix + StandaloneConfig.OFFSET_STORAGE_FILE_FILENAME_CONFIG, offsets.toString());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+import io.debezium.server.events.ConnectorCompletedEvent;
+import io.debezium.util.Testing;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+
+/**
+ * Verifies that named pipelines run their own connectors with their own source properties, share the sink and keep
+ * running when another pipeline fails.
+ */
+@QuarkusTest
+@TestProfile(DebeziumServerPipelinesProfile.class)
+public class DebeziumServerPipelinesTest {
+
+    private static final List<ConnectorCompletedEvent> COMPLETIONS = Collections.synchronizedList(new ArrayList<>());
+
+    {
+        Testing.Files.delete(DebeziumServerPipelinesProfile.OFFSETS_A);
+        Testing.Files.delete(DebeziumServerPipelinesProfile.OFFSETS_B);
+        Testing.Files.delete(DebeziumServerPipelinesProfile.OFFSETS_BROKEN);
+    }
+
+    void connectorCompleted(@Observes ConnectorCompletedEvent event) {
+        COMPLETIONS.add(event);
+    }
+
+    @Inject
+    DebeziumServer server;
+
+    @Inject
+    ConnectorLifecycle lifecycle;
+
+    @Test
+    public void shouldRunPipelinesIndependentlyWithSharedSink() throws Exception {
+        // The file connectors wait for their input files to be created
+        write(DebeziumServerPipelinesProfile.INPUT_A, "a1", "a2");
+        write(DebeziumServerPipelinesProfile.INPUT_B, "b1");
+
+        // The pipeline with an unknown connector class fails on its own
+        Awaitility.await().atMost(Duration.ofSeconds(TestConfigSource.waitForSeconds()))
+                .until(() -> COMPLETIONS.stream().anyMatch(event -> !event.isSuccess()));
+        assertThat(lifecycle.forPipeline("broken").isLive()).isFalse();
+
+        // Both remaining pipelines read their own file and deliver to the single shared sink instance
+        final TestConsumer testConsumer = (TestConsumer) server.getConsumer();
+        Awaitility.await().atMost(Duration.ofSeconds(TestConfigSource.waitForSeconds())).until(() -> testConsumer.getValues().size() >= 3);
+        assertThat(testConsumer.getValues()).containsExactlyInAnyOrder("{\"line\":\"a1\"}", "{\"line\":\"a2\"}", "{\"line\":\"b1\"}");
+        assertThat(lifecycle.forPipeline("a").isLive()).isTrue();
+        assertThat(lifecycle.forPipeline("b").isLive()).isTrue();
+        assertThat(lifecycle.isLive()).isFalse();
+
+        // The healthy pipelines keep streaming after the failure
+        write(DebeziumServerPipelinesProfile.INPUT_A, "a3");
+        Awaitility.await().atMost(Duration.ofSeconds(TestConfigSource.waitForSeconds())).until(() -> testConsumer.getValues().size() >= 4);
+        assertThat(testConsumer.getValues()).contains("{\"line\":\"a3\"}");
+        assertThat(server.getProps().getProperty("file")).isNotEqualTo(DebeziumServerPipelinesProfile.INPUT_A.toString());
+    }
+
+    private static void write(Path file, String... lines) throws IOException {
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static io.debezium.server.TestChangeEvents.event;
+import static io.debezium.server.TestChangeEvents.header;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.debezium.server.TestChangeEvents.RecordingCommitter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class EndToEndLatencyChangeConsumerTest {
+
+    private static final String SCHEMA = "{\"type\":\"struct\",\"fields\":[{\"type\":\"int64\",\"optional\":false,\"field\":\"ts_ms\"}],"
+            + "\"optional\":false,\"name\":\"io.debezium.connector.postgresql.Source\",\"field\":\"source\"}";
+
+    @Test
+    public void shouldExtractSourceTimestamp() {
+        assertThat(SourceTimestamps.extract(event("a", "key", value(1234)), null)).isEqualTo(1234);
+        assertThat(SourceTimestamps.extract(event("a", "key", "{\"schema\":" + SCHEMA + ",\"payload\":" + value(1234) + "}"), null)).isEqualTo(1234);
+        assertThat(SourceTimestamps.extract(event("a", "key", value(1234).getBytes(StandardCharsets.UTF_8)), null)).isEqualTo(1234);
+        assertThat(SourceTimestamps.extract(event("a", "key", "{\"op\":\"c\",\"ts_ms\":1}"), null)).isEqualTo(SourceTimestamps.UNKNOWN);
+        assertThat(SourceTimestamps.extract(event("a", "key", null), null)).isEqualTo(SourceTimestamps.UNKNOWN);
+
+        assertThat(SourceTimestamps.extract(event("a", "key", new byte[]{ 1, 2 }, null, header("source_ts", "\"5678\"")), "source_ts")).isEqualTo(5678);
+        assertThat(SourceTimestamps.extract(event("a", "key", value(1234), null, header("source_ts", 5678L)), "source_ts")).isEqualTo(5678);
+        assertThat(SourceTimestamps.extract(event("a", "key", value(1234)), "source_ts")).isEqualTo(SourceTimestamps.UNKNOWN);
+    }
+
+    @Test
+    public void shouldRecordLatencyOnAcknowledgement() throws Exception {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final long committed = System.currentTimeMillis() - 5000;
+        final EndToEndLatencyChangeConsumer consumer = new EndToEndLatencyChangeConsumer("test", (records, committer) -> {
+            // Only the first record is acknowledged
+            committer.markProcessed(records.get(0));
+            committer.markBatchFinished();
+        }, registry, null, null);
+
+        consumer.handleBatch(List.of(event("a", "key", value(committed)), event("b", "key", value(committed))), new RecordingCommitter());
+
+        final Timer latency = registry.get("debezium.sink.end.to.end.latency").tags("sink", "test", "destination", "a").timer();
+        assertThat(latency.count()).isEqualTo(1);
+        assertThat(latency.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(5000);
+        assertThat(registry.find("debezium.sink.end.to.end.latency").tags("destination", "b").timer()).isNull();
+    }
+
+    private static String value(long timestamp) {
+        return "{\"before\":null,\"after\":{\"id\":1},\"source\":{\"version\":\"2.5.0\",\"connector\":\"postgresql\",\"ts_ms\":" + timestamp
+                + ",\"db\":\"postgres\"},\"op\":\"c\",\"ts_ms\":" + (timestamp + 100) + "}";
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static io.debezium.server.TestChangeEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.server.TestChangeEvents.RecordingCommitter;
+
+public class FanOutChangeConsumerTest {
+
+    @Test
+    public void shouldCommitOnlyAfterAllConsumersHandledTheBatch() throws Exception {
+        final List<Object> first = Collections.synchronizedList(new ArrayList<>());
+        final List<Object> second = Collections.synchronizedList(new ArrayList<>());
+        final Map<String, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>> consumers = new LinkedHashMap<>();
+        consumers.put("first", (records, committer) -> {
+            for (ChangeEvent<Object, Object> record : records) {
+                first.add(record.value());
+                committer.markProcessed(record);
+            }
+            committer.markBatchFinished();
+        });
+        consumers.put("second", (records, committer) -> {
+            for (ChangeEvent<Object, Object> record : records) {
+                second.add(record.value());
+                committer.markProcessed(record);
+            }
+            committer.markBatchFinished();
+        });
+
+        final RecordingCommitter committer = new RecordingCommitter();
+        try (FanOutChangeConsumer fanOut = new FanOutChangeConsumer(consumers)) {
+            fanOut.handleBatch(List.of(event("test", null, "1"), event("test", null, "2")), committer);
+        }
+
+        assertThat(first).containsExactly("1", "2");
+        assertThat(second).containsExactly("1", "2");
+        assertThat(committer.values()).containsExactly("1", "2");
+        assertThat(committer.batchesFinished()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCommitWhenAnyConsumerFails() {
+        final Map<String, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>> consumers = new LinkedHashMap<>();
+        consumers.put("ok", (records, committer) -> {
+        });
+        consumers.put("failing", (records, committer) -> {
+            throw new DebeziumException("sink down");
+        });
+
+        final RecordingCommitter committer = new RecordingCommitter();
+        try (FanOutChangeConsumer fanOut = new FanOutChangeConsumer(consumers)) {
+            assertThatThrownBy(() -> fanOut.handleBatch(List.of(event("test", null, "1")), committer))
+                    .isInstanceOf(DebeziumException.class)
+                    .hasMessageContaining("failing");
+        }
+        assertThat(committer.values()).isEmpty();
+        assertThat(committer.batchesFinished()).isZero();
+    }
+
+    @Test
+    public void shouldCommitOnlyRecordsAcknowledgedByAllConsumersInOrder() throws Exception {
+        final AcknowledgementWatermark watermark = new AcknowledgementWatermark("async", 10);
+        final List<AcknowledgementWatermark.Acknowledgement> acknowledgements = Collections.synchronizedList(new ArrayList<>());
+        final Map<String, DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>> consumers = new LinkedHashMap<>();
+        consumers.put("sync", (records, committer) -> {
+            for (ChangeEvent<Object, Object> record : records) {
+                committer.markProcessed(record);
+            }
+            committer.markBatchFinished();
+        });
+        // Returns before its sends are acknowledged, like a sink with records in flight
+        consumers.put("async", (records, committer) -> {
+            for (ChangeEvent<Object, Object> record : records) {
+                acknowledgements.add(watermark.track(record, committer));
+            }
+            watermark.finishBatch(committer);
+        });
+
+        final RecordingCommitter committer = new RecordingCommitter();
+        try (FanOutChangeConsumer fanOut = new FanOutChangeConsumer(consumers)) {
+            fanOut.handleBatch(List.of(event("test", null, "1"), event("test", null, "2")), committer);
+            fanOut.handleBatch(List.of(event("test", null, "3")), committer);
+            assertThat(committer.values()).isEmpty();
+            assertThat(committer.batchesFinished()).isEqualTo(2);
+            assertThat(fanOut.inFlight()).isEqualTo(3);
+
+            // A later acknowledgement must not move the offsets past a pending record
+            acknowledgements.get(1).acknowledge();
+            acknowledgements.get(2).acknowledge();
+            assertThat(watermark.drain(Duration.ofMillis(10))).isFalse();
+            assertThat(committer.values()).isEmpty();
+
+            acknowledgements.get(0).acknowledge();
+            assertThat(watermark.drain(Duration.ofSeconds(1))).isTrue();
+            assertThat(committer.values()).containsExactly("1", "2", "3");
+            assertThat(fanOut.inFlight()).isZero();
+        }
+    }
+}
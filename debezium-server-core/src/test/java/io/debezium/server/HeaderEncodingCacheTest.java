@@ -0,0 +1,46 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class HeaderEncodingCacheTest {
+
+    @Test
+    public void shouldEncodeRepeatedHeadersOnce() {
+        final AtomicInteger encodings = new AtomicInteger();
+        final HeaderEncodingCache<String> cache = new HeaderEncodingCache<>(key -> key.toUpperCase(Locale.ROOT), value -> {
+            encodings.incrementAndGet();
+            return "encoded-" + value;
+        });
+
+        final String first = cache.value("dest", "op", "c");
+        assertThat(cache.value("dest", "op", "c")).isSameAs(first).isEqualTo("encoded-c");
+        assertThat(cache.value("other", "op", "c")).isEqualTo("encoded-c");
+        assertThat(encodings.get()).isEqualTo(2);
+
+        assertThat(cache.value("dest", "op", "u")).isEqualTo("encoded-u");
+        assertThat(encodings.get()).isEqualTo(3);
+
+        assertThat(cache.key("op")).isEqualTo("OP");
+        assertThat(cache.key("op")).isSameAs(cache.key("op"));
+    }
+
+    @Test
+    public void shouldCompareByteArrayValuesByContent() {
+        final AtomicInteger encodings = new AtomicInteger();
+        final HeaderEncodingCache<Integer> cache = new HeaderEncodingCache<>(key -> key, value -> encodings.incrementAndGet());
+
+        cache.value("dest", "h", new byte[]{ 1, 2 });
+        cache.value("dest", "h", new byte[]{ 1, 2 });
+        assertThat(encodings.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static io.debezium.server.TestChangeEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+
+public class KeyOrderedDispatcherTest {
+
+    @Test
+    public void shouldPreserveOrderPerKey() throws Exception {
+        final List<ChangeEvent<Object, Object>> records = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            records.add(event("test", "key" + (i % 10), i));
+        }
+
+        final Map<Object, List<Integer>> delivered = new ConcurrentHashMap<>();
+        try (KeyOrderedDispatcher dispatcher = new KeyOrderedDispatcher("test", 4)) {
+            dispatcher.dispatch(records, record -> delivered.computeIfAbsent(record.key(), k -> new ArrayList<>()).add((Integer) record.value()));
+        }
+
+        assertThat(delivered).hasSize(10);
+        delivered.forEach((key, values) -> assertThat(values).hasSize(100).isSorted());
+    }
+
+    @Test
+    public void shouldAssignSameLaneToEqualByteArrayKeys() {
+        try (KeyOrderedDispatcher dispatcher = new KeyOrderedDispatcher("test", 8)) {
+            assertThat(dispatcher.lane(new byte[]{ 1, 2, 3 })).isEqualTo(dispatcher.lane(new byte[]{ 1, 2, 3 }));
+            assertThat(dispatcher.lane(null)).isZero();
+        }
+    }
+
+    @Test
+    public void shouldPropagateLaneFailure() {
+        final List<ChangeEvent<Object, Object>> records = List.of(event("test", "a", 1), event("test", "b", 2), event("test", "c", 3));
+        try (KeyOrderedDispatcher dispatcher = new KeyOrderedDispatcher("test", 3)) {
+            assertThatThrownBy(() -> dispatcher.dispatch(records, record -> {
+                if ("b".equals(record.key())) {
+                    throw new DebeziumException("failed " + record.key());
+                }
+            })).isInstanceOf(DebeziumException.class).hasMessage("failed b");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static io.debezium.server.TestChangeEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+import io.debezium.server.TestChangeEvents.RecordingCommitter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MeteredChangeConsumerTest {
+
+    @Test
+    public void shouldCountRecordsAndBytesPerDestination() throws Exception {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final MeteredChangeConsumer consumer = new MeteredChangeConsumer("test", (records, committer) -> {
+            for (ChangeEvent<Object, Object> record : records) {
+                committer.markProcessed(record);
+            }
+            committer.markBatchFinished();
+        }, registry, true);
+
+        consumer.handleBatch(List.of(event("a", "key", "value"), event("a", null, "é"), event("b", new byte[3], null)), new RecordingCommitter());
+
+        assertThat(registry.get("debezium.sink.records").tags("sink", "test", "destination", "a").counter().count()).isEqualTo(2);
+        assertThat(registry.get("debezium.sink.bytes").tags("sink", "test", "destination", "a").counter().count()).isEqualTo(9);
+        assertThat(registry.get("debezium.sink.records").tags("sink", "test", "destination", "b").counter().count()).isEqualTo(1);
+        assertThat(registry.get("debezium.sink.bytes").tags("sink", "test", "destination", "b").counter().count()).isEqualTo(3);
+        assertThat(registry.get("debezium.sink.batch.duration").tags("sink", "test").timer().count()).isEqualTo(1);
+        assertThat(registry.get("debezium.sink.records.in.flight").tags("sink", "test").gauge().value()).isZero();
+    }
+
+    @Test
+    public void shouldNotCountBytesUnlessEnabled() throws Exception {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final MeteredChangeConsumer consumer = new MeteredChangeConsumer("test", (records, committer) -> {
+        }, registry);
+
+        consumer.handleBatch(List.of(event("a", "key", "value")), new RecordingCommitter());
+
+        assertThat(registry.get("debezium.sink.records").tags("sink", "test", "destination", "a").counter().count()).isEqualTo(1);
+        assertThat(registry.find("debezium.sink.bytes").counter()).isNull();
+    }
+
+    @Test
+    public void shouldNotCountRecordsOfFailedBatch() {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final MeteredChangeConsumer consumer = new MeteredChangeConsumer("test", (records, committer) -> {
+            throw new DebeziumException("sink down");
+        }, registry);
+
+        assertThatThrownBy(() -> consumer.handleBatch(List.of(event("a", null, "value")), new RecordingCommitter()))
+                .isInstanceOf(DebeziumException.class);
+        consumer.recordRetry("a");
+
+        assertThat(registry.find("debezium.sink.records").counter()).isNull();
+        assertThat(registry.get("debezium.sink.retries").tags("sink", "test", "destination", "a").counter().count()).isEqualTo(1);
+        assertThat(registry.get("debezium.sink.batch.duration").tags("sink", "test").timer().count()).isEqualTo(1);
+        assertThat(registry.get("debezium.sink.records.in.flight").tags("sink", "test").gauge().value()).isZero();
+    }
+
+    @Test
+    public void shouldKeepAsynchronouslyAcknowledgedRecordsInFlight() throws Exception {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final AsynchronousSink sink = new AsynchronousSink();
+        final MeteredChangeConsumer consumer = new MeteredChangeConsumer("test", sink, registry);
+
+        consumer.handleBatch(List.of(event("a", null, "1"), event("a", null, "2")), new RecordingCommitter());
+        consumer.handleBatch(List.of(event("a", null, "3")), new RecordingCommitter());
+        assertThat(registry.get("debezium.sink.records.in.flight").tags("sink", "test").gauge().value()).isEqualTo(3);
+
+        // The sends complete after handleBatch returned
+        sink.acknowledgements.get(0).acknowledge();
+        sink.acknowledgements.get(1).acknowledge();
+        sink.watermark.finishBatch(new RecordingCommitter());
+        assertThat(registry.get("debezium.sink.records.in.flight").tags("sink", "test").gauge().value()).isEqualTo(1);
+
+        // The record never acknowledged leaves the gauge when the sink is drained, the late acknowledgement is ignored
+        assertThat(consumer.drain(Duration.ofMillis(10))).isFalse();
+        assertThat(registry.get("debezium.sink.records.in.flight").tags("sink", "test").gauge().value()).isZero();
+        sink.acknowledgements.get(2).acknowledge();
+        sink.watermark.finishBatch(new RecordingCommitter());
+        assertThat(registry.get("debezium.sink.records.in.flight").tags("sink", "test").gauge().value()).isZero();
+    }
+
+    /**
+     * A sink that leaves its sends in flight when {@code handleBatch} returns.
+     */
+    private static class AsynchronousSink implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>, Drainable {
+
+        private final AcknowledgementWatermark watermark = new AcknowledgementWatermark("test", 100);
+        private final List<AcknowledgementWatermark.Acknowledgement> acknowledgements = new ArrayList<>();
+
+        @Override
+        public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
+                throws InterruptedException {
+            for (ChangeEvent<Object, Object> record : records) {
+                acknowledgements.add(watermark.track(record, committer));
+            }
+            watermark.finishBatch(committer);
+        }
+
+        @Override
+        public boolean drain(Duration timeout) throws InterruptedException {
+            return watermark.drain(timeout);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static io.debezium.server.TestChangeEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.server.TestChangeEvents.RecordingCommitter;
+
+public class PipelinedChangeConsumerTest {
+
+    @Test
+    public void shouldDeliverBatchesInOrderAndFlushOnSinkThread() throws Exception {
+        final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        final RecordingCommitter committer = new RecordingCommitter();
+        final PipelinedChangeConsumer pipeline = new PipelinedChangeConsumer((records, c) -> {
+            for (ChangeEvent<Object, Object> record : records) {
+                delivered.add((String) record.value());
+                c.markProcessed(record);
+            }
+            c.markBatchFinished();
+        }, 2);
+
+        pipeline.handleBatch(List.of(event("test", null, "1"), event("test", null, "2")), committer);
+        pipeline.handleBatch(List.of(event("test", null, "3")), committer);
+        pipeline.close(Duration.ofSeconds(5));
+
+        assertThat(delivered).containsExactly("1", "2", "3");
+        assertThat(committer.values()).containsExactly("1", "2", "3");
+        assertThat(committer.flushThreads).hasSize(2).noneMatch(name -> name.equals(Thread.currentThread().getName()));
+    }
+
+    @Test
+    public void shouldRethrowSinkFailureOnEngineThread() throws Exception {
+        final CountDownLatch failed = new CountDownLatch(1);
+        final PipelinedChangeConsumer pipeline = new PipelinedChangeConsumer((records, c) -> {
+            failed.countDown();
+            throw new DebeziumException("sink down");
+        }, 1);
+
+        pipeline.handleBatch(List.of(event("test", null, "1")), new RecordingCommitter());
+        assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> {
+            // The failure is recorded by the sink thread after the delegate throws
+            for (int i = 0; i < 50; i++) {
+                pipeline.handleBatch(List.of(event("test", null, "2")), new RecordingCommitter());
+                Thread.sleep(100);
+            }
+        }).isInstanceOf(DebeziumException.class).hasRootCauseMessage("sink down");
+        pipeline.close();
+    }
+
+    @Test
+    public void shouldDrainAcceptedBatchesAndRejectNewOnes() throws Exception {
+        final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        final RecordingCommitter committer = new RecordingCommitter();
+        final PipelinedChangeConsumer pipeline = new PipelinedChangeConsumer((records, c) -> {
+            Thread.sleep(200);
+            for (ChangeEvent<Object, Object> record : records) {
+                delivered.add((String) record.value());
+                c.markProcessed(record);
+            }
+            c.markBatchFinished();
+        }, 4);
+        final DrainGate gate = new DrainGate("test", pipeline);
+
+        gate.handleBatch(List.of(event("test", null, "1")), committer);
+        gate.handleBatch(List.of(event("test", null, "2")), committer);
+        assertThat(gate.drain(Duration.ofSeconds(5))).isTrue();
+        assertThat(pipeline.drain(Duration.ofSeconds(5))).isTrue();
+        assertThat(committer.values()).containsExactly("1", "2");
+
+        gate.handleBatch(List.of(event("test", null, "3")), committer);
+        pipeline.close(Duration.ofSeconds(5));
+        assertThat(delivered).containsExactly("1", "2");
+        assertThat(committer.values()).containsExactly("1", "2");
+    }
+
+    @Test
+    public void shouldReportPipelineNotDrainedInTime() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final PipelinedChangeConsumer pipeline = new PipelinedChangeConsumer((records, c) -> release.await(), 1);
+
+        pipeline.handleBatch(List.of(event("test", null, "1")), new RecordingCommitter());
+        assertThat(pipeline.drain(Duration.ofMillis(200))).isFalse();
+        release.countDown();
+        assertThat(pipeline.drain(Duration.ofSeconds(5))).isTrue();
+        pipeline.close();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static io.debezium.server.TestChangeEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.debezium.engine.ChangeEvent;
+
+public class RateLimitingChangeConsumerTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void shouldAdmitBurstAndThenWaitForDebt() {
+        final TokenBucket bucket = new TokenBucket(100, 0);
+
+        assertThat(bucket.take(100, 0)).isZero();
+        assertThat(bucket.take(50, 0)).isEqualTo(SECOND / 2);
+        // The debt is paid after half a second, the bucket then refills
+        assertThat(bucket.take(10, SECOND / 2)).isEqualTo(SECOND / 10);
+        assertThat(bucket.take(0, 2 * SECOND)).isZero();
+        // The bucket holds at most one second worth of tokens
+        assertThat(bucket.take(150, 10 * SECOND)).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    public void shouldLimitEachDestinationSeparately() {
+        final RateLimitingChangeConsumer consumer = new RateLimitingChangeConsumer("test", (records, c) -> {
+        }, 0, 0, 10, 0);
+        final long now = System.nanoTime();
+
+        assertThat(consumer.take(events("a", 10), now)).isZero();
+        assertThat(consumer.take(events("b", 10), now)).isZero();
+        assertThat(consumer.take(events("a", 5), now)).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    public void shouldLimitBytesAcrossDestinations() {
+        final RateLimitingChangeConsumer consumer = new RateLimitingChangeConsumer("test", (records, c) -> {
+        }, 0, 100, 0, 0);
+        final long now = System.nanoTime();
+
+        // Every event is 10 bytes, the key "key" and a 7 byte value
+        assertThat(consumer.take(events("a", 10), now)).isZero();
+        assertThat(consumer.take(events("b", 5), now)).isEqualTo(SECOND / 2);
+    }
+
+    private static List<ChangeEvent<Object, Object>> events(String destination, int count) {
+        final List<ChangeEvent<Object, Object>> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(event(destination, "key", "{\"a\":1}"));
+        }
+        return events;
+    }
+}
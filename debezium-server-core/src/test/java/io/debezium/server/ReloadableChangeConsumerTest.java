@@ -0,0 +1,94 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static io.debezium.server.TestChangeEvents.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.server.TestChangeEvents.RecordingCommitter;
+
+public class ReloadableChangeConsumerTest {
+
+    @Test
+    public void shouldSwapSinkBetweenBatches() throws Exception {
+        final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> first = (records, c) -> {
+            started.countDown();
+            release.await();
+            records.forEach(record -> delivered.add("first:" + record.value()));
+        };
+        final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> second = (records, c) -> records
+                .forEach(record -> delivered.add("second:" + record.value()));
+        final ReloadableChangeConsumer consumer = new ReloadableChangeConsumer("test", first);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(() -> {
+                consumer.handleBatch(List.of(event("topic", null, "1")), new RecordingCommitter());
+                return null;
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            final Future<DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>> swap = executor.submit(() -> consumer.swap(second, Duration.ofSeconds(5)));
+            Thread.sleep(100);
+            assertThat(swap.isDone()).isFalse();
+
+            release.countDown();
+            assertThat(swap.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            consumer.handleBatch(List.of(event("topic", null, "2")), new RecordingCommitter());
+            assertThat(delivered).containsExactly("first:1", "second:2");
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldKeepSinkIfBatchIsNotFinishedInTime() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> first = (records, c) -> {
+            started.countDown();
+            release.await();
+        };
+        final ReloadableChangeConsumer consumer = new ReloadableChangeConsumer("test", first);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                consumer.handleBatch(List.of(event("topic", null, "1")), new RecordingCommitter());
+                return null;
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> consumer.swap((records, c) -> {
+            }, Duration.ofMillis(100))).isInstanceOf(DebeziumException.class);
+            assertThat(consumer.toString()).contains(first.toString());
+            release.countDown();
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
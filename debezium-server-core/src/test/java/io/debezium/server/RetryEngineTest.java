@@ -0,0 +1,120 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.debezium.DebeziumException;
+
+public class RetryEngineTest {
+
+    @Test
+    public void shouldRetryUntilSuccess() throws Exception {
+        final RetryEngine engine = new RetryEngine(5, Duration.ofMillis(1), Duration.ofMillis(5), 0.2, 10, 0, Duration.ofSeconds(1));
+        final AtomicInteger attempts = new AtomicInteger();
+        final List<String> retries = new ArrayList<>();
+
+        engine.execute("a", "event", () -> attempts.incrementAndGet() == 3, retries::add);
+
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(retries).containsExactly("a", "a");
+    }
+
+    @Test
+    public void shouldFailAfterMaximumAttempts() {
+        final RetryEngine engine = new RetryEngine(3, Duration.ofMillis(1), Duration.ofMillis(5), 0.2, 10, 0, Duration.ofSeconds(1));
+        final AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> engine.execute("a", "event", () -> {
+            attempts.incrementAndGet();
+            return false;
+        }, x -> {
+        })).isInstanceOf(DebeziumException.class).hasMessage("Exceeded maximum number of attempts to publish event event");
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldDelayRetriesBeyondBudget() throws Exception {
+        final RetryEngine engine = new RetryEngine(4, Duration.ofMillis(1), Duration.ofMillis(1), 0.2, 0, 0, Duration.ofSeconds(1));
+        final AtomicInteger attempts = new AtomicInteger();
+
+        // Without a budget one retry per second is allowed, the configured attempts are made nevertheless
+        final long start = System.nanoTime();
+        engine.execute("a", "event", () -> attempts.incrementAndGet() == 4, x -> {
+        });
+        assertThat(attempts.get()).isEqualTo(4);
+        // The three retries fall into three different seconds
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThan(Duration.ofMillis(900));
+    }
+
+    @Test
+    public void shouldWaitForOpenCircuitPerDestination() throws Exception {
+        final RetryEngine engine = new RetryEngine(1, Duration.ofMillis(1), Duration.ofMillis(1), 0.2, 10, 2, Duration.ofMillis(200));
+        final AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> engine.execute("failing", "event", () -> {
+                attempts.incrementAndGet();
+                return false;
+            }, x -> {
+            })).hasMessageStartingWith("Exceeded maximum number of attempts");
+        }
+
+        // Other destinations are not affected
+        final long start = System.nanoTime();
+        engine.execute("healthy", "event", () -> true, x -> {
+        });
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(100));
+
+        // The delivery to the open circuit waits for the open period, its trial then closes the circuit
+        engine.execute("failing", "event", () -> {
+            attempts.incrementAndGet();
+            return true;
+        }, x -> {
+        });
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(150));
+        assertThat(attempts.get()).isEqualTo(3);
+        engine.execute("failing", "event", () -> true, x -> {
+        });
+    }
+
+    @Test
+    public void shouldReleaseTrialFailingWithCheckedException() throws Exception {
+        final RetryEngine engine = new RetryEngine(1, Duration.ofMillis(1), Duration.ofMillis(1), 0.2, 10, 1, Duration.ofMillis(100));
+
+        assertThatThrownBy(() -> engine.execute("a", "event", () -> false, x -> {
+        })).hasMessageStartingWith("Exceeded maximum number of attempts");
+
+        // The half-open trial fails with a checked exception, the circuit opens again for another period only
+        assertThatThrownBy(() -> engine.execute("a", "event", () -> {
+            throw new InterruptedException("connection reset");
+        }, x -> {
+        })).isInstanceOf(InterruptedException.class);
+
+        final long start = System.nanoTime();
+        engine.execute("a", "event", () -> true, x -> {
+        });
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isBetween(Duration.ofMillis(50), Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void shouldKeepJitteredDelaysWithinBounds() {
+        final Backoff backoff = new Backoff(Duration.ofMillis(10), Duration.ofMillis(100));
+        for (int i = 0; i < 100; i++) {
+            assertThat(backoff.nextDelayMillis()).isBetween(10L, 100L);
+        }
+        backoff.reset();
+        assertThat(backoff.nextDelayMillis()).isBetween(10L, 30L);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import static io.debezium.server.TestChangeEvents.event;
+import static io.debezium.server.TestChangeEvents.header;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.debezium.DebeziumException;
+import io.debezium.engine.ChangeEvent;
+import io.debezium.server.TestChangeEvents.RecordingCommitter;
+
+public class SpillingChangeConsumerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldRoundTripRecords() throws Exception {
+        final byte[] value = "value".getBytes(StandardCharsets.UTF_8);
+        final List<ChangeEvent<Object, Object>> records = ChangeEventCodec.decode(ChangeEventCodec.encode(
+                List.of(event("dest", "key", value, 3, header("h", "v")), event(null, null, null, null))));
+
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).destination()).isEqualTo("dest");
+        assertThat(records.get(0).key()).isEqualTo("key");
+        assertThat(records.get(0).value()).isEqualTo(value);
+        assertThat(records.get(0).partition()).isEqualTo(3);
+        assertThat(records.get(0).headers()).hasSize(1);
+        assertThat(records.get(0).headers().get(0).getKey()).isEqualTo("h");
+        assertThat(records.get(0).headers().get(0).getValue()).isEqualTo("v");
+        assertThat(records.get(1).destination()).isNull();
+        assertThat(records.get(1).value()).isNull();
+        assertThat(records.get(1).partition()).isNull();
+        assertThat(records.get(1).headers()).isEmpty();
+    }
+
+    @Test
+    public void shouldAcknowledgeOnlyAfterDeliveryAndRetryFailedBatches() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final List<Object> values = Collections.synchronizedList(new ArrayList<>());
+        final RecordingCommitter committer = new RecordingCommitter();
+
+        final SpillingChangeConsumer consumer = new SpillingChangeConsumer("test", (records, c) -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new DebeziumException("sink down");
+            }
+            records.forEach(record -> values.add(record.value()));
+            delivered.countDown();
+        }, directory, 1024, 1024 * 1024, Duration.ofMillis(10));
+        try {
+            consumer.handleBatch(List.of(event("a", "1", "1", null), event("b", "2", "2", null), event("a", "3", "3", null)), committer);
+            assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(attempts.get()).isEqualTo(2);
+            assertThat(values).containsExactly("1", "2", "3");
+            // The source partitions of these records are unknown, so every record is acknowledged in order
+            awaitSpilledBatches(consumer, 0);
+            assertThat(committer.values()).containsExactly("1", "2", "3");
+            // The offsets are flushed without waiting for another batch of the engine
+            assertThat(committer.flushThreads).hasSize(1).noneMatch(thread -> thread.equals(Thread.currentThread().getName()));
+        }
+        finally {
+            consumer.close();
+        }
+    }
+
+    @Test
+    public void shouldRollAndDeleteSegments() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final SpillingChangeConsumer consumer = new SpillingChangeConsumer("test", (records, c) -> release.await(), directory, 64, 1024 * 1024,
+                Duration.ofMillis(10));
+        try {
+            for (int i = 0; i < 10; i++) {
+                consumer.handleBatch(List.of(event("a", "key", "some value " + i, null)), new RecordingCommitter());
+            }
+            assertThat(consumer.getSpilledBatches()).isGreaterThan(0);
+            assertThat(Files.list(directory).count()).isGreaterThan(1);
+
+            release.countDown();
+            awaitSpilledBatches(consumer, 0);
+            assertThat(consumer.getSpilledBytes()).isZero();
+            assertThat(Files.list(directory).count()).isLessThanOrEqualTo(1);
+        }
+        finally {
+            consumer.close();
+        }
+        assertThat(Files.list(directory).count()).isZero();
+    }
+
+    private static void awaitSpilledBatches(SpillingChangeConsumer consumer, int expected) throws InterruptedException {
+        for (int i = 0; i < 50 && consumer.getSpilledBatches() != expected; i++) {
+            Thread.sleep(100);
+        }
+        assertThat(consumer.getSpilledBatches()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import io.debezium.engine.DebeziumEngine.RecordCommitter;
+import io.debezium.engine.Header;
+
+/**
+ * Change events and a recording committer for the tests of the change consumers.
+ */
+public final class TestChangeEvents {
+
+    private TestChangeEvents() {
+    }
+
+    public static ChangeEvent<Object, Object> event(String destination, Object key, Object value) {
+        return event(destination, key, value, null);
+    }
+
+    @SafeVarargs
+    public static ChangeEvent<Object, Object> event(String destination, Object key, Object value, Integer partition, Header<Object>... headers) {
+        return new ChangeEvent<>() {
+            @Override
+            public Object key() {
+                return key;
+            }
+
+            @Override
+            public Object value() {
+                return value;
+            }
+
+            @Override
+            public List<Header<Object>> headers() {
+                return List.of(headers);
+            }
+
+            @Override
+            public String destination() {
+                return destination;
+            }
+
+            @Override
+            public Integer partition() {
+                return partition;
+            }
+        };
+    }
+
+    public static Header<Object> header(String key, Object value) {
+        return new Header<>() {
+            @Override
+            public String getKey() {
+                return key;
+            }
+
+            @Override
+            public Object getValue() {
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Records the processed records and the threads finishing the batches.
+     */
+    public static class RecordingCommitter implements RecordCommitter<ChangeEvent<Object, Object>> {
+
+        final List<ChangeEvent<Object, Object>> processed = Collections.synchronizedList(new ArrayList<>());
+        final List<String> flushThreads = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record) {
+            processed.add(record);
+        }
+
+        @Override
+        public void markBatchFinished() {
+            flushThreads.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<Object, Object> record, DebeziumEngine.Offsets sourceOffsets) {
+            processed.add(record);
+        }
+
+        @Override
+        public DebeziumEngine.Offsets buildOffsets() {
+            return null;
+        }
+
+        List<Object> keys() {
+            synchronized (processed) {
+                return processed.stream().map(ChangeEvent::key).collect(Collectors.toList());
+            }
+        }
+
+        List<Object> values() {
+            synchronized (processed) {
+                return processed.stream().map(ChangeEvent::value).collect(Collectors.toList());
+            }
+        }
+
+        int batchesFinished() {
+            return flushThreads.size();
+        }
+    }
+}
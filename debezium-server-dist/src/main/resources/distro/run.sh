@@ -47,5 +47,36 @@ fi
 
 source ./jmx/enable_jmx.sh
 
-exec "$JAVA_BINARY" $DEBEZIUM_OPTS $JAVA_OPTS -cp \
-    $RUNNER$PATH_SEP"conf"$PATH_SEP$LIB_PATH io.debezium.server.Main
\ No newline at end of file
+CLASS_PATH=$RUNNER$PATH_SEP"conf"$PATH_SEP$LIB_PATH
+
+# Application class-data sharing: the classes loaded during startup are mapped from an archive instead of being
+# loaded and verified from the jars. If the archive does not exist yet, it is created when the server exits.
+ENABLE_APPCDS=${ENABLE_APPCDS:-false}
+APPCDS_OPTS=""
+if [[ "${ENABLE_APPCDS}" == "true" ]]; then
+  APPCDS_ARCHIVE=${APPCDS_ARCHIVE:-debezium-server.jsa}
+  if [ -f "$APPCDS_ARCHIVE" ]; then
+    echo "Using AppCDS archive ${APPCDS_ARCHIVE}"
+    APPCDS_OPTS="-XX:SharedArchiveFile=${APPCDS_ARCHIVE} -Xshare:auto"
+  else
+    echo "AppCDS archive ${APPCDS_ARCHIVE} does not exist, it will be created on exit"
+    APPCDS_OPTS="-XX:ArchiveClassesAtExit=${APPCDS_ARCHIVE}"
+  fi
+
+  # The archive is only valid for the same class path, so the wildcards are expanded in a stable order
+  EXPANDED_CLASS_PATH=""
+  IFS="$PATH_SEP" read -ra CLASS_PATH_ENTRIES <<< "$CLASS_PATH"
+  for CLASS_PATH_ENTRY in "${CLASS_PATH_ENTRIES[@]}"; do
+    if [[ "$CLASS_PATH_ENTRY" == *"*" ]]; then
+      for JAR in $(ls "${CLASS_PATH_ENTRY%\*}" 2>/dev/null | LC_ALL=C sort); do
+        EXPANDED_CLASS_PATH=$EXPANDED_CLASS_PATH${CLASS_PATH_ENTRY%\*}$JAR$PATH_SEP
+      done
+    else
+      EXPANDED_CLASS_PATH=$EXPANDED_CLASS_PATH$CLASS_PATH_ENTRY$PATH_SEP
+    fi
+  done
+  CLASS_PATH=${EXPANDED_CLASS_PATH%"$PATH_SEP"}
+fi
+
+exec "$JAVA_BINARY" $DEBEZIUM_OPTS $JAVA_OPTS $APPCDS_OPTS -cp \
+    $CLASS_PATH io.debezium.server.Main
\ No newline at end of file
@@ -0,0 +1,76 @@
+#!/bin/bash
+#
+# Creates the AppCDS archive of the server distribution and adds it to the distribution archives.
+#
+# The archive is created by a training run of the unpacked distribution. The training run starts the server with an
+# HTTP sink and a PostgreSQL connector pointing to unreachable hosts, so Quarkus, the CDI beans, the sink and the
+# connector classes are loaded before the connector fails and the server exits. The startup is then measured without
+# and with the archive.
+#
+# Usage: create-appcds.sh <build directory> <distribution name> <distribution directory name>
+#
+# Copyright Debezium Authors.
+#
+# Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+#
+set -euo pipefail
+
+BUILD_DIR=$1
+DISTRIBUTION=$2
+DISTRIBUTION_DIR=$3
+WORK_DIR="$BUILD_DIR/appcds"
+ARCHIVE=debezium-server.jsa
+
+if [ -z "${JAVA_HOME:-}" ]; then
+  JAR_BINARY="jar"
+else
+  JAR_BINARY="$JAVA_HOME/bin/jar"
+fi
+
+export JAVA_OPTS="-Ddebezium.sink.type=http \
+ -Ddebezium.sink.http.url=http://localhost:1 \
+ -Ddebezium.source.connector.class=io.debezium.connector.postgresql.PostgresConnector \
+ -Ddebezium.source.offset.storage.file.filename=data/offsets.dat \
+ -Ddebezium.source.database.hostname=localhost \
+ -Ddebezium.source.database.port=1 \
+ -Ddebezium.source.database.user=training \
+ -Ddebezium.source.database.password=training \
+ -Ddebezium.source.database.dbname=training \
+ -Ddebezium.source.topic.prefix=training \
+ -Dquarkus.http.port=0 \
+ -Dquarkus.log.level=WARN"
+
+# Runs the server until it exits, at most for five minutes, and prints the duration in milliseconds
+timed_run() {
+  local start end
+  start=$(date +%s%N)
+  ENABLE_APPCDS=$1 timeout 300 ./run.sh > "$WORK_DIR/$2.log" 2>&1 || true
+  end=$(date +%s%N)
+  echo $(( (end - start) / 1000000 ))
+}
+
+rm -rf "$WORK_DIR"
+mkdir -p "$WORK_DIR"
+tar -xzf "$BUILD_DIR/$DISTRIBUTION.tar.gz" -C "$WORK_DIR"
+cd "$WORK_DIR/$DISTRIBUTION_DIR"
+
+TRAINING_TIME=$(timed_run true training)
+if [ ! -f "$ARCHIVE" ]; then
+  echo "The training run did not create the AppCDS archive, see $WORK_DIR/training.log" >&2
+  exit 1
+fi
+BASELINE_TIME=$(timed_run false baseline)
+APPCDS_TIME=$(timed_run true appcds)
+
+{
+  echo "Training run (creating the archive): ${TRAINING_TIME} ms"
+  echo "Startup and shutdown without AppCDS: ${BASELINE_TIME} ms"
+  echo "Startup and shutdown with AppCDS:    ${APPCDS_TIME} ms"
+} | tee "$WORK_DIR/startup-times.txt"
+
+# Add the archive to the distribution archives
+cd "$WORK_DIR"
+gunzip "$BUILD_DIR/$DISTRIBUTION.tar.gz"
+tar -rf "$BUILD_DIR/$DISTRIBUTION.tar" "$DISTRIBUTION_DIR/$ARCHIVE"
+gzip "$BUILD_DIR/$DISTRIBUTION.tar"
+"$JAR_BINARY" --update --no-manifest --file "$BUILD_DIR/$DISTRIBUTION.zip" "$DISTRIBUTION_DIR/$ARCHIVE"
@@ -11,4 +11,10 @@ public interface Authenticator {
     void setAuthorizationHeader(HttpRequest.Builder httpRequestBuilder);
 
     boolean authenticate() throws InterruptedException;
+
+    /**
+     * Releases the resources held by the authenticator when the sink is destroyed.
+     */
+    default void close() {
+    }
 }
@@ -17,13 +17,15 @@
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.Dependent;
 import jakarta.inject.Named;
 
@@ -37,9 +39,10 @@
 import io.debezium.engine.ChangeEvent;
 import io.debezium.engine.DebeziumEngine;
 import io.debezium.server.BaseChangeConsumer;
+import io.debezium.server.HeaderEncodingCache;
+import io.debezium.server.RetryEngine;
+import io.debezium.server.ServerThreads;
 import io.debezium.server.http.jwt.JWTAuthenticatorBuilder;
-import io.debezium.util.Clock;
-import io.debezium.util.Metronome;
 
 /**
  * Implementation of the consumer that delivers the messages to an HTTP Webhook destination.
@@ -69,13 +72,15 @@ public class HttpChangeConsumer extends BaseChangeConsumer implements DebeziumEn
     private static final String DEFAULT_HEADERS_PREFIX = "X-DEBEZIUM-";
 
     private static Duration timeoutDuration;
-    private static int retries;
-    private static Duration retryInterval;
     private boolean base64EncodeHeaders = true;
     private String headersPrefix = DEFAULT_HEADERS_PREFIX;
 
     private HttpClient client;
+    // not null if the client runs on virtual threads; null otherwise
+    private ExecutorService clientExecutor;
+    private RetryEngine retryEngine;
     private HttpRequest.Builder requestBuilder;
+    private HeaderEncodingCache<String> headerCache;
 
     // not null if using authentication; null otherwise
     private Authenticator authenticator;
@@ -93,11 +98,11 @@ void initWithConfig(Config config) throws URISyntaxException {
         String sinkUrl;
         String contentType;
 
-        client = HttpClient.newHttpClient();
+        clientExecutor = ServerThreads.newClientExecutor("debezium-http-client");
+        client = clientExecutor != null ? HttpClient.newBuilder().executor(clientExecutor).build() : HttpClient.newHttpClient();
         String sink = System.getenv("K_SINK");
         timeoutDuration = Duration.ofMillis(HTTP_TIMEOUT);
-        retries = DEFAULT_RETRIES;
-        retryInterval = Duration.ofMillis(RETRY_INTERVAL);
+        retryEngine = RetryEngine.fromConfig(config, PROP_PREFIX, DEFAULT_RETRIES, Duration.ofMillis(RETRY_INTERVAL));
 
         if (sink != null) {
             sinkUrl = sink;
@@ -109,12 +114,6 @@ void initWithConfig(Config config) throws URISyntaxException {
         config.getOptionalValue(PROP_PREFIX + PROP_CLIENT_TIMEOUT, String.class)
                 .ifPresent(t -> timeoutDuration = Duration.ofMillis(Long.parseLong(t)));
 
-        config.getOptionalValue(PROP_PREFIX + PROP_RETRIES, String.class)
-                .ifPresent(n -> retries = Integer.parseInt(n));
-
-        config.getOptionalValue(PROP_PREFIX + PROP_RETRY_INTERVAL, String.class)
-                .ifPresent(t -> retryInterval = Duration.ofMillis(Long.parseLong(t)));
-
         config.getOptionalValue(PROP_PREFIX + PROP_HEADERS_PREFIX, String.class)
                 .ifPresent(p -> headersPrefix = p);
 
@@ -151,28 +150,38 @@ void initWithConfig(Config config) throws URISyntaxException {
         LOGGER.info("Using sink URL: {}", sinkUrl);
         requestBuilder = HttpRequest.newBuilder(new URI(sinkUrl)).timeout(timeoutDuration);
         requestBuilder.setHeader("content-type", contentType);
+
+        headerCache = new HeaderEncodingCache<>(
+                key -> headersPrefix + key.toUpperCase(Locale.ROOT),
+                value -> base64EncodeHeaders ? Base64.getEncoder().encodeToString(getString(value).getBytes(StandardCharsets.UTF_8)) : getString(value));
+    }
+
+    @PreDestroy
+    void close() {
+        if (authenticator != null) {
+            authenticator.close();
+        }
+        if (clientExecutor != null) {
+            clientExecutor.shutdown();
+        }
     }
 
     @Override
     public void handleBatch(List<ChangeEvent<Object, Object>> records, DebeziumEngine.RecordCommitter<ChangeEvent<Object, Object>> committer)
             throws InterruptedException {
+        final List<ChangeEvent<Object, Object>> nonNullRecords = new ArrayList<>(records.size());
         for (ChangeEvent<Object, Object> record : records) {
             LOGGER.trace("Received event '{}'", record);
-
             if (record.value() != null) {
-                int attempts = 0;
-                while (!recordSent(record)) {
-                    attempts++;
-                    if (attempts >= retries) {
-                        throw new DebeziumException("Exceeded maximum number of attempts to publish event " + record);
-                    }
-                    Metronome.sleeper(retryInterval, Clock.SYSTEM).pause();
-                }
-                committer.markProcessed(record);
+                nonNullRecords.add(record);
             }
         }
 
-        committer.markBatchFinished();
+        dispatchByKey(nonNullRecords, committer, this::sendWithRetries);
+    }
+
+    private void sendWithRetries(ChangeEvent<Object, Object> record) throws InterruptedException {
+        retryEngine.execute(record.destination(), record, () -> recordSent(record), this::recordRetry);
     }
 
     private boolean recordSent(ChangeEvent<Object, Object> record) throws InterruptedException {
@@ -183,10 +192,13 @@ private boolean recordSent(ChangeEvent<Object, Object> record) throws Interrupte
 
         try {
             if (authenticator != null) {
-                if (!authenticator.authenticate()) {
-                    throw new DebeziumException("Failed to authenticate successfully.  Cannot continue.");
+                // The authenticator keeps the token state and may be shared by concurrent dispatch lanes
+                synchronized (authenticator) {
+                    if (!authenticator.authenticate()) {
+                        throw new DebeziumException("Failed to authenticate successfully.  Cannot continue.");
+                    }
+                    authenticator.setAuthorizationHeader(requestBuilder);
                 }
-                authenticator.setAuthorizationHeader(requestBuilder);
             }
 
             HttpRequest request = requestBuilder.build();
@@ -209,18 +221,13 @@ private boolean recordSent(ChangeEvent<Object, Object> record) throws Interrupte
 
     @VisibleForTesting
     HttpRequest.Builder generateRequest(ChangeEvent<Object, Object> record) {
-        String value = (String) record.value();
-        HttpRequest.Builder builder = requestBuilder.POST(HttpRequest.BodyPublishers.ofString(value));
-
-        Map<String, String> headers = convertHeaders(record);
+        final Object value = record.value();
+        // Byte array values are sent as they are, without a round-trip through a string
+        final HttpRequest.BodyPublisher body = (value instanceof byte[]) ? HttpRequest.BodyPublishers.ofByteArray((byte[]) value)
+                : HttpRequest.BodyPublishers.ofString(getString(value));
+        HttpRequest.Builder builder = requestBuilder.copy().POST(body);
 
-        for (Map.Entry<String, String> entry : headers.entrySet()) {
-            String headerValue = entry.getValue();
-            if (base64EncodeHeaders) {
-                headerValue = Base64.getEncoder().encodeToString(headerValue.getBytes(StandardCharsets.UTF_8));
-            }
-            builder.header(headersPrefix + entry.getKey().toUpperCase(Locale.ROOT), headerValue);
-        }
+        forEachHeader(record, headerCache, builder::header);
 
         return builder;
     }
@@ -14,6 +14,7 @@
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
 
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
@@ -23,6 +24,7 @@
 
 import io.debezium.DebeziumException;
 import io.debezium.annotation.VisibleForTesting;
+import io.debezium.server.ServerThreads;
 import io.debezium.server.http.Authenticator;
 
 /**
@@ -54,6 +56,8 @@ enum AuthenticationState {
     private String jwtToken;
     private String jwtRefreshToken;
     private final HttpClient client;
+    // not null if the client runs on virtual threads; null otherwise
+    private final ExecutorService clientExecutor;
     private final HttpRequest.Builder authRequestBuilder;
     private final HttpRequest.Builder refreshRequestBuilder;
     private final ObjectMapper mapper;
@@ -69,7 +73,8 @@ enum AuthenticationState {
         this.refreshTokenExpirationDuration = refreshTokenExpirationDuration;
 
         mapper = new ObjectMapper();
-        client = HttpClient.newHttpClient();
+        clientExecutor = ServerThreads.newClientExecutor("debezium-http-auth-client");
+        client = clientExecutor != null ? HttpClient.newBuilder().executor(clientExecutor).build() : HttpClient.newHttpClient();
         authRequestBuilder = HttpRequest.newBuilder(authUri).timeout(httpTimeoutDuration);
         authRequestBuilder.setHeader("content-type", "application/json");
         refreshRequestBuilder = HttpRequest.newBuilder(refreshUri).timeout(httpTimeoutDuration);
@@ -212,4 +217,10 @@ else if (authenticationState == AuthenticationState.EXPIRED) {
 
         return false;
     }
+
+    public void close() {
+        if (clientExecutor != null) {
+            clientExecutor.shutdown();
+        }
+    }
 }
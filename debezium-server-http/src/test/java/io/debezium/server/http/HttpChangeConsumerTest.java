@@ -13,6 +13,7 @@
 
 import java.net.URISyntaxException;
 import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -64,12 +65,28 @@ public void verifyGenerateRequestWithDifferentHeaderPrefix() throws URISyntaxExc
         assertEquals("h1Value", value);
     }
 
-    @SuppressWarnings({ "rawtypes", "unchecked" })
+    @Test
+    public void verifyGenerateRequestWithByteArrayValue() throws URISyntaxException {
+        HttpChangeConsumer changeConsumer = new HttpChangeConsumer();
+        changeConsumer.initWithConfig(generateMockConfig(Map.of(
+                HttpChangeConsumer.PROP_PREFIX + HttpChangeConsumer.PROP_WEBHOOK_URL, "http://url",
+                "debezium.format.value", "jsonbytearray")));
+        byte[] value = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        HttpRequest request = changeConsumer.generateRequest(createChangeEvent(value)).build();
+
+        assertEquals(value.length, request.bodyPublisher().orElseThrow().contentLength());
+    }
+
     private static ChangeEvent<Object, Object> createChangeEvent() {
+        return createChangeEvent("value");
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static ChangeEvent<Object, Object> createChangeEvent(Object value) {
 
         ChangeEvent<Object, Object> result = mock(ChangeEvent.class);
         when(result.key()).thenReturn("key");
-        when(result.value()).thenReturn("value");
+        when(result.value()).thenReturn(value);
         when(result.destination()).thenReturn("dest");
         Header header = mock(Header.class);
         when(header.getKey()).thenReturn("h1Key");
@@ -107,7 +107,7 @@ public void handleBatch(List<ChangeEvent<Object, Object>> records, DebeziumEngin
         Map<Object, Object> entries = new HashMap<>(records.size());
         for (ChangeEvent<Object, Object> record : records) {
             if (record.value() != null) {
-                LOGGER.trace("Received event {} = '{}'", getString(record.key()), getString(record.value()));
+                LOGGER.trace("Received event {} = '{}'", record.key(), record.value());
                 entries.put(record.key(), record.value());
             }
         }
@@ -7,7 +7,6 @@
 
 import java.time.Duration;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -29,23 +28,29 @@
 import io.debezium.engine.ChangeEvent;
 import io.debezium.engine.DebeziumEngine;
 import io.debezium.engine.DebeziumEngine.RecordCommitter;
-import io.debezium.engine.Header;
+import io.debezium.server.AcknowledgementWatermark;
 import io.debezium.server.BaseChangeConsumer;
 import io.debezium.server.CustomConsumerBuilder;
+import io.debezium.server.Drainable;
+import io.debezium.server.HeaderEncodingCache;
 
 /**
  * An implementation of the {@link DebeziumEngine.ChangeConsumer} interface that publishes change event messages to Kafka.
  */
 @Named("kafka")
 @Dependent
-public class KafkaChangeConsumer extends BaseChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> {
+public class KafkaChangeConsumer extends BaseChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>, Drainable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaChangeConsumer.class);
 
     private static final String PROP_PREFIX = "debezium.sink.kafka.";
     private static final String PROP_PREFIX_PRODUCER = PROP_PREFIX + "producer.";
+    private static final String PROP_MAX_IN_FLIGHT_RECORDS = PROP_PREFIX + "max.in.flight.records";
 
     private KafkaProducer<Object, Object> producer;
+    private AcknowledgementWatermark watermark;
+    // Kafka does not modify the header values so the encoded bytes of repeated values can be shared
+    private final HeaderEncodingCache<byte[]> headerCache = new HeaderEncodingCache<>(key -> key, this::getBytes);
 
     @Inject
     @CustomConsumerBuilder
@@ -53,13 +58,14 @@ public class KafkaChangeConsumer extends BaseChangeConsumer implements DebeziumE
 
     @PostConstruct
     void start() {
+        final Config config = ConfigProvider.getConfig();
+        watermark = new AcknowledgementWatermark("kafka", config.getOptionalValue(PROP_MAX_IN_FLIGHT_RECORDS, Long.class).orElse(0L));
         if (customKafkaProducer.isResolvable()) {
             producer = customKafkaProducer.get();
             LOGGER.info("Obtained custom configured KafkaProducer '{}'", producer);
             return;
         }
 
-        final Config config = ConfigProvider.getConfig();
         producer = new KafkaProducer<>(getConfigSubset(config, PROP_PREFIX_PRODUCER));
         LOGGER.info("consumer started...");
     }
@@ -81,8 +87,9 @@ void stop() {
     public void handleBatch(final List<ChangeEvent<Object, Object>> records,
                             final RecordCommitter<ChangeEvent<Object, Object>> committer)
             throws InterruptedException {
-        final CountDownLatch latch = new CountDownLatch(records.size());
         for (ChangeEvent<Object, Object> record : records) {
+            // The callbacks run on the producer I/O thread, the records are committed in order by the engine thread
+            final AcknowledgementWatermark.Acknowledgement acknowledgement = watermark.track(record, committer);
             try {
                 LOGGER.trace("Received event '{}'", record);
 
@@ -91,30 +98,31 @@ public void handleBatch(final List<ChangeEvent<Object, Object>> records,
                 producer.send(new ProducerRecord<>(record.destination(), null, null, record.key(), record.value(), headers), (metadata, exception) -> {
                     if (exception != null) {
                         LOGGER.error("Failed to send record to {}:", record.destination(), exception);
-                        throw new DebeziumException(exception);
+                        acknowledgement.fail(exception);
                     }
                     else {
                         LOGGER.trace("Sent message with offset: {}", metadata.offset());
-                        latch.countDown();
+                        acknowledgement.acknowledge();
                     }
                 });
-                committer.markProcessed(record);
             }
             catch (Exception e) {
+                acknowledgement.fail(e);
                 throw new DebeziumException(e);
             }
         }
 
-        latch.await();
-        committer.markBatchFinished();
+        watermark.finishBatch(committer);
+    }
+
+    @Override
+    public boolean drain(Duration timeout) throws InterruptedException {
+        return watermark.drain(timeout);
     }
 
     private Headers convertKafkaHeaders(ChangeEvent<Object, Object> record) {
-        List<Header<Object>> headers = record.headers();
         Headers kafkaHeaders = new RecordHeaders();
-        for (Header<Object> header : headers) {
-            kafkaHeaders.add(header.getKey(), getBytes(header.getValue()));
-        }
+        forEachHeader(record, headerCache, kafkaHeaders::add);
         return kafkaHeaders;
     }
 }
@@ -23,14 +23,12 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.debezium.DebeziumException;
 import io.debezium.engine.ChangeEvent;
 import io.debezium.engine.DebeziumEngine;
 import io.debezium.engine.DebeziumEngine.RecordCommitter;
 import io.debezium.server.BaseChangeConsumer;
 import io.debezium.server.CustomConsumerBuilder;
-import io.debezium.util.Clock;
-import io.debezium.util.Metronome;
+import io.debezium.server.RetryEngine;
 
 import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
 import software.amazon.awssdk.core.SdkBytes;
@@ -67,6 +65,7 @@ public class KinesisChangeConsumer extends BaseChangeConsumer implements Debeziu
     String nullKey;
 
     private KinesisClient client = null;
+    private RetryEngine retryEngine;
 
     @Inject
     @CustomConsumerBuilder
@@ -74,13 +73,15 @@ public class KinesisChangeConsumer extends BaseChangeConsumer implements Debeziu
 
     @PostConstruct
     void connect() {
+        final Config config = ConfigProvider.getConfig();
+        retryEngine = RetryEngine.fromConfig(config, PROP_PREFIX, DEFAULT_RETRIES, RETRY_INTERVAL);
+
         if (customClient.isResolvable()) {
             client = customClient.get();
             LOGGER.info("Obtained custom configured KinesisClient '{}'", client);
             return;
         }
 
-        final Config config = ConfigProvider.getConfig();
         region = config.getValue(PROP_REGION_NAME, String.class);
         endpointOverride = config.getOptionalValue(PROP_ENDPOINT_NAME, String.class);
         credentialsProfile = config.getOptionalValue(PROP_CREDENTIALS_PROFILE, String.class);
@@ -106,20 +107,12 @@ void close() {
     @Override
     public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
             throws InterruptedException {
-        for (ChangeEvent<Object, Object> record : records) {
-            LOGGER.trace("Received event '{}'", record);
-
-            int attempts = 0;
-            while (!recordSent(record)) {
-                attempts++;
-                if (attempts >= DEFAULT_RETRIES) {
-                    throw new DebeziumException("Exceeded maximum number of attempts to publish event " + record);
-                }
-                Metronome.sleeper(RETRY_INTERVAL, Clock.SYSTEM).pause();
-            }
-            committer.markProcessed(record);
-        }
-        committer.markBatchFinished();
+        dispatchByKey(records, committer, this::sendWithRetries);
+    }
+
+    private void sendWithRetries(ChangeEvent<Object, Object> record) throws InterruptedException {
+        LOGGER.trace("Received event '{}'", record);
+        retryEngine.execute(record.destination(), record, () -> recordSent(record), this::recordRetry);
     }
 
     private boolean recordSent(ChangeEvent<Object, Object> record) {
@@ -129,9 +122,9 @@ private boolean recordSent(ChangeEvent<Object, Object> record) {
         }
 
         final PutRecordRequest putRecord = PutRecordRequest.builder()
-                .partitionKey((record.key() != null) ? getString(record.key()) : nullKey)
+                .partitionKey((record.key() != null) ? getText(record.key()) : nullKey)
                 .streamName(streamNameMapper.map(record.destination()))
-                .data(SdkBytes.fromByteArray(getBytes(rv)))
+                .data(SdkBytes.fromByteArrayUnsafe(getBytes(rv)))
                 .build();
 
         try {
@@ -125,22 +125,21 @@ void close() {
     public void handleBatch(List<ChangeEvent<Object, Object>> records,
                             RecordCommitter<ChangeEvent<Object, Object>> committer)
             throws InterruptedException {
+        dispatchByKey(records, committer, this::publish);
+    }
+
+    private void publish(ChangeEvent<Object, Object> rec) {
+        if (rec.value() != null) {
+            String subject = streamNameMapper.map(rec.destination());
+            byte[] recordBytes = getBytes(rec.value());
+            LOGGER.trace("Received event @ {} = '{}'", subject, rec.value());
 
-        for (ChangeEvent<Object, Object> rec : records) {
-            if (rec.value() != null) {
-                String subject = streamNameMapper.map(rec.destination());
-                byte[] recordBytes = getBytes(rec.value());
-                LOGGER.trace("Received event @ {} = '{}'", subject, getString(rec.value()));
-
-                try {
-                    js.publish(subject, recordBytes);
-                }
-                catch (Exception e) {
-                    throw new DebeziumException(e);
-                }
+            try {
+                js.publish(subject, recordBytes);
+            }
+            catch (Exception e) {
+                throw new DebeziumException(e);
             }
-            committer.markProcessed(rec);
         }
-        committer.markBatchFinished();
     }
 }
@@ -115,22 +115,21 @@ void close() {
     public void handleBatch(List<ChangeEvent<Object, Object>> records,
                             RecordCommitter<ChangeEvent<Object, Object>> committer)
             throws InterruptedException {
+        dispatchByKey(records, committer, this::publish);
+    }
+
+    private void publish(ChangeEvent<Object, Object> record) {
+        if (record.value() != null) {
+            String subject = streamNameMapper.map(record.destination());
+            byte[] recordBytes = getBytes(record.value());
+            LOGGER.trace("Received event @ {} = '{}'", subject, record.value());
 
-        for (ChangeEvent<Object, Object> record : records) {
-            if (record.value() != null) {
-                String subject = streamNameMapper.map(record.destination());
-                byte[] recordBytes = getBytes(record.value());
-                LOGGER.trace("Received event @ {} = '{}'", subject, getString(record.value()));
-
-                try {
-                    sc.publish(subject, recordBytes);
-                }
-                catch (Exception e) {
-                    throw new DebeziumException(e);
-                }
+            try {
+                sc.publish(subject, recordBytes);
+            }
+            catch (Exception e) {
+                throw new DebeziumException(e);
             }
-            committer.markProcessed(record);
         }
-        committer.markBatchFinished();
     }
 }
@@ -92,7 +92,7 @@ public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitt
                 String streamName = streamNameMapper.map(changeEvent.destination());
                 final EventStreamWriter<byte[]> writer = writers.computeIfAbsent(streamName, (stream) -> createWriter(stream));
                 if (changeEvent.key() != null) {
-                    writer.writeEvent(getString(changeEvent.key()), getBytes(changeEvent.value()));
+                    writer.writeEvent(getText(changeEvent.key()), getBytes(changeEvent.value()));
                 }
                 else {
                     writer.writeEvent(getBytes(changeEvent.value()));
@@ -125,7 +125,7 @@ public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitt
                 final Transaction<byte[]> txn = txns.computeIfAbsent(streamName, (stream) -> createTxn(stream));
                 try {
                     if (changeEvent.key() != null) {
-                        txn.writeEvent(getString(changeEvent.key()), getBytes(changeEvent.value()));
+                        txn.writeEvent(getText(changeEvent.key()), getBytes(changeEvent.value()));
                     }
                     else {
                         txn.writeEvent(getBytes(changeEvent.value()));
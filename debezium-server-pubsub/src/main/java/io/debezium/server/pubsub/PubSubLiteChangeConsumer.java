@@ -36,6 +36,7 @@
 import com.google.cloud.pubsublite.cloudpubsub.Publisher;
 import com.google.cloud.pubsublite.cloudpubsub.PublisherSettings;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import com.google.pubsub.v1.PubsubMessage;
 
 import io.debezium.DebeziumException;
@@ -157,7 +158,7 @@ else if (record.key() instanceof String) {
                 pubsubMessage.setOrderingKey((String) record.key());
             }
             else if (record.key() instanceof byte[]) {
-                pubsubMessage.setOrderingKeyBytes(ByteString.copyFrom((byte[]) record.key()));
+                pubsubMessage.setOrderingKeyBytes(UnsafeByteOperations.unsafeWrap((byte[]) record.key()));
             }
         }
 
@@ -165,7 +166,8 @@ else if (record.key() instanceof byte[]) {
             pubsubMessage.setData(ByteString.copyFromUtf8((String) record.value()));
         }
         else if (record.value() instanceof byte[]) {
-            pubsubMessage.setData(ByteString.copyFrom((byte[]) record.value()));
+            // The array is not modified after the conversion, so it is wrapped instead of copied
+            pubsubMessage.setData(UnsafeByteOperations.unsafeWrap((byte[]) record.value()));
         }
 
         pubsubMessage.putAllAttributes(convertHeaders(record));
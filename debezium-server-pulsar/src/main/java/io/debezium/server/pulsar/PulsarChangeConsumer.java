@@ -5,6 +5,7 @@
  */
 package io.debezium.server.pulsar;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,7 +35,9 @@
 import io.debezium.engine.ChangeEvent;
 import io.debezium.engine.DebeziumEngine;
 import io.debezium.engine.DebeziumEngine.RecordCommitter;
+import io.debezium.server.AcknowledgementWatermark;
 import io.debezium.server.BaseChangeConsumer;
+import io.debezium.server.Drainable;
 
 /**
  * Implementation of the consumer that delivers the messages into a Pulsar destination.
@@ -45,7 +48,7 @@
  */
 @Named("pulsar")
 @Dependent
-public class PulsarChangeConsumer extends BaseChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> {
+public class PulsarChangeConsumer extends BaseChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>, Drainable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PulsarChangeConsumer.class);
 
@@ -60,6 +63,7 @@ public interface ProducerBuilder {
     private final Map<String, Producer<?>> producers = new HashMap<>();
     private PulsarClient pulsarClient;
     private Map<String, Object> producerConfig;
+    private AcknowledgementWatermark watermark;
 
     @ConfigProperty(name = PROP_PREFIX + "null.key", defaultValue = "default")
     String nullKey;
@@ -73,6 +77,9 @@ public interface ProducerBuilder {
     @ConfigProperty(name = PROP_PREFIX + "timeout", defaultValue = "0")
     Integer timeout;
 
+    @ConfigProperty(name = PROP_PREFIX + "max.in.flight.records", defaultValue = "0")
+    long maxInFlightRecords;
+
     @PostConstruct
     void connect() {
         final Config config = ConfigProvider.getConfig();
@@ -85,6 +92,7 @@ void connect() {
             throw new DebeziumException(e);
         }
         producerConfig = getConfigSubset(config, PROP_PRODUCER_PREFIX);
+        watermark = new AcknowledgementWatermark("pulsar", maxInFlightRecords);
     }
 
     @PreDestroy
@@ -138,12 +146,16 @@ public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitt
             final Producer<?> producer = producers.computeIfAbsent(topicName, (topic) -> createProducer(topic, record.value()));
             batchProducers.put(topicName, producer);
 
-            final String key = (record.key()) == null ? nullKey : getString(record.key());
+            final String key = (record.key()) == null ? nullKey : getText(record.key());
             @SuppressWarnings("rawtypes")
             final TypedMessageBuilder message;
+            // The schema follows the value, a topic may receive both, e.g. with the compression of large values only
             if (record.value() instanceof String) {
                 message = producer.newMessage(Schema.STRING);
             }
+            else if (record.value() instanceof byte[]) {
+                message = producer.newMessage(Schema.BYTES);
+            }
             else {
                 message = producer.newMessage();
             }
@@ -152,24 +164,27 @@ public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitt
                     .key(key)
                     .value(record.value());
 
-            // We will wait for the producers to flush instead of waiting for these individually
+            // The sends complete on the Pulsar I/O threads, the records are committed in order by the engine thread
+            final AcknowledgementWatermark.Acknowledgement acknowledgement = watermark.track(record, committer);
             message.sendAsync()
                     .whenComplete((messageId, exception) -> {
                         if (exception == null) {
                             LOGGER.trace("Sent message with id: {}", messageId);
-                            try {
-                                committer.markProcessed(record);
-                            }
-                            catch (InterruptedException e) {
-                                throw new DebeziumException(e);
-                            }
+                            acknowledgement.acknowledge();
                         }
                         else {
                             LOGGER.error("Failed to send record to {} destination", record.destination(), exception);
+                            acknowledgement.fail((Throwable) exception);
                         }
                     });
         }
 
+        if (maxInFlightRecords > 0) {
+            // The producers send on their own schedule, the sends may overlap with the following batches
+            watermark.finishBatch(committer);
+            return;
+        }
+
         // Flush all producers asynchronously
         // Waiting for the returned futures will wait until all messages have been successfully persisted.
         CompletableFuture<Void> allProducersCompleted = CompletableFuture
@@ -193,6 +208,11 @@ public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitt
             throw new DebeziumException(exception);
         }
 
-        committer.markBatchFinished();
+        watermark.finishBatch(committer);
+    }
+
+    @Override
+    public boolean drain(Duration timeout) throws InterruptedException {
+        return watermark.drain(timeout);
     }
 }
@@ -135,9 +135,10 @@ public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitt
         for (ChangeEvent<Object, Object> record : records) {
             LOGGER.trace("Received event '{}'", record);
 
+            final String streamName = streamNameMapper.map(record.destination());
             final var routingKeyName = routingKey
-                    .orElse(routingKeyFromTopicName ? streamNameMapper.map(record.destination()) : "");
-            final var exchangeName = exchange.orElse(streamNameMapper.map(record.destination()));
+                    .orElse(routingKeyFromTopicName ? streamName : "");
+            final var exchangeName = exchange.orElse(streamName);
 
             try {
                 if (routingKeyFromTopicName && autoCreateRoutingKey) {
@@ -178,7 +179,7 @@ public boolean supportsTombstoneEvents() {
 
     private Map<String, Object> convertRabbitMqHeaders(ChangeEvent<Object, Object> record) {
         List<Header<Object>> headers = record.headers();
-        Map<String, Object> rabbitMqHeaders = new HashMap<>();
+        Map<String, Object> rabbitMqHeaders = new HashMap<>((int) (headers.size() / 0.75f) + 1);
         for (Header<Object> header : headers) {
             rabbitMqHeaders.put(header.getKey(), header.getValue());
         }
@@ -10,6 +10,9 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import jakarta.annotation.PostConstruct;
@@ -93,7 +96,7 @@ void connect() {
             environment.streamCreator().stream(stream.get()).create();
 
             producer = environment.producerBuilder()
-                    .confirmTimeout(Duration.ofSeconds(ackTimeout))
+                    .confirmTimeout(Duration.ofMillis(ackTimeout))
                     .stream(stream.get())
                     .build();
 
@@ -120,9 +123,15 @@ void close() {
 
     }
 
+    /**
+     * Sends the records of the batch and marks them as processed once all of them are confirmed by the broker, so no
+     * record is left unconfirmed when the sink is stopped.
+     */
     @Override
     public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitter<ChangeEvent<Object, Object>> committer)
             throws InterruptedException {
+        final CountDownLatch confirmations = new CountDownLatch(records.size());
+        final AtomicReference<String> failure = new AtomicReference<>();
         for (ChangeEvent<Object, Object> record : records) {
             LOGGER.trace("Received event '{}'", record);
             try {
@@ -130,13 +139,25 @@ public void handleBatch(List<ChangeEvent<Object, Object>> records, RecordCommitt
                 producer.send(
                         producer.messageBuilder().addData(getBytes(value)).build(),
                         confirmationStatus -> {
+                            if (!confirmationStatus.isConfirmed()) {
+                                failure.compareAndSet(null, "code " + confirmationStatus.getCode());
+                            }
+                            confirmations.countDown();
                         });
 
             }
             catch (StreamException e) {
                 throw new DebeziumException(e);
             }
+        }
 
+        if (!confirmations.await(ackTimeout, TimeUnit.MILLISECONDS)) {
+            throw new DebeziumException("Timed out waiting for the confirmation of " + confirmations.getCount() + " message(s) by stream '" + stream.get() + "'");
+        }
+        if (failure.get() != null) {
+            throw new DebeziumException("Stream '" + stream.get() + "' did not confirm a message, " + failure.get());
+        }
+        for (ChangeEvent<Object, Object> record : records) {
             committer.markProcessed(record);
         }
 
@@ -151,7 +172,7 @@ public boolean supportsTombstoneEvents() {
 
     private Map<String, Object> convertRabbitMqHeaders(ChangeEvent<Object, Object> record) {
         List<Header<Object>> headers = record.headers();
-        Map<String, Object> rabbitMqHeaders = new HashMap<>();
+        Map<String, Object> rabbitMqHeaders = new HashMap<>((int) (headers.size() / 0.75f) + 1);
         for (Header<Object> header : headers) {
             rabbitMqHeaders.put(header.getKey(), header.getValue());
         }
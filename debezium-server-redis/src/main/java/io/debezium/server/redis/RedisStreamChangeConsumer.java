@@ -8,6 +8,10 @@
 import static io.debezium.server.redis.RedisStreamChangeConsumerConfig.MESSAGE_FORMAT_COMPACT;
 import static io.debezium.server.redis.RedisStreamChangeConsumerConfig.MESSAGE_FORMAT_EXTENDED;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
@@ -23,8 +27,11 @@
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
 import jakarta.inject.Named;
 
+import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,11 +41,13 @@
 import io.debezium.engine.ChangeEvent;
 import io.debezium.engine.DebeziumEngine;
 import io.debezium.engine.DebeziumEngine.RecordCommitter;
+import io.debezium.server.Backoff;
 import io.debezium.server.BaseChangeConsumer;
+import io.debezium.server.CustomConsumerBuilder;
+import io.debezium.server.HeaderEncodingCache;
 import io.debezium.storage.redis.RedisClient;
 import io.debezium.storage.redis.RedisClientConnectionException;
 import io.debezium.storage.redis.RedisConnection;
-import io.debezium.util.DelayStrategy;
 
 /**
  * Implementation of the consumer that delivers the messages into Redis (stream) destination.
@@ -58,6 +67,8 @@ public class RedisStreamChangeConsumer extends BaseChangeConsumer
     private static final String EXTENDED_MESSAGE_KEY_KEY = "key";
     private static final String EXTENDED_MESSAGE_VALUE_KEY = "value";
 
+    private static final String PROP_COMPRESSION_CODEC = "debezium.sink.redis.compression.codec";
+
     private RedisClient client;
 
     private Function<ChangeEvent<Object, Object>, Map<String, String>> recordMapFunction;
@@ -66,44 +77,85 @@ public class RedisStreamChangeConsumer extends BaseChangeConsumer
 
     private RedisStreamChangeConsumerConfig config;
 
+    @Inject
+    @CustomConsumerBuilder
+    Instance<RedisClient> customClient;
+
     @PostConstruct
     void connect() {
+        checkCompression(ConfigProvider.getConfig());
         Configuration configuration = Configuration.from(getConfigSubset(ConfigProvider.getConfig(), ""));
         config = new RedisStreamChangeConsumerConfig(configuration);
 
         String messageFormat = config.getMessageFormat();
         if (MESSAGE_FORMAT_EXTENDED.equals(messageFormat)) {
+            // Only the keys are normalized, the values are passed as they are
+            final HeaderEncodingCache<String> headerKeys = new HeaderEncodingCache<>(key -> key.toUpperCase(Locale.ROOT), this::getString);
             recordMapFunction = record -> {
                 Map<String, String> recordMap = new LinkedHashMap<>();
-                String key = (record.key() != null) ? getString(record.key()) : config.getNullKey();
-                String value = (record.value() != null) ? getString(record.value()) : config.getNullValue();
-                Map<String, String> headers = convertHeaders(record);
+                String key = (record.key() != null) ? getText(record.key()) : config.getNullKey();
+                String value = (record.value() != null) ? getValueText(record.value()) : config.getNullValue();
 
                 recordMap.put(EXTENDED_MESSAGE_KEY_KEY, key);
                 recordMap.put(EXTENDED_MESSAGE_VALUE_KEY, value);
-                for (Map.Entry<String, String> entry : headers.entrySet()) {
-                    recordMap.put(entry.getKey().toUpperCase(Locale.ROOT), entry.getValue());
-                }
+                forEachHeader(record, (headerKey, headerValue) -> recordMap.put(headerKeys.key(headerKey), headerValue));
                 return recordMap;
             };
         }
         else if (MESSAGE_FORMAT_COMPACT.equals(messageFormat)) {
             recordMapFunction = record -> {
-                String key = (record.key() != null) ? getString(record.key()) : config.getNullKey();
-                String value = (record.value() != null) ? getString(record.value()) : config.getNullValue();
+                String key = (record.key() != null) ? getText(record.key()) : config.getNullKey();
+                String value = (record.value() != null) ? getValueText(record.value()) : config.getNullValue();
                 return Map.of(key, value);
             };
         }
 
-        RedisConnection redisConnection = new RedisConnection(config.getAddress(), config.getDbIndex(), config.getUser(), config.getPassword(),
-                config.getConnectionTimeout(),
-                config.getSocketTimeout(), config.isSslEnabled());
-        client = redisConnection.getRedisClient(DEBEZIUM_REDIS_SINK_CLIENT_NAME, config.isWaitEnabled(), config.getWaitTimeout(), config.isWaitRetryEnabled(),
-                config.getWaitRetryDelay());
+        if (customClient.isResolvable()) {
+            client = customClient.get();
+            LOGGER.info("Obtained custom configured RedisClient '{}'", client);
+        }
+        else {
+            RedisConnection redisConnection = new RedisConnection(config.getAddress(), config.getDbIndex(), config.getUser(), config.getPassword(),
+                    config.getConnectionTimeout(),
+                    config.getSocketTimeout(), config.isSslEnabled());
+            client = redisConnection.getRedisClient(DEBEZIUM_REDIS_SINK_CLIENT_NAME, config.isWaitEnabled(), config.getWaitTimeout(), config.isWaitRetryEnabled(),
+                    config.getWaitRetryDelay());
+        }
 
         isMemoryOk = new RedisMemoryThreshold(client, config);
     }
 
+    /**
+     * The Redis client accepts strings only, compressed values are always binary and cannot be written without corruption.
+     * The values of the other formats are checked when they are written.
+     */
+    private void checkCompression(Config config) {
+        final String codec = config.getOptionalValue(PROP_COMPRESSION_CODEC, String.class).orElse("none");
+        if (!"none".equals(codec)) {
+            throw new DebeziumException("Redis sink does not support the compression of values, '" + PROP_COMPRESSION_CODEC + "' must not be set");
+        }
+    }
+
+    /**
+     * Decodes the value as text whatever the configured format, failing on bytes that are not valid UTF-8, e.g. an Avro
+     * or Protobuf value, instead of writing a corrupted value and committing its offset.
+     */
+    private String getValueText(Object value) {
+        if (!(value instanceof byte[])) {
+            return getString(value);
+        }
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap((byte[]) value))
+                    .toString();
+        }
+        catch (CharacterCodingException e) {
+            throw new DebeziumException("Redis sink supports text values only, the value is not valid UTF-8", e);
+        }
+    }
+
     @PreDestroy
     void close() {
         try {
@@ -138,7 +190,7 @@ private <T> Stream<List<T>> batches(List<T> source, int length) {
     public void handleBatch(List<ChangeEvent<Object, Object>> records,
                             RecordCommitter<ChangeEvent<Object, Object>> committer)
             throws InterruptedException {
-        DelayStrategy delayStrategy = DelayStrategy.exponential(Duration.ofMillis(config.getInitialRetryDelay()), Duration.ofMillis(config.getMaxRetryDelay()));
+        Backoff backoff = new Backoff(Duration.ofMillis(config.getInitialRetryDelay()), Duration.ofMillis(config.getMaxRetryDelay()));
 
         LOGGER.trace("Handling a batch of {} records", records.size());
         batches(records, config.getBatchSize()).forEach(batch -> {
@@ -219,7 +271,10 @@ else if (isMemoryOk.check()) {
                 }
 
                 // Failed to execute the transaction, retry...
-                delayStrategy.sleepWhen(!completedSuccessfully);
+                if (!completedSuccessfully) {
+                    clonedBatch.forEach(record -> recordRetry(record.destination()));
+                }
+                backoff.sleepWhen(!completedSuccessfully);
             }
         });
 
@@ -5,11 +5,10 @@
  */
 package io.debezium.server.rocketmq;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.CountDownLatch;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -36,21 +35,24 @@
 import io.debezium.DebeziumException;
 import io.debezium.engine.ChangeEvent;
 import io.debezium.engine.DebeziumEngine;
+import io.debezium.server.AcknowledgementWatermark;
 import io.debezium.server.BaseChangeConsumer;
 import io.debezium.server.CustomConsumerBuilder;
+import io.debezium.server.Drainable;
 
 /**
  * rocketmq change consumer
  */
 @Named("rocketmq")
 @Dependent
-public class RocketMqChangeConsumer extends BaseChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>> {
+public class RocketMqChangeConsumer extends BaseChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<Object, Object>>, Drainable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RocketMqChangeConsumer.class);
 
     private static final String PROP_PREFIX = "debezium.sink.rocketmq.";
 
     private static final String PROP_PRODUCER_PREFIX = PROP_PREFIX + "producer.";
+    private static final String PROP_MAX_IN_FLIGHT_RECORDS = PROP_PREFIX + "max.in.flight.records";
 
     // acl config
     private static final String PROP_PRODUCER_ACL_ENABLE = PROP_PRODUCER_PREFIX + "acl.enabled";
@@ -65,16 +67,18 @@ public class RocketMqChangeConsumer extends BaseChangeConsumer implements Debezi
     @CustomConsumerBuilder
     Instance<DefaultMQProducer> customRocketMqProducer;
     private DefaultMQProducer mqProducer;
+    private AcknowledgementWatermark watermark;
 
     @PostConstruct
     void connect() {
+        final Config config = ConfigProvider.getConfig();
+        watermark = new AcknowledgementWatermark("rocketmq", config.getOptionalValue(PROP_MAX_IN_FLIGHT_RECORDS, Long.class).orElse(0L));
         if (customRocketMqProducer.isResolvable()) {
             mqProducer = customRocketMqProducer.get();
             startProducer();
             LOGGER.info("Obtained custom configured RocketMqProducer '{}'", mqProducer);
             return;
         }
-        final Config config = ConfigProvider.getConfig();
         // init rocketmq producer
         RPCHook rpcHook = null;
         Optional<Boolean> aclEnable = config.getOptionalValue(PROP_PRODUCER_ACL_ENABLE, Boolean.class);
@@ -131,45 +135,43 @@ void close() {
     @Override
     public void handleBatch(List<ChangeEvent<Object, Object>> records, DebeziumEngine.RecordCommitter<ChangeEvent<Object, Object>> committer)
             throws InterruptedException {
-        final CountDownLatch latch = new CountDownLatch(records.size());
         for (ChangeEvent<Object, Object> record : records) {
+            // The callbacks run on the client threads, the records are committed in order by the engine thread
+            final AcknowledgementWatermark.Acknowledgement acknowledgement = watermark.track(record, committer);
             try {
                 final String topicName = streamNameMapper.map(record.destination());
-                String key = getString(record.key());
+                String key = getText(record.key());
 
                 Message message = new Message(topicName, null, key, getBytes(record.value()));
 
-                Map<String, String> headers = convertHeaders(record);
-                for (Map.Entry<String, String> entry : headers.entrySet()) {
-                    message.putUserProperty(entry.getKey(), entry.getValue());
-                }
+                forEachHeader(record, message::putUserProperty);
 
                 mqProducer.send(message, new SelectMessageQueueByHash(), key, new SendCallback() {
                     @Override
                     public void onSuccess(SendResult sendResult) {
                         LOGGER.debug("Sent message with offset: {}", sendResult.getQueueOffset());
-                        latch.countDown();
+                        acknowledgement.acknowledge();
                     }
 
                     @Override
                     public void onException(Throwable throwable) {
                         LOGGER.error("Failed to send record to {}:", record.destination(), throwable);
-                        throw new DebeziumException(throwable);
+                        acknowledgement.fail(throwable);
                     }
                 });
             }
             catch (Exception e) {
+                acknowledgement.fail(e);
                 throw new DebeziumException(e);
             }
         }
 
         // Messages have set default send timeout, so this will not block forever.
-        latch.await();
-
-        for (ChangeEvent<Object, Object> record : records) {
-            committer.markProcessed(record);
-        }
-        committer.markBatchFinished();
+        watermark.finishBatch(committer);
     }
 
+    @Override
+    public boolean drain(Duration timeout) throws InterruptedException {
+        return watermark.drain(timeout);
+    }
 }